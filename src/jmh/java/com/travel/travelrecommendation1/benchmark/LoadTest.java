@@ -0,0 +1,543 @@
+package com.travel.travelrecommendation1.benchmark;
+
+import com.travel.travelrecommendation1.TravelRecommendation1Application;
+import com.travel.travelrecommendation1.catalog.DestinationCatalog;
+import com.travel.travelrecommendation1.model.Destination;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * End-to-end load test of one instance. Starts the application on a random
+ * port against an embedded H2 database (or any {@code --jdbc-url}, such as a
+ * local Postgres), seeds an empty table with a {@link SyntheticCatalog}, and
+ * drives a weighted mix of {@code POST /api/recommendations},
+ * {@code GET /api/recommendations/destinations} and
+ * {@code GET /api/recommendations/destinations/{id}}. With {@code --url} it
+ * drives an instance that is already running instead.
+ * <p>
+ * With {@code --rate} requests are sent on a fixed schedule (open loop) and
+ * each latency is measured from the time the request was due, so a stall is
+ * charged to every request queued behind it. With {@code --concurrency} each
+ * client sends back to back (closed loop); those latencies are also reported
+ * corrected for coordinated omission, assuming a client would have sent its
+ * next request one median latency after the previous one.
+ * <p>
+ * {@code --db-latency} holds every statement's connection for that long
+ * before the statement runs, to see how the request threads and the JDBC
+ * pool behave in front of a slow database.
+ * <p>
+ * Options are {@code --name=value}; anything not listed in {@link #usage()}
+ * is passed on to the application, e.g.
+ * {@code --recommendation.cache.enabled=false} or
+ * {@code --spring.threads.virtual.enabled=true}.
+ */
+public final class LoadTest {
+
+    private static final String API = "/api/recommendations";
+
+    private static final String[] TAGS = { "culture", "food", "adventure", "beach", "nature", "history",
+            "nightlife", "romance", "mountain", "luxury", "art" };
+    private static final String[] COUNTRIES = { "Japan", "Italy", "France", "Spain", "Iceland" };
+
+    // Set once the catalog is seeded, see --db-latency
+    private static volatile long databaseLatencyNanos;
+
+    private enum Endpoint {
+        RECOMMEND("recommend"), DETAIL("detail"), LIST("list");
+
+        final String label;
+
+        Endpoint(String label) {
+            this.label = label;
+        }
+    }
+
+    private final Options options;
+    private final URI base;
+    private final long maxId;
+    private final HttpClient client;
+    private final String[] bodies;
+    private final Endpoint[] mix;
+    private final Map<Endpoint, Stats> stats = new LinkedHashMap<>();
+
+    private LoadTest(Options options, URI base, long maxId) {
+        this.options = options;
+        this.base = base;
+        this.maxId = maxId;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(options.timeout)
+                .build();
+        this.bodies = requestBodies(options.distinctRequests, options.seed);
+        this.mix = mix(options.mix);
+        for (Endpoint endpoint : Endpoint.values()) {
+            stats.put(endpoint, new Stats());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = Options.parse(args);
+        ConfigurableApplicationContext app = null;
+        URI base = options.url;
+        long maxId = options.catalogSize;
+        try {
+            if (base == null) {
+                app = start(options);
+                maxId = seed(app, options);
+                databaseLatencyNanos = options.dbLatency.toNanos();
+                base = URI.create("http://localhost:" + app.getEnvironment().getProperty("local.server.port"));
+            }
+            LoadTest test = new LoadTest(options, base, maxId);
+            test.run();
+            test.report(System.out);
+        } finally {
+            if (app != null) {
+                app.close();
+            }
+        }
+    }
+
+    private static ConfigurableApplicationContext start(Options options) {
+        Map<String, String> properties = new LinkedHashMap<>();
+        properties.put("server.port", "0");
+        properties.put("spring.datasource.url", options.jdbcUrl);
+        properties.put("spring.datasource.username", options.dbUser);
+        properties.put("spring.datasource.password", options.dbPassword);
+        properties.put("spring.jpa.properties.hibernate.dialect", options.jdbcUrl.startsWith("jdbc:h2:")
+                ? "org.hibernate.dialect.H2Dialect"
+                : "org.hibernate.dialect.PostgreSQLDialect");
+        // The synthetic catalog replaces the seed data, and a stored snapshot
+        // of some earlier run must not stand in for it
+        properties.put("spring.sql.init.mode", "never");
+        properties.put("recommendation.catalog.snapshot-file", "");
+        properties.put("spring.main.banner-mode", "off");
+        properties.put("logging.level.root", "warn");
+
+        // Command line arguments beat application.properties; the caller's win over ours
+        List<String> args = new ArrayList<>(options.applicationArgs);
+        properties.forEach((name, value) -> {
+            if (options.applicationArgs.stream().noneMatch(arg -> arg.startsWith("--" + name + "="))) {
+                args.add("--" + name + "=" + value);
+            }
+        });
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(TravelRecommendation1Application.class);
+        if (!options.dbLatency.isZero()) {
+            builder.initializers(context -> context.getBeanFactory().addBeanPostProcessor(new SlowDatabase()));
+        }
+        return builder.run(args.toArray(new String[0]));
+    }
+
+    // Fills an empty table with the synthetic catalog and returns the highest id
+    private static long seed(ConfigurableApplicationContext app, Options options) {
+        JdbcTemplate jdbc = new JdbcTemplate(app.getBean(DataSource.class));
+        Long existing = jdbc.queryForObject("SELECT COUNT(*) FROM destinations", Long.class);
+        if (existing != null && existing > 0) {
+            System.out.printf("Using the %d destinations already in the database%n", existing);
+        } else {
+            List<Destination> rows = SyntheticCatalog.generate(options.catalogSize, options.seed);
+            jdbc.batchUpdate("INSERT INTO destinations (id, name, country, description, min_budget, max_budget, "
+                    + "min_duration, max_duration, interests, rating, reviews, image, highlights, best_time) "
+                    + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", rows, 1000, (statement, d) -> {
+                        statement.setLong(1, d.getId());
+                        statement.setString(2, d.getName());
+                        statement.setString(3, d.getCountry());
+                        statement.setString(4, d.getDescription());
+                        statement.setInt(5, d.getMinBudget());
+                        statement.setInt(6, d.getMaxBudget());
+                        statement.setInt(7, d.getMinDuration());
+                        statement.setInt(8, d.getMaxDuration());
+                        statement.setString(9, d.getInterests());
+                        statement.setDouble(10, d.getRating());
+                        statement.setInt(11, d.getReviews());
+                        statement.setString(12, d.getImage());
+                        statement.setString(13, d.getHighlights());
+                        statement.setString(14, d.getBestTime());
+                    });
+            List<Object[]> tags = new ArrayList<>();
+            for (Destination d : rows) {
+                for (String tag : Destination.parseInterests(d.getInterests())) {
+                    tags.add(new Object[] { d.getId(), tag });
+                }
+            }
+            jdbc.batchUpdate("INSERT INTO destination_interests (destination_id, interest) VALUES (?, ?)", tags);
+            jdbc.execute("ALTER TABLE destinations ALTER COLUMN id RESTART WITH " + (options.catalogSize + 1));
+            System.out.printf("Seeded %d synthetic destinations%n", rows.size());
+        }
+        app.getBean(DestinationCatalog.class).refresh();
+        Long maxId = jdbc.queryForObject("SELECT MAX(id) FROM destinations", Long.class);
+        return maxId == null ? 0 : maxId;
+    }
+
+    private void run() throws InterruptedException {
+        long start = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(100);
+        long measureFrom = start + options.warmup.toNanos();
+        long end = measureFrom + options.duration.toNanos();
+        int threads = options.rate > 0 ? options.threads : options.concurrency;
+        ExecutorService workers = Executors.newFixedThreadPool(threads);
+        if (options.rate > 0) {
+            long interval = Math.max(1, TimeUnit.SECONDS.toNanos(1) / options.rate);
+            AtomicLong next = new AtomicLong();
+            for (int i = 0; i < threads; i++) {
+                workers.execute(() -> {
+                    for (long due = start + next.getAndIncrement() * interval; due < end;
+                            due = start + next.getAndIncrement() * interval) {
+                        long wait;
+                        while ((wait = due - System.nanoTime()) > 0) {
+                            LockSupport.parkNanos(wait);
+                        }
+                        send(due, due >= measureFrom);
+                    }
+                });
+            }
+        } else {
+            for (int i = 0; i < threads; i++) {
+                workers.execute(() -> {
+                    while (System.nanoTime() < start) {
+                        LockSupport.parkNanos(start - System.nanoTime());
+                    }
+                    long now;
+                    while ((now = System.nanoTime()) < end) {
+                        send(now, now >= measureFrom);
+                    }
+                });
+            }
+        }
+        workers.shutdown();
+        workers.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+    }
+
+    private void send(long due, boolean measured) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Endpoint endpoint = mix[random.nextInt(mix.length)];
+        HttpRequest.Builder request = HttpRequest.newBuilder().timeout(options.timeout);
+        switch (endpoint) {
+            case RECOMMEND -> request.uri(base.resolve(API))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(bodies[random.nextInt(bodies.length)]));
+            case DETAIL -> request.uri(base.resolve(API + "/destinations/" + (1 + random.nextLong(maxId))));
+            case LIST -> request.uri(base.resolve(API + "/destinations?after=" + random.nextLong(maxId)));
+        }
+        String failure;
+        try {
+            HttpResponse<Void> response = client.send(request.build(), HttpResponse.BodyHandlers.discarding());
+            failure = response.statusCode() / 100 == 2 ? null : String.valueOf(response.statusCode());
+        } catch (IOException e) {
+            failure = e.getClass().getSimpleName();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        if (measured) {
+            stats.get(endpoint).record(System.nanoTime() - due, failure);
+        }
+    }
+
+    private void report(PrintStream out) throws IOException {
+        boolean open = options.rate > 0;
+        double seconds = options.duration.toNanos() / 1e9;
+        out.println();
+        out.printf("%s, %s measured after %s warmup, %s%n",
+                open ? "Open loop at " + options.rate + " req/s"
+                        : "Closed loop with " + options.concurrency + " clients",
+                format(options.duration), format(options.warmup), base);
+        if (!options.dbLatency.isZero() || !options.applicationArgs.isEmpty()) {
+            out.printf("Database latency %s, application %s%n", format(options.dbLatency),
+                    options.applicationArgs);
+        }
+
+        Map<String, Histogram> raw = new LinkedHashMap<>();
+        Map<String, Histogram> corrected = new LinkedHashMap<>();
+        Histogram all = new Histogram(3);
+        Histogram allCorrected = new Histogram(3);
+        long errors = 0;
+        for (Map.Entry<Endpoint, Stats> entry : stats.entrySet()) {
+            Histogram histogram = entry.getValue().histogram;
+            if (histogram.getTotalCount() == 0) {
+                continue;
+            }
+            raw.put(entry.getKey().label, histogram);
+            all.add(histogram);
+            errors += entry.getValue().errors();
+            if (!open) {
+                Histogram copy = histogram.copyCorrectedForCoordinatedOmission(histogram.getValueAtPercentile(50));
+                corrected.put(entry.getKey().label, copy);
+                allCorrected.add(copy);
+            }
+        }
+        raw.put("all", all);
+        corrected.put("all", allCorrected);
+
+        out.println(open ? "Latency from when each request was due (ms):" : "Latency as measured (ms):");
+        table(out, raw, seconds);
+        if (!open) {
+            out.println("Latency corrected for coordinated omission (ms):");
+            table(out, corrected, seconds);
+        }
+        if (errors > 0) {
+            out.printf("%d requests failed or returned a non-2xx status%n", errors);
+            for (Map.Entry<Endpoint, Stats> entry : stats.entrySet()) {
+                if (entry.getValue().errors() > 0) {
+                    out.printf("  %-10s %d %s%n", entry.getKey().label, entry.getValue().errors(),
+                            entry.getValue().failures);
+                }
+            }
+        }
+
+        if (options.histogramDir != null) {
+            Files.createDirectories(options.histogramDir);
+            for (Map.Entry<String, Histogram> entry : (open ? raw : corrected).entrySet()) {
+                Path file = options.histogramDir.resolve(entry.getKey() + ".hgrm");
+                try (PrintStream hgrm = new PrintStream(Files.newOutputStream(file))) {
+                    entry.getValue().outputPercentileDistribution(hgrm, 1000.0);
+                }
+            }
+            out.println("Percentile distributions written to " + options.histogramDir);
+        }
+    }
+
+    private static void table(PrintStream out, Map<String, Histogram> histograms, double seconds) {
+        out.printf("  %-10s %9s %9s %8s %8s %8s %8s %8s %8s%n",
+                "endpoint", "requests", "req/s", "p50", "p90", "p99", "p99.9", "p99.99", "max");
+        for (Map.Entry<String, Histogram> entry : histograms.entrySet()) {
+            Histogram h = entry.getValue();
+            out.printf(Locale.ROOT, "  %-10s %9d %9.1f %8.2f %8.2f %8.2f %8.2f %8.2f %8.2f%n",
+                    entry.getKey(), h.getTotalCount(), h.getTotalCount() / seconds,
+                    millis(h.getValueAtPercentile(50)), millis(h.getValueAtPercentile(90)),
+                    millis(h.getValueAtPercentile(99)), millis(h.getValueAtPercentile(99.9)),
+                    millis(h.getValueAtPercentile(99.99)), millis(h.getMaxValue()));
+        }
+    }
+
+    private static String format(Duration duration) {
+        return DurationStyle.SIMPLE.print(duration,
+                duration.toMillis() % 1000 == 0 ? ChronoUnit.SECONDS : ChronoUnit.MILLIS);
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+
+    // What the results page sends, over the synthetic catalog's tags
+    private static String[] requestBodies(int count, long seed) {
+        Random random = new Random(seed);
+        String[] bodies = new String[count];
+        for (int i = 0; i < count; i++) {
+            int budget = 800 + random.nextInt(43) * 100;
+            int duration = 3 + random.nextInt(12);
+            Set<String> interests = new LinkedHashSet<>();
+            int interestCount = 1 + random.nextInt(3);
+            while (interests.size() < interestCount) {
+                interests.add(TAGS[random.nextInt(TAGS.length)]);
+            }
+            StringBuilder body = new StringBuilder()
+                    .append("{\"budget\":").append(budget)
+                    .append(",\"duration\":").append(duration)
+                    .append(",\"minBudget\":500,\"maxBudget\":").append(budget)
+                    .append(",\"minDuration\":").append(duration)
+                    .append(",\"maxDuration\":").append(duration)
+                    .append(",\"interests\":[\"").append(String.join("\",\"", interests)).append("\"]");
+            if (random.nextInt(5) == 0) {
+                body.append(",\"country\":\"").append(COUNTRIES[random.nextInt(COUNTRIES.length)]).append('"');
+            }
+            bodies[i] = body.append('}').toString();
+        }
+        return bodies;
+    }
+
+    // Expands "recommend=90,detail=9,list=1" into a table to draw from
+    private static Endpoint[] mix(String mix) {
+        List<Endpoint> table = new ArrayList<>();
+        for (String part : mix.split(",")) {
+            String[] weight = part.trim().split("=");
+            Endpoint endpoint = null;
+            for (Endpoint candidate : Endpoint.values()) {
+                if (candidate.label.equals(weight[0].trim())) {
+                    endpoint = candidate;
+                }
+            }
+            if (endpoint == null || weight.length != 2) {
+                throw new IllegalArgumentException("Bad --mix entry '" + part + "'");
+            }
+            for (int i = Integer.parseInt(weight[1].trim()); i > 0; i--) {
+                table.add(endpoint);
+            }
+        }
+        if (table.isEmpty()) {
+            throw new IllegalArgumentException("--mix has no positive weights");
+        }
+        return table.toArray(new Endpoint[0]);
+    }
+
+    private static String usage() {
+        return String.join(System.lineSeparator(),
+                "Options (--name=value):",
+                "  --rate               requests per second, open loop",
+                "  --concurrency        clients sending back to back, closed loop (default 16)",
+                "  --threads            sender threads for --rate (default 256)",
+                "  --duration           measured time (default 30s)",
+                "  --warmup             time before measuring (default 10s)",
+                "  --mix                endpoint weights (default recommend=90,detail=9,list=1)",
+                "  --distinct-requests  number of different recommendation requests (default 1000)",
+                "  --timeout            per request (default 10s)",
+                "  --catalog-size       synthetic destinations to seed (default 10000)",
+                "  --seed               for the catalog and the requests (default 42)",
+                "  --jdbc-url           database to start against (default embedded H2)",
+                "  --db-user, --db-password",
+                "  --db-latency         added to every database statement (default 0ms)",
+                "  --url                drive this running instance instead of starting one",
+                "  --histogram-dir      write .hgrm percentile distributions here");
+    }
+
+    // Delays each statement while it holds a pooled connection
+    private static final class SlowDatabase implements BeanPostProcessor {
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!(bean instanceof DataSource)) {
+                return bean;
+            }
+            return new DelegatingDataSource((DataSource) bean) {
+                @Override
+                public Connection getConnection() throws SQLException {
+                    return slow(super.getConnection());
+                }
+
+                @Override
+                public Connection getConnection(String username, String password) throws SQLException {
+                    return slow(super.getConnection(username, password));
+                }
+            };
+        }
+
+        private static Connection slow(Connection connection) {
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[] { Connection.class }, (proxy, method, args) -> {
+                        if (method.getName().startsWith("prepare") || method.getName().equals("createStatement")) {
+                            TimeUnit.NANOSECONDS.sleep(databaseLatencyNanos);
+                        }
+                        try {
+                            return method.invoke(connection, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                    });
+        }
+    }
+
+    private static final class Stats {
+
+        // Microseconds, resized as needed
+        final Histogram histogram = new ConcurrentHistogram(3);
+        // Status code or exception to count
+        final Map<String, LongAdder> failures = new ConcurrentSkipListMap<>();
+
+        void record(long nanos, String failure) {
+            histogram.recordValue(TimeUnit.NANOSECONDS.toMicros(nanos));
+            if (failure != null) {
+                failures.computeIfAbsent(failure, key -> new LongAdder()).increment();
+            }
+        }
+
+        long errors() {
+            return failures.values().stream().mapToLong(LongAdder::sum).sum();
+        }
+    }
+
+    private static final class Options {
+
+        URI url;
+        int catalogSize = 10_000;
+        long seed = 42;
+        String jdbcUrl = "jdbc:h2:mem:loadtest;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+        String dbUser = "sa";
+        String dbPassword = "";
+        int rate;
+        int concurrency = 16;
+        int threads = 256;
+        Duration duration = Duration.ofSeconds(30);
+        Duration warmup = Duration.ofSeconds(10);
+        String mix = "recommend=90,detail=9,list=1";
+        int distinctRequests = 1000;
+        Duration timeout = Duration.ofSeconds(10);
+        Duration dbLatency = Duration.ZERO;
+        Path histogramDir;
+        final List<String> applicationArgs = new ArrayList<>();
+
+        static Options parse(String[] args) {
+            Options options = new Options();
+            for (String arg : args) {
+                if (arg.equals("--help")) {
+                    System.out.println(usage());
+                    System.exit(0);
+                }
+                int eq = arg.indexOf('=');
+                if (!arg.startsWith("--") || eq < 0) {
+                    throw new IllegalArgumentException("Expected --name=value but got '" + arg + "'\n" + usage());
+                }
+                String value = arg.substring(eq + 1);
+                switch (arg.substring(2, eq)) {
+                    case "url" -> options.url = URI.create(value);
+                    case "catalog-size" -> options.catalogSize = Integer.parseInt(value);
+                    case "seed" -> options.seed = Long.parseLong(value);
+                    case "jdbc-url" -> options.jdbcUrl = value;
+                    case "db-user" -> options.dbUser = value;
+                    case "db-password" -> options.dbPassword = value;
+                    case "db-latency" -> options.dbLatency = DurationStyle.detectAndParse(value);
+                    case "rate" -> options.rate = Integer.parseInt(value);
+                    case "concurrency" -> options.concurrency = Integer.parseInt(value);
+                    case "threads" -> options.threads = Integer.parseInt(value);
+                    case "duration" -> options.duration = DurationStyle.detectAndParse(value);
+                    case "warmup" -> options.warmup = DurationStyle.detectAndParse(value);
+                    case "mix" -> options.mix = value;
+                    case "distinct-requests" -> options.distinctRequests = Integer.parseInt(value);
+                    case "timeout" -> options.timeout = DurationStyle.detectAndParse(value);
+                    case "histogram-dir" -> options.histogramDir = Path.of(value);
+                    default -> options.applicationArgs.add(arg);
+                }
+            }
+            if (options.rate < 0 || options.concurrency < 1 || options.threads < 1 || options.distinctRequests < 1
+                    || options.catalogSize < 1) {
+                throw new IllegalArgumentException("Rates, counts and sizes must be positive\n" + usage());
+            }
+            return options;
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.travel.travelrecommendation1.benchmark;
+
+import com.travel.travelrecommendation1.cache.DestinationCache;
+import com.travel.travelrecommendation1.cache.RecommendationCache;
+import com.travel.travelrecommendation1.cache.RequestCoalescer;
+import com.travel.travelrecommendation1.catalog.DestinationCatalog;
+import com.travel.travelrecommendation1.dto.RecommendationRequest;
+import com.travel.travelrecommendation1.dto.RecommendationResponse;
+import com.travel.travelrecommendation1.model.Destination;
+import com.travel.travelrecommendation1.repository.DestinationRepository;
+import com.travel.travelrecommendation1.scoring.ScoringEngine;
+import com.travel.travelrecommendation1.service.RecommendationMetrics;
+import com.travel.travelrecommendation1.service.RecommendationServiceImpl;
+import com.travel.travelrecommendation1.shard.ShardCoordinator;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput and latency of {@link RecommendationServiceImpl#getRecommendations}
+ * on synthetic catalogs, with the result cache disabled so every invocation
+ * scores. Run with {@code -prof gc} to see the allocation rate per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Xms2g", "-Xmx4g" })
+public class RecommendationScoringBenchmark {
+
+    @Param({ "1000", "100000", "1000000" })
+    public int catalogSize;
+
+    @Param({ "default", "country", "wide-budget", "narrow-budget", "multi-interest", "large-limit" })
+    public String shape;
+
+    private RecommendationServiceImpl sequential;
+    private RecommendationServiceImpl parallel;
+    private ScoringEngine parallelEngine;
+    private RecommendationRequest request;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<Destination> rows = SyntheticCatalog.generate(catalogSize, 42);
+        DestinationRepository repository = stubRepository(rows);
+        DestinationCatalog catalog = new DestinationCatalog(repository, event -> {
+        });
+        catalog.refresh();
+        MeterRegistry registry = new SimpleMeterRegistry();
+        RecommendationCache noCache = new RecommendationCache(false, 0, Duration.ZERO, registry);
+        RecommendationMetrics metrics = new RecommendationMetrics(registry);
+        parallelEngine = new ScoringEngine(true, 0, 50_000, 16_384);
+        RequestCoalescer noCoalescing = new RequestCoalescer(false, registry);
+        DestinationCache noDestinationCache = new DestinationCache(false, 0, 0, Duration.ZERO, false, 0,
+                new JsonMapper(), registry);
+        ScoringEngine sequentialEngine = ScoringEngine.sequential();
+        sequential = new RecommendationServiceImpl(repository, catalog, noCache, noCoalescing, noDestinationCache,
+                sequentialEngine, metrics, unsharded(catalog, sequentialEngine), "memory");
+        parallel = new RecommendationServiceImpl(repository, catalog, noCache, noCoalescing, noDestinationCache,
+                parallelEngine, metrics, unsharded(catalog, parallelEngine), "memory");
+        request = request(shape);
+    }
+
+    private static ShardCoordinator unsharded(DestinationCatalog catalog, ScoringEngine engine) {
+        return new ShardCoordinator("memory", 1, "id", new String[0], Duration.ofSeconds(1), 1, catalog,
+                engine, new JsonMapper());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        parallelEngine.shutdown();
+    }
+
+    @Benchmark
+    public RecommendationResponse sequential() {
+        return sequential.getRecommendations(request);
+    }
+
+    @Benchmark
+    public RecommendationResponse parallel() {
+        return parallel.getRecommendations(request);
+    }
+
+    // Request shapes; "default" is what the results page sends
+    static RecommendationRequest request(String shape) {
+        RecommendationRequest request = new RecommendationRequest();
+        request.setBudget(2500);
+        request.setDuration(7);
+        request.setMinBudget(500);
+        request.setMaxBudget(2500);
+        request.setMinDuration(7);
+        request.setMaxDuration(7);
+        request.setInterests(List.of("culture"));
+        switch (shape) {
+            case "country" -> request.setCountry("Japan");
+            case "wide-budget" -> {
+                request.setMinBudget(0);
+                request.setMaxBudget(100_000);
+                request.setMaxDuration(null);
+            }
+            case "narrow-budget" -> {
+                request.setMinBudget(900);
+                request.setMaxBudget(1100);
+            }
+            case "multi-interest" -> request.setInterests(List.of("beach", "culture", "food", "nature"));
+            case "large-limit" -> request.setLimit(1000);
+            default -> {
+            }
+        }
+        return request;
+    }
+
+    // Only findAll is needed to build the catalog snapshot
+    static DestinationRepository stubRepository(List<Destination> rows) {
+        return (DestinationRepository) Proxy.newProxyInstance(DestinationRepository.class.getClassLoader(),
+                new Class<?>[] { DestinationRepository.class }, (proxy, method, args) -> {
+                    if (method.getName().equals("findAll")) {
+                        return rows;
+                    }
+                    if (method.getName().equals("toString")) {
+                        return "StubDestinationRepository";
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
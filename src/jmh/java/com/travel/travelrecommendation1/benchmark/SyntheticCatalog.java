@@ -0,0 +1,77 @@
+package com.travel.travelrecommendation1.benchmark;
+
+import com.travel.travelrecommendation1.model.Destination;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Generates destination catalogs of any size whose value distributions follow
+ * the seed data in {@code data/destinations.sql}: a handful of countries with
+ * Japan and Italy over-represented, min budgets of 600-2500 in steps of 100,
+ * short minimum stays, 3-4 interest tags drawn with the seed data's tag
+ * frequencies, and ratings between 4.3 and 4.9.
+ */
+public final class SyntheticCatalog {
+
+    private static final String[] COUNTRIES = { "Japan", "Japan", "Japan", "Japan", "Japan", "Italy", "Italy",
+            "Italy", "USA", "UAE", "Turkey", "Thailand", "Spain", "South America", "South Africa", "Oceania",
+            "Netherlands", "Mexico", "Maldives", "Indonesia", "Iceland", "Greece", "France", "Egypt", "Australia" };
+
+    // Tag frequencies as they occur in the seed data
+    private static final String[] TAGS = { "culture", "food", "adventure", "beach", "nature", "history",
+            "nightlife", "romance", "mountain", "luxury", "art" };
+    private static final int[] TAG_WEIGHTS = { 17, 10, 9, 8, 8, 6, 5, 4, 3, 2, 1 };
+
+    private SyntheticCatalog() {
+    }
+
+    public static List<Destination> generate(int size, long seed) {
+        Random random = new Random(seed);
+        int totalWeight = 0;
+        for (int weight : TAG_WEIGHTS) {
+            totalWeight += weight;
+        }
+        List<Destination> destinations = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Destination d = new Destination();
+            d.setId((long) (i + 1));
+            d.setName("Destination " + (i + 1));
+            d.setCountry(COUNTRIES[random.nextInt(COUNTRIES.length)]);
+            d.setDescription("Synthetic destination " + (i + 1) + " for benchmarking.");
+            int minBudget = 600 + random.nextInt(20) * 100;
+            d.setMinBudget(minBudget);
+            d.setMaxBudget(minBudget * (20 + random.nextInt(13)) / 10);
+            int minDuration = 3 + Math.min(random.nextInt(4) + random.nextInt(5), 7);
+            d.setMinDuration(minDuration);
+            d.setMaxDuration(Math.min(minDuration + 3 + random.nextInt(12), 21));
+            Set<String> tags = new LinkedHashSet<>();
+            int tagCount = random.nextInt(10) < 7 ? 3 : 4;
+            while (tags.size() < tagCount) {
+                tags.add(pick(random, totalWeight));
+            }
+            d.setInterests(String.join(",", tags));
+            d.setRating(4.3 + random.nextInt(7) / 10.0);
+            d.setReviews(1000 + random.nextInt(4000));
+            d.setImage("https://images.example.com/destination-" + (i + 1) + ".jpg");
+            d.setHighlights("Old Town,Harbour,Night Market,Viewpoint");
+            d.setBestTime("April to October");
+            destinations.add(d);
+        }
+        return destinations;
+    }
+
+    private static String pick(Random random, int totalWeight) {
+        int roll = random.nextInt(totalWeight);
+        for (int t = 0; t < TAGS.length; t++) {
+            roll -= TAG_WEIGHTS[t];
+            if (roll < 0) {
+                return TAGS[t];
+            }
+        }
+        return TAGS[0];
+    }
+}
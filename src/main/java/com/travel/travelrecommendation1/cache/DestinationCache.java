@@ -0,0 +1,174 @@
+package com.travel.travelrecommendation1.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.travel.travelrecommendation1.catalog.CatalogUpdatedEvent;
+import com.travel.travelrecommendation1.catalog.TableChangedEvent;
+import com.travel.travelrecommendation1.dto.DestinationPage;
+import com.travel.travelrecommendation1.model.Destination;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Bounded caches in front of the destination lookups: entities by id for the
+ * detail endpoint, and pages of the listing by (cursor, size). Both are
+ * evicted by size and time-to-live and exported as the {@code cache.*}
+ * metrics ({@code cache=destinations} and {@code cache=destination-pages}).
+ * <p>
+ * Writes reach this instance through the catalog's change polling: after a
+ * delta the changed entities are dropped, after a full reload everything is,
+ * and any change drops the pages. Nothing announces changes while the catalog
+ * is not loaded ({@code recommendation.scoring.mode=database}), so there the
+ * time-to-live bounds how stale an entry can get.
+ * <p>
+ * Values are kept with their JSON, encoded once on load (and gzipped when
+ * {@code gzip} is on and the JSON has at least {@code gzip-min-size} bytes),
+ * so serving them repeats neither serialization nor compression. Cached
+ * values are shared between callers and must not be modified. Unknown ids are
+ * not cached.
+ */
+@Component
+public class DestinationCache {
+
+    private final boolean enabled;
+    private final boolean gzip;
+    private final int gzipMinSize;
+    private final JsonMapper jsonMapper;
+    private final Cache<Key, EncodedJson<Destination>> destinations;
+    private final Cache<Key, EncodedJson<DestinationPage>> pages;
+    // Part of the keys, so an invalidation cannot be undone by a load that
+    // read the old rows and completes after it
+    private final AtomicLong destinationGeneration = new AtomicLong();
+    private final AtomicLong pageGeneration = new AtomicLong();
+
+    @Autowired
+    public DestinationCache(@Value("${recommendation.destination-cache.enabled:true}") boolean enabled,
+            @Value("${recommendation.destination-cache.max-size:10000}") long maxSize,
+            @Value("${recommendation.destination-cache.max-pages:1000}") long maxPages,
+            @Value("${recommendation.destination-cache.ttl:10m}") Duration ttl,
+            @Value("${recommendation.destination-cache.gzip:true}") boolean gzip,
+            @Value("${recommendation.destination-cache.gzip-min-size:1024}") int gzipMinSize,
+            JsonMapper jsonMapper, MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.gzip = gzip;
+        this.gzipMinSize = gzipMinSize;
+        this.jsonMapper = jsonMapper;
+        this.destinations = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.pages = Caffeine.newBuilder()
+                .maximumSize(maxPages)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, destinations, "destinations");
+        CaffeineCacheMetrics.monitor(meterRegistry, pages, "destination-pages");
+    }
+
+    public EncodedJson<Destination> get(long id, Supplier<Destination> loader) {
+        if (!enabled) {
+            return encode(loader.get());
+        }
+        return destinations.get(new Key(destinationGeneration.get(), id, 0), k -> encode(loader.get()));
+    }
+
+    public EncodedJson<DestinationPage> page(long after, int size, Supplier<DestinationPage> loader) {
+        if (!enabled) {
+            return encode(loader.get());
+        }
+        return pages.get(new Key(pageGeneration.get(), after, size), k -> encode(loader.get()));
+    }
+
+    private <T> EncodedJson<T> encode(T value) {
+        if (value == null) {
+            return null;
+        }
+        byte[] json = jsonMapper.writeValueAsBytes(value);
+        return new EncodedJson<>(value, json, gzip && json.length >= gzipMinSize ? gzip(json) : null);
+    }
+
+    private static byte[] gzip(byte[] bytes) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    public void invalidateAll() {
+        destinationGeneration.incrementAndGet();
+        destinations.invalidateAll();
+        invalidatePages();
+    }
+
+    private void invalidatePages() {
+        pageGeneration.incrementAndGet();
+        pages.invalidateAll();
+    }
+
+    @EventListener
+    public void onCatalogUpdated(CatalogUpdatedEvent event) {
+        if (!event.isDelta()) {
+            invalidateAll();
+            return;
+        }
+        // Removing a key waits for a load of that key in progress
+        long generation = destinationGeneration.get();
+        for (long id : event.getChangedIds()) {
+            destinations.invalidate(new Key(generation, id, 0));
+        }
+        // A changed row can sit on, or shift, any cached page; changes are rare
+        invalidatePages();
+    }
+
+    // Database mode: the table moved under no snapshot, so the changed ids are unknown
+    @EventListener
+    public void onTableChanged(TableChangedEvent event) {
+        invalidateAll();
+    }
+
+    // An entity by id (size 0) or a page by cursor and size
+    private static final class Key {
+        private final long generation;
+        private final long id;
+        private final int size;
+
+        Key(long generation, long id, int size) {
+            this.generation = generation;
+            this.id = id;
+            this.size = size;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o)
+                return true;
+            if (!(o instanceof Key))
+                return false;
+            Key that = (Key) o;
+            return generation == that.generation && id == that.id && size == that.size;
+        }
+
+        @Override
+        public int hashCode() {
+            return (Long.hashCode(generation) * 31 + Long.hashCode(id)) * 31 + size;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.travel.travelrecommendation1.cache;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * A value together with its JSON encoding, and a gzip-compressed copy of it
+ * when compression is enabled and the JSON is large enough to benefit. Built
+ * once when the value is loaded into {@link DestinationCache} and written to
+ * responses as is, with an entity tag hashed from the JSON bytes.
+ */
+public final class EncodedJson<T> {
+
+    private final T value;
+    private final byte[] json;
+    private final byte[] gzip;
+    private final String etag;
+
+    EncodedJson(T value, byte[] json, byte[] gzip) {
+        this.value = value;
+        this.json = json;
+        this.gzip = gzip;
+        this.etag = hash(json);
+    }
+
+    // First 128 bits of the SHA-256, enough to tell any two encodings apart
+    private static String hash(byte[] json) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(json);
+            return HexFormat.of().formatHex(digest, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public T value() {
+        return value;
+    }
+
+    /** The UTF-8 JSON; shared, must not be modified. */
+    public byte[] json() {
+        return json;
+    }
+
+    /**
+     * Hash of the JSON bytes: it changes whenever what is served changes,
+     * however the row was updated.
+     */
+    public String etag() {
+        return etag;
+    }
+
+    /** The gzip-compressed JSON, or null if there is none; shared, must not be modified. */
+    public byte[] gzip() {
+        return gzip;
+    }
+}
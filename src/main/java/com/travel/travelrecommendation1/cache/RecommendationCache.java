@@ -0,0 +1,129 @@
+package com.travel.travelrecommendation1.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.travel.travelrecommendation1.catalog.CatalogSnapshot;
+import com.travel.travelrecommendation1.catalog.CatalogUpdatedEvent;
+import com.travel.travelrecommendation1.dto.RecommendationRequest;
+import com.travel.travelrecommendation1.dto.RecommendationResponse;
+import com.travel.travelrecommendation1.scoring.RecommendationScorer;
+import com.travel.travelrecommendation1.scoring.ScoringQuery;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Bounded result cache in front of the scoring engine. Entries are evicted by
+ * size and time-to-live. When a new catalog version is published the cache is
+ * dropped, except after a delta: entries none of the changed rows could
+ * enter are carried over to the new version. Hit/miss/eviction counts are exported as the
+ * {@code cache.*} metrics with {@code cache=recommendations}.
+ *
+ * Cached responses are shared between callers and must not be modified.
+ * Partial responses (scoring hit its deadline) are never cached.
+ */
+@Component
+public class RecommendationCache {
+
+    private final boolean enabled;
+    private final Cache<RecommendationCacheKey, RecommendationResponse> cache;
+
+    @Autowired
+    public RecommendationCache(@Value("${recommendation.cache.enabled:true}") boolean enabled,
+            @Value("${recommendation.cache.max-size:10000}") long maxSize,
+            @Value("${recommendation.cache.ttl:10m}") Duration ttl,
+            MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "recommendations");
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public RecommendationResponse get(RecommendationCacheKey key, Supplier<RecommendationResponse> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+        RecommendationResponse cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        RecommendationResponse response = loader.get();
+        put(key, response);
+        return response;
+    }
+
+    public RecommendationResponse getIfPresent(RecommendationCacheKey key) {
+        return enabled ? cache.getIfPresent(key) : null;
+    }
+
+    public void put(RecommendationCacheKey key, RecommendationResponse response) {
+        if (enabled && !response.isPartial()) {
+            cache.put(key, response);
+        }
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    @EventListener
+    public void onCatalogUpdated(CatalogUpdatedEvent event) {
+        // Keys carry the catalog version, so old entries can no longer hit;
+        // drop them now rather than waiting for eviction
+        Map<RecommendationCacheKey, RecommendationResponse> carried = event.isDelta()
+                ? unaffectedBy(event)
+                : Map.of();
+        invalidateAll();
+        cache.putAll(carried);
+    }
+
+    // A response can only change if an old or new version of a changed row
+    // passes its hard filters; the other rows and their order are untouched
+    private Map<RecommendationCacheKey, RecommendationResponse> unaffectedBy(CatalogUpdatedEvent event) {
+        CatalogSnapshot previous = event.getPrevious();
+        CatalogSnapshot snapshot = event.getSnapshot();
+        int[] oldRows = rowsOf(previous, event.getChangedIds());
+        int[] newRows = rowsOf(snapshot, event.getChangedIds());
+        RecommendationScorer scorer = new RecommendationScorer();
+        Map<RecommendationCacheKey, RecommendationResponse> carried = new HashMap<>();
+        cache.asMap().forEach((key, response) -> {
+            if (key.getCatalogVersion() != previous.version()) {
+                return;
+            }
+            RecommendationRequest request = key.toRequest();
+            if (!scorer.admitsAny(previous, oldRows, ScoringQuery.of(request, previous, key.getRules()))
+                    && !scorer.admitsAny(snapshot, newRows, ScoringQuery.of(request, snapshot, key.getRules()))) {
+                carried.put(key.withCatalogVersion(snapshot.version()), response);
+            }
+        });
+        return carried;
+    }
+
+    private static int[] rowsOf(CatalogSnapshot catalog, long[] ids) {
+        int[] rows = new int[ids.length];
+        int count = 0;
+        for (long id : ids) {
+            int row = catalog.indexOf(id);
+            if (row >= 0) {
+                rows[count++] = row;
+            }
+        }
+        return Arrays.copyOf(rows, count);
+    }
+}
@@ -0,0 +1,123 @@
+package com.travel.travelrecommendation1.cache;
+
+import com.travel.travelrecommendation1.catalog.InterestDictionary;
+import com.travel.travelrecommendation1.dto.RecommendationRequest;
+import com.travel.travelrecommendation1.scoring.ScoringRules;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.TreeSet;
+
+/**
+ * Normalized form of a {@link RecommendationRequest}: requests that the scorer
+ * treats identically map to equal keys. Interests are trimmed, lower-cased,
+ * de-duplicated and sorted; a missing limit becomes the default of 10; an
+ * empty country becomes null and countries compare case-insensitively. The
+ * catalog and scoring rules versions are part of the key so entries never
+ * outlive their data or weights.
+ */
+public final class RecommendationCacheKey {
+
+    private final long catalogVersion;
+    private final ScoringRules rules;
+    private final Integer budget;
+    private final Integer duration;
+    private final List<String> interests;
+    private final String country;
+    private final Integer minBudget;
+    private final Integer maxBudget;
+    private final Integer minDuration;
+    private final Integer maxDuration;
+    private final int limit;
+    private final int hash;
+
+    private RecommendationCacheKey(RecommendationRequest request, long catalogVersion, ScoringRules rules) {
+        this.catalogVersion = catalogVersion;
+        this.rules = rules;
+        this.budget = request.getBudget();
+        this.duration = request.getDuration();
+        this.interests = normalizeInterests(request.getInterests());
+        this.country = request.getCountry() == null || request.getCountry().isEmpty()
+                ? null
+                : request.getCountry().toLowerCase(Locale.ROOT);
+        this.minBudget = request.getMinBudget();
+        this.maxBudget = request.getMaxBudget();
+        this.minDuration = request.getMinDuration();
+        this.maxDuration = request.getMaxDuration();
+        this.limit = request.getLimit() != null ? request.getLimit() : 10;
+        this.hash = Objects.hash(catalogVersion, rules.version(), budget, duration, interests, country, minBudget, maxBudget,
+                minDuration, maxDuration, limit);
+    }
+
+    public static RecommendationCacheKey of(RecommendationRequest request, long catalogVersion, ScoringRules rules) {
+        return new RecommendationCacheKey(request, catalogVersion, rules);
+    }
+
+    /** The same request against another catalog version. */
+    public RecommendationCacheKey withCatalogVersion(long version) {
+        return new RecommendationCacheKey(toRequest(), version, rules);
+    }
+
+    /** A request the scorer treats the same as every request mapping to this key. */
+    public RecommendationRequest toRequest() {
+        RecommendationRequest request = new RecommendationRequest();
+        request.setBudget(budget);
+        request.setDuration(duration);
+        request.setInterests(interests);
+        request.setCountry(country);
+        request.setMinBudget(minBudget);
+        request.setMaxBudget(maxBudget);
+        request.setMinDuration(minDuration);
+        request.setMaxDuration(maxDuration);
+        request.setLimit(limit);
+        return request;
+    }
+
+    private static List<String> normalizeInterests(List<String> interests) {
+        if (interests == null) {
+            return List.of();
+        }
+        TreeSet<String> normalized = new TreeSet<>();
+        for (String interest : interests) {
+            if (interest != null) {
+                normalized.add(InterestDictionary.normalize(interest));
+            }
+        }
+        return List.copyOf(normalized);
+    }
+
+    public long getCatalogVersion() {
+        return catalogVersion;
+    }
+
+    /** The rules the cached response was scored with. */
+    public ScoringRules getRules() {
+        return rules;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o)
+            return true;
+        if (o == null || getClass() != o.getClass())
+            return false;
+        RecommendationCacheKey that = (RecommendationCacheKey) o;
+        return catalogVersion == that.catalogVersion
+                && rules.version() == that.rules.version()
+                && limit == that.limit
+                && Objects.equals(budget, that.budget)
+                && Objects.equals(duration, that.duration)
+                && interests.equals(that.interests)
+                && Objects.equals(country, that.country)
+                && Objects.equals(minBudget, that.minBudget)
+                && Objects.equals(maxBudget, that.maxBudget)
+                && Objects.equals(minDuration, that.minDuration)
+                && Objects.equals(maxDuration, that.maxDuration);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+}
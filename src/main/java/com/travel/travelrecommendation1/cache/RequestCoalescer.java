@@ -0,0 +1,145 @@
+package com.travel.travelrecommendation1.cache;
+
+import com.travel.travelrecommendation1.dto.RecommendationResponse;
+import com.travel.travelrecommendation1.scoring.Deadline;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Single flight for identical requests: while a response for a key is being
+ * computed, callers with the same key wait for that computation instead of
+ * starting their own, and all of them get its result (or its exception).
+ * Nothing is kept once the computation finishes, so this works with the
+ * result cache disabled and covers the burst right after it is dropped.
+ * <p>
+ * A result the leader's deadline cut short
+ * ({@link RecommendationResponse#isPartial()}) is not handed on; the caller
+ * computes under its own deadline instead. A caller whose own deadline passes
+ * while waiting gets a partial response straight away, since computing past
+ * it would only produce an empty partial ranking anyway.
+ * <p>
+ * {@code recommendation.coalescing} counts callers that computed
+ * ({@code outcome=led}), callers that got another's result
+ * ({@code outcome=joined}), waiting callers that then had to compute
+ * themselves ({@code outcome=fallback}) and waiting callers whose deadline
+ * passed first ({@code outcome=expired}); joined / (led + joined) is the
+ * coalescing ratio. {@code recommendation.coalescing.in-flight} is the number
+ * of keys being computed and {@code recommendation.coalescing.waiting} the
+ * number of callers waiting for one.
+ */
+@Component
+public class RequestCoalescer {
+
+    private final boolean enabled;
+    private final ConcurrentMap<RecommendationCacheKey, CompletableFuture<RecommendationResponse>> inFlight =
+            new ConcurrentHashMap<>();
+    private final Counter led;
+    private final Counter joined;
+    private final Counter fallback;
+    private final Counter expired;
+    private final AtomicInteger waiting = new AtomicInteger();
+
+    @Autowired
+    public RequestCoalescer(@Value("${recommendation.coalescing.enabled:true}") boolean enabled,
+            MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.led = Counter.builder("recommendation.coalescing").tag("outcome", "led").register(meterRegistry);
+        this.joined = Counter.builder("recommendation.coalescing").tag("outcome", "joined")
+                .register(meterRegistry);
+        this.fallback = Counter.builder("recommendation.coalescing").tag("outcome", "fallback")
+                .register(meterRegistry);
+        this.expired = Counter.builder("recommendation.coalescing").tag("outcome", "expired")
+                .register(meterRegistry);
+        Gauge.builder("recommendation.coalescing.in-flight", inFlight, ConcurrentMap::size)
+                .register(meterRegistry);
+        Gauge.builder("recommendation.coalescing.waiting", waiting, AtomicInteger::get).register(meterRegistry);
+    }
+
+    public RecommendationResponse get(RecommendationCacheKey key, Supplier<RecommendationResponse> loader) {
+        return get(key, Deadline.NONE, loader);
+    }
+
+    /**
+     * The loader's result for {@code key}, or that of an identical request
+     * already being computed if it completes, in full, before
+     * {@code deadline}. {@code loader} should honour the same deadline; it is
+     * not called once the deadline has passed waiting.
+     */
+    public RecommendationResponse get(RecommendationCacheKey key, Deadline deadline,
+            Supplier<RecommendationResponse> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+        CompletableFuture<RecommendationResponse> flight = new CompletableFuture<>();
+        CompletableFuture<RecommendationResponse> leader = inFlight.putIfAbsent(key, flight);
+        if (leader != null) {
+            RecommendationResponse shared;
+            waiting.incrementAndGet();
+            try {
+                shared = await(leader, deadline);
+            } finally {
+                waiting.decrementAndGet();
+            }
+            if (shared != null && !shared.isPartial()) {
+                joined.increment();
+                return shared;
+            }
+            if (deadline.expired()) {
+                expired.increment();
+                return shared != null ? shared : new RecommendationResponse(List.of(), true);
+            }
+            fallback.increment();
+            return loader.get();
+        }
+        led.increment();
+        try {
+            RecommendationResponse response = loader.get();
+            flight.complete(response);
+            return response;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    // The leader's result, or null if it is not there by the deadline
+    private static RecommendationResponse await(CompletableFuture<RecommendationResponse> flight,
+            Deadline deadline) {
+        try {
+            return deadline.isBounded()
+                    ? flight.get(deadline.remaining().toNanos(), TimeUnit.NANOSECONDS)
+                    : flight.get();
+        } catch (TimeoutException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CompletionException(e);
+        } catch (ExecutionException e) {
+            // Rethrow what the leader saw
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw new CompletionException(e.getCause());
+        }
+    }
+}
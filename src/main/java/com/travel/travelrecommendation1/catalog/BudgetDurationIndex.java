@@ -0,0 +1,302 @@
+package com.travel.travelrecommendation1.catalog;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntConsumer;
+import java.util.function.IntPredicate;
+
+/**
+ * Range index used to prune rows that cannot pass a request's duration-overlap
+ * and budget filters before they are scored.
+ *
+ * Rows are bucketed by their (minDuration, maxDuration) pair. Within a bucket
+ * the trip length a request gets, {@code clamp(duration, min, max)}, is the
+ * same for every row, so the whole bucket is either inside the user's max
+ * duration or not, and the projected cost {@code (int) (dailyRate * length)}
+ * grows with the daily rate. Rows in a bucket are sorted by daily rate, so
+ * the affordable ones are a prefix found by binary search.
+ *
+ * The index may return a superset of the feasible rows, never a subset; the
+ * scorer still applies the exact checks.
+ */
+public final class BudgetDurationIndex {
+
+    private final int[] bucketMinDuration;
+    private final int[] bucketMaxDuration;
+    private final int[] bucketStart;
+    private final int[] rows;
+    private final double[] rates;
+
+    private BudgetDurationIndex(int[] bucketMinDuration, int[] bucketMaxDuration, int[] bucketStart,
+            int[] rows, double[] rates) {
+        this.bucketMinDuration = bucketMinDuration;
+        this.bucketMaxDuration = bucketMaxDuration;
+        this.bucketStart = bucketStart;
+        this.rows = rows;
+        this.rates = rates;
+    }
+
+    static BudgetDurationIndex build(int[] minDuration, int[] maxDuration, double[] dailyRate) {
+        int size = minDuration.length;
+
+        // Visit rows cheapest first so each bucket comes out sorted by rate
+        Integer[] byRate = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            byRate[i] = i;
+        }
+        Arrays.sort(byRate, (a, b) -> Double.compare(dailyRate[a], dailyRate[b]));
+
+        Map<Long, Integer> bucketOf = new HashMap<>();
+        int[] rowBucket = new int[size];
+        int[] counts = new int[size + 1];
+        for (int i = 0; i < size; i++) {
+            long key = key(minDuration[i], maxDuration[i]);
+            Integer bucket = bucketOf.get(key);
+            if (bucket == null) {
+                bucket = bucketOf.size();
+                bucketOf.put(key, bucket);
+            }
+            rowBucket[i] = bucket;
+            counts[bucket]++;
+        }
+
+        int buckets = bucketOf.size();
+        int[] bucketMin = new int[buckets];
+        int[] bucketMax = new int[buckets];
+        int[] start = new int[buckets + 1];
+        for (int b = 0; b < buckets; b++) {
+            start[b + 1] = start[b] + counts[b];
+        }
+        int[] fill = Arrays.copyOf(start, buckets);
+        int[] rows = new int[size];
+        double[] rates = new double[size];
+        for (Integer boxed : byRate) {
+            int row = boxed;
+            int bucket = rowBucket[row];
+            bucketMin[bucket] = minDuration[row];
+            bucketMax[bucket] = maxDuration[row];
+            int slot = fill[bucket]++;
+            rows[slot] = row;
+            rates[slot] = dailyRate[row];
+        }
+        return new BudgetDurationIndex(bucketMin, bucketMax, start, rows, rates);
+    }
+
+    /**
+     * This index after a delta: the rows in {@code removed} were deleted and
+     * the rows in {@code moved} got a new duration range or daily rate, both
+     * numbered as in this index. The columns hold the new values, numbered
+     * with the removed rows gone. Kept rows stay in their bucket order and
+     * moved rows are merged into their new bucket by rate, so nothing is
+     * re-sorted.
+     */
+    BudgetDurationIndex withChanges(int[] removed, int[] moved, int[] minDuration, int[] maxDuration,
+            double[] dailyRate) {
+        if (removed.length == 0 && moved.length == 0) {
+            return this;
+        }
+        int oldSize = rows.length;
+        boolean[] dropped = new boolean[oldSize];
+        for (int row : removed) {
+            dropped[row] = true;
+        }
+        // Old row number -> new one, shifted down past the removed rows
+        int[] renumber = new int[oldSize];
+        for (int row = 0, next = 0; row < oldSize; row++) {
+            renumber[row] = dropped[row] ? -1 : next++;
+        }
+        Map<Long, List<Integer>> arrivals = new LinkedHashMap<>();
+        for (int row : moved) {
+            dropped[row] = true;
+            int newRow = renumber[row];
+            arrivals.computeIfAbsent(key(minDuration[newRow], maxDuration[newRow]), k -> new ArrayList<>())
+                    .add(newRow);
+        }
+        Comparator<Integer> byRate = (a, b) -> Double.compare(dailyRate[a], dailyRate[b]);
+        arrivals.values().forEach(list -> list.sort(byRate));
+
+        int buckets = bucketMinDuration.length + arrivals.size();
+        int[] bucketMin = new int[buckets];
+        int[] bucketMax = new int[buckets];
+        int[] start = new int[buckets + 1];
+        int[] newRows = new int[oldSize - removed.length];
+        double[] newRates = new double[newRows.length];
+        int bucket = 0;
+        int slot = 0;
+        for (int b = 0; b < bucketMinDuration.length; b++) {
+            List<Integer> incoming = arrivals.remove(key(bucketMinDuration[b], bucketMaxDuration[b]));
+            int next = 0;
+            for (int from = bucketStart[b]; from < bucketStart[b + 1]; from++) {
+                if (dropped[rows[from]]) {
+                    continue;
+                }
+                // Rows moving in go ahead of the first kept row that costs more
+                for (; incoming != null && next < incoming.size()
+                        && dailyRate[incoming.get(next)] < rates[from]; next++, slot++) {
+                    newRows[slot] = incoming.get(next);
+                    newRates[slot] = dailyRate[newRows[slot]];
+                }
+                newRows[slot] = renumber[rows[from]];
+                newRates[slot++] = rates[from];
+            }
+            for (; incoming != null && next < incoming.size(); next++, slot++) {
+                newRows[slot] = incoming.get(next);
+                newRates[slot] = dailyRate[newRows[slot]];
+            }
+            if (slot > start[bucket]) {
+                bucketMin[bucket] = bucketMinDuration[b];
+                bucketMax[bucket] = bucketMaxDuration[b];
+                start[++bucket] = slot;
+            }
+        }
+        // Ranges no existing bucket had
+        for (List<Integer> incoming : arrivals.values()) {
+            bucketMin[bucket] = minDuration[incoming.get(0)];
+            bucketMax[bucket] = maxDuration[incoming.get(0)];
+            for (int row : incoming) {
+                newRows[slot] = row;
+                newRates[slot++] = dailyRate[row];
+            }
+            start[++bucket] = slot;
+        }
+        return new BudgetDurationIndex(Arrays.copyOf(bucketMin, bucket), Arrays.copyOf(bucketMax, bucket),
+                Arrays.copyOf(start, bucket + 1), newRows, newRates);
+    }
+
+    private static long key(int minDuration, int maxDuration) {
+        return ((long) minDuration << 32) | (maxDuration & 0xFFFFFFFFL);
+    }
+
+    // Raw parts, for CatalogSnapshotFile
+    static BudgetDurationIndex of(int[] bucketMinDuration, int[] bucketMaxDuration, int[] bucketStart,
+            int[] rows, double[] rates) {
+        return new BudgetDurationIndex(bucketMinDuration, bucketMaxDuration, bucketStart, rows, rates);
+    }
+
+    int[] bucketMinDurations() {
+        return bucketMinDuration;
+    }
+
+    int[] bucketMaxDurations() {
+        return bucketMaxDuration;
+    }
+
+    int[] bucketStarts() {
+        return bucketStart;
+    }
+
+    int[] rows() {
+        return rows;
+    }
+
+    double[] rates() {
+        return rates;
+    }
+
+    public int bucketCount() {
+        return bucketMinDuration.length;
+    }
+
+    /**
+     * Passes every row that may satisfy the duration-overlap and budget filters
+     * for a request to {@code visitor}, in no particular order.
+     *
+     * @return the number of rows visited
+     */
+    public int forEachCandidate(int duration, int userMaxDuration, int userMaxBudget, IntConsumer visitor) {
+        int visited = 0;
+        for (int b = 0; b < bucketMinDuration.length; b++) {
+            int length = Math.min(Math.max(duration, bucketMinDuration[b]), bucketMaxDuration[b]);
+            if (length > userMaxDuration) {
+                continue; // No duration overlap for anything in this bucket
+            }
+            int from = bucketStart[b];
+            int to = length > 0 ? affordableEnd(from, bucketStart[b + 1], length, userMaxBudget) : bucketStart[b + 1];
+            for (int slot = from; slot < to; slot++) {
+                visitor.accept(rows[slot]);
+            }
+            visited += to - from;
+        }
+        return visited;
+    }
+
+    /**
+     * Like {@link #forEachCandidate}, but stops as soon as {@code visitor}
+     * returns false.
+     *
+     * @return the number of rows accepted by {@code visitor}
+     */
+    public int forEachCandidateWhile(int duration, int userMaxDuration, int userMaxBudget, IntPredicate visitor) {
+        int visited = 0;
+        for (int b = 0; b < bucketMinDuration.length; b++) {
+            int length = Math.min(Math.max(duration, bucketMinDuration[b]), bucketMaxDuration[b]);
+            if (length > userMaxDuration) {
+                continue;
+            }
+            int from = bucketStart[b];
+            int to = length > 0 ? affordableEnd(from, bucketStart[b + 1], length, userMaxBudget) : bucketStart[b + 1];
+            for (int slot = from; slot < to; slot++) {
+                if (!visitor.test(rows[slot])) {
+                    return visited;
+                }
+                visited++;
+            }
+        }
+        return visited;
+    }
+
+    /** Number of rows {@link #forEachCandidate} would visit, without visiting them. */
+    public int countCandidates(int duration, int userMaxDuration, int userMaxBudget) {
+        int count = 0;
+        for (int b = 0; b < bucketMinDuration.length; b++) {
+            int length = Math.min(Math.max(duration, bucketMinDuration[b]), bucketMaxDuration[b]);
+            if (length > userMaxDuration) {
+                continue;
+            }
+            int from = bucketStart[b];
+            int to = length > 0 ? affordableEnd(from, bucketStart[b + 1], length, userMaxBudget) : bucketStart[b + 1];
+            count += to - from;
+        }
+        return count;
+    }
+
+    /** Number of rows whose duration range overlaps the request, ignoring budget. */
+    public int countDurationFeasible(int duration, int userMaxDuration) {
+        int count = 0;
+        for (int b = 0; b < bucketMinDuration.length; b++) {
+            int length = Math.min(Math.max(duration, bucketMinDuration[b]), bucketMaxDuration[b]);
+            if (length <= userMaxDuration) {
+                count += bucketStart[b + 1] - bucketStart[b];
+            }
+        }
+        return count;
+    }
+
+    /** The rows {@link #forEachCandidate} would visit, as an array. */
+    public int[] candidateRows(int duration, int userMaxDuration, int userMaxBudget) {
+        int[] candidates = new int[countCandidates(duration, userMaxDuration, userMaxBudget)];
+        int[] next = new int[1];
+        forEachCandidate(duration, userMaxDuration, userMaxBudget, row -> candidates[next[0]++] = row);
+        return candidates;
+    }
+
+    // First slot in [from, to) whose projected cost exceeds the budget
+    private int affordableEnd(int from, int to, int length, int userMaxBudget) {
+        int lo = from;
+        int hi = to;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if ((int) (rates[mid] * length) <= userMaxBudget) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+}
@@ -0,0 +1,62 @@
+package com.travel.travelrecommendation1.catalog;
+
+import com.travel.travelrecommendation1.dto.FacetCounts;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Facet counts over the current catalog snapshot. The {@link FacetIndex} is
+ * built on first use for each catalog version and shared by every request
+ * against it. Only present when scoring keeps the catalog in memory anyway:
+ * in {@code database} mode, or with remote shards, this instance holds no
+ * catalog and counting would load one just for the facets.
+ */
+@Component
+@ConditionalOnExpression(CatalogFacets.ENABLED)
+public class CatalogFacets {
+
+    /** Whether this instance scores against its own in-memory catalog. */
+    public static final String ENABLED = "!'${recommendation.scoring.mode:memory}'.trim().equalsIgnoreCase('database')"
+            + " and '${recommendation.sharding.urls:}'.trim().isEmpty()";
+
+    private final DestinationCatalog destinationCatalog;
+    private final int[] budgetBounds;
+    private final int[] durationBounds;
+    private final AtomicReference<FacetIndex> index = new AtomicReference<>();
+
+    @Autowired
+    public CatalogFacets(DestinationCatalog destinationCatalog,
+            @Value("${recommendation.facets.budget-buckets:1000,2000,5000,10000}") int[] budgetBuckets,
+            @Value("${recommendation.facets.duration-buckets:4,8,15}") int[] durationBuckets) {
+        this.destinationCatalog = destinationCatalog;
+        this.budgetBounds = Arrays.stream(budgetBuckets).filter(b -> b > 0).sorted().distinct().toArray();
+        this.durationBounds = Arrays.stream(durationBuckets).filter(b -> b > 1).sorted().distinct().toArray();
+    }
+
+    public FacetCounts count(Collection<String> interests, String country, Integer minBudget, Integer maxBudget,
+            Integer duration) {
+        return index().count(interests, country, minBudget, maxBudget, duration);
+    }
+
+    private FacetIndex index() {
+        CatalogSnapshot snapshot = destinationCatalog.snapshot();
+        FacetIndex current = index.get();
+        if (current != null && current.version() == snapshot.version()) {
+            return current;
+        }
+        synchronized (this) {
+            current = index.get();
+            if (current == null || current.version() != snapshot.version()) {
+                current = FacetIndex.build(snapshot, budgetBounds, durationBounds);
+                index.set(current);
+            }
+            return current;
+        }
+    }
+}
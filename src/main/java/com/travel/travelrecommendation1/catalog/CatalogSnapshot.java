@@ -0,0 +1,322 @@
+package com.travel.travelrecommendation1.catalog;
+
+import com.travel.travelrecommendation1.model.Destination;
+
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable, read-optimized view of the destination table.
+ *
+ * The numeric fields the scoring loop needs are stored column-wise in primitive
+ * arrays so a recommendation request never touches JPA entities or boxed
+ * getters. Row {@code i} of every column refers to the same destination, and
+ * rows are ordered by id so tie-breaking is stable across reloads. Interests
+ * are kept as bitmasks over the snapshot's {@link InterestDictionary}.
+ */
+public final class CatalogSnapshot {
+
+    private final long version;
+    private final Destination[] destinations;
+    private final long[] ids;
+    private final String[] countries;
+    private final int[] countryIds;
+    private final String[] countryNames;
+    private final Map<String, Integer> countryIndex;
+    private final int[] minBudget;
+    private final int[] minDuration;
+    private final int[] maxDuration;
+    private final double[] dailyRate;
+    private final double[] rating;
+    private final InterestDictionary interests;
+    private final long[] interestMasks;
+    private final BudgetDurationIndex budgetDurationIndex;
+
+    private CatalogSnapshot(long version, Destination[] destinations, InterestDictionary interests) {
+        int size = destinations.length;
+        this.version = version;
+        this.destinations = destinations;
+        this.interests = interests;
+        this.interestMasks = new long[size * interests.words()];
+        this.ids = new long[size];
+        this.countries = new String[size];
+        this.countryIds = new int[size];
+        this.minBudget = new int[size];
+        this.minDuration = new int[size];
+        this.maxDuration = new int[size];
+        this.dailyRate = new double[size];
+        this.rating = new double[size];
+        this.countryIndex = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            Destination d = destinations[i];
+            // Exact-match country ids, same equality the diversity pass uses
+            Integer countryId = countryIndex.get(d.getCountry());
+            if (countryId == null) {
+                countryId = countryIndex.size();
+                countryIndex.put(d.getCountry(), countryId);
+            }
+            setRow(i, d, countryId);
+        }
+        this.countryNames = new String[countryIndex.size()];
+        countryIndex.forEach((name, id) -> countryNames[id] = name);
+        this.budgetDurationIndex = BudgetDurationIndex.build(minDuration, maxDuration, dailyRate);
+    }
+
+    // Reassembled from CatalogSnapshotFile: the dictionary, interest masks,
+    // country ids and range index are taken as stored, the plain columns are
+    // read off the entities
+    CatalogSnapshot(long version, Destination[] destinations, InterestDictionary interests, long[] interestMasks,
+            int[] countryIds, String[] countryNames, BudgetDurationIndex budgetDurationIndex) {
+        int size = destinations.length;
+        this.version = version;
+        this.destinations = destinations;
+        this.interests = interests;
+        this.interestMasks = interestMasks;
+        this.ids = new long[size];
+        this.countries = new String[size];
+        this.countryIds = countryIds;
+        this.minBudget = new int[size];
+        this.minDuration = new int[size];
+        this.maxDuration = new int[size];
+        this.dailyRate = new double[size];
+        this.rating = new double[size];
+        this.countryNames = countryNames;
+        this.countryIndex = new HashMap<>();
+        for (int id = 0; id < countryNames.length; id++) {
+            countryIndex.put(countryNames[id], id);
+        }
+        for (int i = 0; i < size; i++) {
+            setColumns(i, destinations[i], countryIds[i]);
+        }
+        this.budgetDurationIndex = budgetDurationIndex;
+    }
+
+    // Copy of base without the rows in removed (sorted) and with rows[k]
+    // replaced by changed.get(k), both numbered as in base; countries and
+    // interest tags of the changed rows must already be known to base
+    private CatalogSnapshot(CatalogSnapshot base, long version, List<Destination> changed, int[] rows,
+            int[] removed) {
+        int size = base.size() - removed.length;
+        int words = base.interests.words();
+        this.version = version;
+        this.destinations = copyKept(base.destinations, new Destination[size], 1, removed);
+        this.interests = base.interests;
+        this.interestMasks = copyKept(base.interestMasks, new long[size * words], words, removed);
+        this.ids = copyKept(base.ids, new long[size], 1, removed);
+        this.countries = copyKept(base.countries, new String[size], 1, removed);
+        this.countryIds = copyKept(base.countryIds, new int[size], 1, removed);
+        this.countryNames = base.countryNames;
+        this.countryIndex = base.countryIndex;
+        this.minBudget = copyKept(base.minBudget, new int[size], 1, removed);
+        this.minDuration = copyKept(base.minDuration, new int[size], 1, removed);
+        this.maxDuration = copyKept(base.maxDuration, new int[size], 1, removed);
+        this.dailyRate = copyKept(base.dailyRate, new double[size], 1, removed);
+        this.rating = copyKept(base.rating, new double[size], 1, removed);
+        int[] moved = new int[rows.length];
+        int movedCount = 0;
+        for (int k = 0; k < rows.length; k++) {
+            int old = rows[k];
+            // Changed rows are never removed ones, so this is where they were inserted
+            int i = old + Arrays.binarySearch(removed, old) + 1;
+            Arrays.fill(interestMasks, i * words, (i + 1) * words, 0L);
+            setRow(i, changed.get(k), countryIndex.get(changed.get(k).getCountry()));
+            if (minDuration[i] != base.minDuration[old] || maxDuration[i] != base.maxDuration[old]
+                    || dailyRate[i] != base.dailyRate[old]) {
+                moved[movedCount++] = old;
+            }
+        }
+        // Content-only edits leave the range index as it is; the rest patch
+        // the buckets they leave and enter
+        this.budgetDurationIndex = base.budgetDurationIndex.withChanges(removed, Arrays.copyOf(moved, movedCount),
+                minDuration, maxDuration, dailyRate);
+    }
+
+    // Copies src into dst leaving out the sorted rows in removed, stride
+    // elements per row
+    private static <T> T copyKept(T src, T dst, int stride, int[] removed) {
+        int from = 0;
+        int to = 0;
+        for (int row : removed) {
+            int run = (row - from) * stride;
+            System.arraycopy(src, from * stride, dst, to, run);
+            to += run;
+            from = row + 1;
+        }
+        System.arraycopy(src, from * stride, dst, to, Array.getLength(src) - from * stride);
+        return dst;
+    }
+
+    private void setRow(int i, Destination d, int countryId) {
+        setColumns(i, d, countryId);
+        interests.encodeCsv(d.getInterests(), interestMasks, i * interests.words());
+    }
+
+    private void setColumns(int i, Destination d, int countryId) {
+        destinations[i] = d;
+        ids[i] = d.getId() != null ? d.getId() : 0L;
+        countries[i] = d.getCountry();
+        countryIds[i] = countryId;
+        minBudget[i] = d.getMinBudget() != null ? d.getMinBudget() : 0;
+        minDuration[i] = d.getMinDuration() != null ? d.getMinDuration() : 0;
+        maxDuration[i] = d.getMaxDuration() != null ? d.getMaxDuration() : 0;
+        // Daily rate (MinBudget / MinDuration), computed once instead of per request
+        dailyRate[i] = (double) minBudget[i] / (minDuration[i] > 0 ? minDuration[i] : 1);
+        rating[i] = d.getRating() != null ? d.getRating() : 0.0;
+    }
+
+    public static CatalogSnapshot of(long version, List<Destination> rows) {
+        return new CatalogSnapshot(version, rows.toArray(new Destination[0]), InterestDictionary.build(rows));
+    }
+
+    /** This snapshot with {@code changed} applied as a new version; see {@link #withChanges(long, List, long[])}. */
+    public CatalogSnapshot withChanges(long version, List<Destination> changed) {
+        return withChanges(version, changed, new long[0]);
+    }
+
+    /**
+     * This snapshot with {@code changed} applied and the rows in
+     * {@code removedIds} deleted, as a new version: rows whose id is present
+     * are replaced, the others are inserted in id order. When no row is
+     * inserted and the countries and interest tags of the changed rows are
+     * already known, the columns are copied and patched row by row and the
+     * range index only moves the rows whose range or rate changed; otherwise
+     * the derived data is rebuilt from the merged rows. Nothing is re-read.
+     * Countries and tags only deleted rows carried stay known until the next
+     * rebuild, as they do when an edit leaves them unused.
+     */
+    public CatalogSnapshot withChanges(long version, List<Destination> changed, long[] removedIds) {
+        int[] removed = new int[removedIds.length];
+        int removedCount = 0;
+        for (long id : removedIds) {
+            int row = indexOf(id);
+            if (row >= 0) {
+                removed[removedCount++] = row;
+            }
+        }
+        removed = Arrays.copyOf(removed, removedCount);
+        Arrays.sort(removed);
+
+        int[] rows = new int[changed.size()];
+        boolean patchable = true;
+        for (int k = 0; k < rows.length && patchable; k++) {
+            Destination d = changed.get(k);
+            rows[k] = d.getId() != null ? indexOf(d.getId()) : -1;
+            patchable = rows[k] >= 0 && Arrays.binarySearch(removed, rows[k]) < 0
+                    && countryIndex.containsKey(d.getCountry()) && interests.containsAll(d.getInterests());
+        }
+        if (patchable) {
+            return new CatalogSnapshot(this, version, changed, rows, removed);
+        }
+
+        Map<Long, Destination> byId = new HashMap<>();
+        for (Destination d : changed) {
+            byId.put(d.getId(), d);
+        }
+        List<Destination> merged = new ArrayList<>(destinations.length + changed.size());
+        for (int i = 0, r = 0; i < destinations.length; i++) {
+            Destination replacement = byId.remove(destinations[i].getId());
+            if (r < removed.length && removed[r] == i) {
+                r++;
+            } else {
+                merged.add(replacement != null ? replacement : destinations[i]);
+            }
+        }
+        if (!byId.isEmpty()) {
+            merged.addAll(byId.values());
+            merged.sort(Comparator.comparing(Destination::getId, Comparator.nullsFirst(Comparator.naturalOrder())));
+        }
+        return of(version, merged);
+    }
+
+    public long version() {
+        return version;
+    }
+
+    public int size() {
+        return destinations.length;
+    }
+
+    /** The shared catalog entity for row {@code i}. Callers must not modify it. */
+    public Destination destination(int i) {
+        return destinations[i];
+    }
+
+    public long id(int i) {
+        return ids[i];
+    }
+
+    /** Row holding destination {@code id}, or -1 if the snapshot has none. */
+    public int indexOf(long id) {
+        int row = Arrays.binarySearch(ids, id);
+        return row >= 0 ? row : -1;
+    }
+
+    public String country(int i) {
+        return countries[i];
+    }
+
+    /** Dense id of row {@code i}'s country, in {@code [0, countryCount())}. */
+    public int countryId(int i) {
+        return countryIds[i];
+    }
+
+    public int countryCount() {
+        return countryNames.length;
+    }
+
+    public String countryName(int countryId) {
+        return countryNames[countryId];
+    }
+
+    public int minBudget(int i) {
+        return minBudget[i];
+    }
+
+    public int minDuration(int i) {
+        return minDuration[i];
+    }
+
+    public int maxDuration(int i) {
+        return maxDuration[i];
+    }
+
+    public double dailyRate(int i) {
+        return dailyRate[i];
+    }
+
+    public double rating(int i) {
+        return rating[i];
+    }
+
+    // Raw interest bitmasks, for CatalogSnapshotFile
+    long[] interestMasks() {
+        return interestMasks;
+    }
+
+    public BudgetDurationIndex budgetDurationIndex() {
+        return budgetDurationIndex;
+    }
+
+    public InterestDictionary interests() {
+        return interests;
+    }
+
+    /** Number of tags in {@code mask} (from {@link InterestDictionary#mask}) that row {@code i} carries. */
+    public int interestMatches(int i, long[] mask) {
+        int words = mask.length;
+        if (words == 1) {
+            return Long.bitCount(interestMasks[i] & mask[0]);
+        }
+        int matches = 0;
+        int offset = i * words;
+        for (int w = 0; w < words; w++) {
+            matches += Long.bitCount(interestMasks[offset + w] & mask[w]);
+        }
+        return matches;
+    }
+}
@@ -0,0 +1,288 @@
+package com.travel.travelrecommendation1.catalog;
+
+import com.travel.travelrecommendation1.model.Destination;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Binary on-disk form of a {@link CatalogSnapshot}, so a restarted instance
+ * can serve from the last catalog it had instead of waiting on a full load.
+ *
+ * Layout (big-endian): a header, a string table holding every distinct text
+ * value once, then one array per column - entity fields with strings as
+ * string-table indexes, the interest dictionary and bitmasks, country ids and
+ * the budget/duration index - and a CRC32 of everything before it. The file
+ * is memory-mapped on read and the columns are bulk-copied out, so neither
+ * the interest dictionary nor the range index has to be rebuilt. A single
+ * mapping limits the file to 2 GB.
+ */
+public final class CatalogSnapshotFile {
+
+    private static final int MAGIC = 0x54524353; // "TRCS"
+    private static final int FORMAT = 1;
+    private static final int NULL_INT = Integer.MIN_VALUE;
+    private static final long NULL_LONG = Long.MIN_VALUE;
+
+    private CatalogSnapshotFile() {
+    }
+
+    /** Writes {@code snapshot} to {@code file}, replacing it atomically. */
+    public static void write(CatalogSnapshot snapshot, Path file) throws IOException {
+        Path absolute = file.toAbsolutePath();
+        Files.createDirectories(absolute.getParent());
+        Path tmp = absolute.resolveSibling(absolute.getFileName() + ".tmp");
+        int size = snapshot.size();
+        Destination[] rows = new Destination[size];
+        for (int i = 0; i < size; i++) {
+            rows[i] = snapshot.destination(i);
+        }
+
+        StringTable strings = new StringTable();
+        int[][] text = new int[7][size];
+        for (int i = 0; i < size; i++) {
+            Destination d = rows[i];
+            text[0][i] = strings.ref(d.getName());
+            text[1][i] = strings.ref(d.getCountry());
+            text[2][i] = strings.ref(d.getDescription());
+            text[3][i] = strings.ref(d.getInterests());
+            text[4][i] = strings.ref(d.getImage());
+            text[5][i] = strings.ref(d.getHighlights());
+            text[6][i] = strings.ref(d.getBestTime());
+        }
+        InterestDictionary interests = snapshot.interests();
+        int[] tags = new int[interests.size()];
+        for (int bit = 0; bit < tags.length; bit++) {
+            tags[bit] = strings.ref(interests.tag(bit));
+        }
+        int[] countryNames = new int[snapshot.countryCount()];
+        for (int id = 0; id < countryNames.length; id++) {
+            countryNames[id] = strings.ref(snapshot.countryName(id));
+        }
+
+        CRC32 crc = new CRC32();
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                new CheckedOutputStream(Files.newOutputStream(tmp), crc), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT);
+            out.writeInt(size);
+            strings.writeTo(out);
+
+            for (Destination d : rows) {
+                out.writeLong(d.getId() != null ? d.getId() : NULL_LONG);
+            }
+            for (int[] column : text) {
+                writeInts(out, column);
+            }
+            for (Destination d : rows) {
+                out.writeInt(orNull(d.getMinBudget()));
+                out.writeInt(orNull(d.getMaxBudget()));
+                out.writeInt(orNull(d.getMinDuration()));
+                out.writeInt(orNull(d.getMaxDuration()));
+                out.writeInt(orNull(d.getReviews()));
+                out.writeDouble(d.getRating() != null ? d.getRating() : Double.NaN);
+                out.writeLong(d.getVersion() != null ? d.getVersion() : NULL_LONG);
+                Instant updatedAt = d.getUpdatedAt();
+                out.writeLong(updatedAt != null ? updatedAt.getEpochSecond() : NULL_LONG);
+                out.writeInt(updatedAt != null ? updatedAt.getNano() : 0);
+            }
+
+            out.writeInt(tags.length);
+            writeInts(out, tags);
+            long[] masks = snapshot.interestMasks();
+            out.writeInt(masks.length);
+            for (long mask : masks) {
+                out.writeLong(mask);
+            }
+            out.writeInt(countryNames.length);
+            writeInts(out, countryNames);
+            for (int i = 0; i < size; i++) {
+                out.writeInt(snapshot.countryId(i));
+            }
+
+            BudgetDurationIndex index = snapshot.budgetDurationIndex();
+            out.writeInt(index.bucketCount());
+            writeInts(out, index.bucketMinDurations());
+            writeInts(out, index.bucketMaxDurations());
+            writeInts(out, index.bucketStarts());
+            writeInts(out, index.rows());
+            for (double rate : index.rates()) {
+                out.writeDouble(rate);
+            }
+            out.flush();
+            out.writeLong(crc.getValue());
+        }
+        Files.move(tmp, absolute, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Maps {@code file} and rebuilds the snapshot it holds as {@code version}.
+     *
+     * @throws IOException if the file is unreadable, truncated or corrupt
+     */
+    public static CatalogSnapshot read(Path file, long version) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Catalog snapshot too large to map: " + file);
+            }
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        int bodyLength = buffer.limit() - Long.BYTES;
+        if (bodyLength < 3 * Integer.BYTES || buffer.getInt(0) != MAGIC || buffer.getInt(4) != FORMAT) {
+            throw new IOException("Not a catalog snapshot: " + file);
+        }
+        CRC32 crc = new CRC32();
+        crc.update(buffer.duplicate().limit(bodyLength));
+        if (crc.getValue() != buffer.getLong(bodyLength)) {
+            throw new IOException("Catalog snapshot checksum mismatch: " + file);
+        }
+
+        try {
+            buffer.position(8);
+            int size = buffer.getInt();
+            String[] strings = new String[buffer.getInt()];
+            for (int s = 0; s < strings.length; s++) {
+                byte[] bytes = new byte[buffer.getInt()];
+                buffer.get(bytes);
+                strings[s] = new String(bytes, StandardCharsets.UTF_8);
+            }
+
+            long[] ids = readLongs(buffer, size);
+            int[][] text = new int[7][];
+            for (int c = 0; c < text.length; c++) {
+                text[c] = readInts(buffer, size);
+            }
+            Destination[] rows = new Destination[size];
+            for (int i = 0; i < size; i++) {
+                Destination d = new Destination();
+                d.setId(ids[i] != NULL_LONG ? ids[i] : null);
+                d.setName(string(strings, text[0][i]));
+                d.setCountry(string(strings, text[1][i]));
+                d.setDescription(string(strings, text[2][i]));
+                d.setInterests(string(strings, text[3][i]));
+                d.setImage(string(strings, text[4][i]));
+                d.setHighlights(string(strings, text[5][i]));
+                d.setBestTime(string(strings, text[6][i]));
+                d.setMinBudget(integer(buffer.getInt()));
+                d.setMaxBudget(integer(buffer.getInt()));
+                d.setMinDuration(integer(buffer.getInt()));
+                d.setMaxDuration(integer(buffer.getInt()));
+                d.setReviews(integer(buffer.getInt()));
+                double rating = buffer.getDouble();
+                d.setRating(Double.isNaN(rating) ? null : rating);
+                long rowVersion = buffer.getLong();
+                d.setVersion(rowVersion != NULL_LONG ? rowVersion : null);
+                long seconds = buffer.getLong();
+                int nanos = buffer.getInt();
+                d.setUpdatedAt(seconds != NULL_LONG ? Instant.ofEpochSecond(seconds, nanos) : null);
+                rows[i] = d;
+            }
+
+            int[] tagRefs = readInts(buffer, buffer.getInt());
+            String[] tags = new String[tagRefs.length];
+            for (int bit = 0; bit < tags.length; bit++) {
+                tags[bit] = strings[tagRefs[bit]];
+            }
+            long[] masks = readLongs(buffer, buffer.getInt());
+            int[] countryRefs = readInts(buffer, buffer.getInt());
+            String[] countryNames = new String[countryRefs.length];
+            for (int id = 0; id < countryNames.length; id++) {
+                countryNames[id] = string(strings, countryRefs[id]);
+            }
+            int[] countryIds = readInts(buffer, size);
+
+            int buckets = buffer.getInt();
+            int[] bucketMin = readInts(buffer, buckets);
+            int[] bucketMax = readInts(buffer, buckets);
+            int[] bucketStart = readInts(buffer, buckets + 1);
+            int[] indexRows = readInts(buffer, size);
+            double[] rates = new double[size];
+            buffer.asDoubleBuffer().get(rates);
+            buffer.position(buffer.position() + size * Double.BYTES);
+            if (buffer.position() != bodyLength) {
+                throw new IOException("Catalog snapshot has trailing data: " + file);
+            }
+
+            return new CatalogSnapshot(version, rows, InterestDictionary.of(tags), masks, countryIds, countryNames,
+                    BudgetDurationIndex.of(bucketMin, bucketMax, bucketStart, indexRows, rates));
+        } catch (RuntimeException e) {
+            // Buffer underflow or a bad index: the checksum matched, so the
+            // file came from an incompatible writer
+            throw new IOException("Unreadable catalog snapshot: " + file, e);
+        }
+    }
+
+    private static int orNull(Integer value) {
+        return value != null ? value : NULL_INT;
+    }
+
+    private static Integer integer(int value) {
+        return value != NULL_INT ? value : null;
+    }
+
+    private static String string(String[] strings, int ref) {
+        return ref >= 0 ? strings[ref] : null;
+    }
+
+    private static void writeInts(DataOutputStream out, int[] values) throws IOException {
+        for (int value : values) {
+            out.writeInt(value);
+        }
+    }
+
+    private static int[] readInts(ByteBuffer buffer, int count) {
+        int[] values = new int[count];
+        buffer.asIntBuffer().get(values);
+        buffer.position(buffer.position() + count * Integer.BYTES);
+        return values;
+    }
+
+    private static long[] readLongs(ByteBuffer buffer, int count) {
+        long[] values = new long[count];
+        buffer.asLongBuffer().get(values);
+        buffer.position(buffer.position() + count * Long.BYTES);
+        return values;
+    }
+
+    // Each distinct string stored once; -1 stands for null
+    private static final class StringTable {
+        private final Map<String, Integer> refs = new HashMap<>();
+        private final List<String> values = new ArrayList<>();
+
+        int ref(String value) {
+            if (value == null) {
+                return -1;
+            }
+            return refs.computeIfAbsent(value, v -> {
+                values.add(v);
+                return values.size() - 1;
+            });
+        }
+
+        void writeTo(DataOutputStream out) throws IOException {
+            out.writeInt(values.size());
+            for (String value : values) {
+                byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                out.writeInt(bytes.length);
+                out.write(bytes);
+            }
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.travel.travelrecommendation1.catalog;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Keeps a {@link CatalogSnapshotFile} of the current catalog on local disk
+ * ({@code recommendation.catalog.snapshot-file}; empty disables it). On
+ * startup the file is restored before the first request, so the instance can
+ * serve without loading the table, and the catalog is reconciled with the
+ * database in the background once the application is ready. Every new
+ * catalog version is written back asynchronously; when versions arrive faster
+ * than they are written only the latest is kept.
+ */
+@Component
+public class CatalogSnapshotStore {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogSnapshotStore.class);
+
+    private final DestinationCatalog catalog;
+    private final Path file;
+    private final ExecutorService io;
+    private final AtomicReference<CatalogSnapshot> pending = new AtomicReference<>();
+    private volatile CatalogSnapshot restored;
+    private volatile boolean restoring;
+
+    @Autowired
+    public CatalogSnapshotStore(DestinationCatalog catalog,
+            @Value("${recommendation.catalog.snapshot-file:}") String file) {
+        this.catalog = catalog;
+        this.file = file.isBlank() ? null : Path.of(file);
+        this.io = Executors.newSingleThreadExecutor(task -> {
+            Thread thread = new Thread(task, "catalog-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @EventListener(ContextRefreshedEvent.class)
+    public void restore() {
+        if (file == null || !Files.exists(file)) {
+            return;
+        }
+        restoring = true;
+        try {
+            if (catalog.restore(file)) {
+                restored = catalog.snapshot();
+                log.info("Restored {} destinations from {}", restored.size(), file);
+            }
+        } catch (IOException e) {
+            // Fall back to loading from the database
+            log.warn("Ignoring catalog snapshot {}: {}", file, e.getMessage());
+        } finally {
+            restoring = false;
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconcile() {
+        if (restored != null) {
+            io.execute(catalog::reconcile);
+        }
+    }
+
+    @EventListener
+    public void onCatalogUpdated(CatalogUpdatedEvent event) {
+        // No need to write back what was just read
+        if (file == null || restoring) {
+            return;
+        }
+        if (pending.getAndSet(event.getSnapshot()) == null) {
+            io.execute(this::writePending);
+        }
+    }
+
+    private void writePending() {
+        CatalogSnapshot snapshot = pending.getAndSet(null);
+        if (snapshot == null) {
+            return;
+        }
+        try {
+            CatalogSnapshotFile.write(snapshot, file);
+        } catch (IOException e) {
+            log.warn("Could not write catalog snapshot {}: {}", file, e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        io.shutdown();
+    }
+}
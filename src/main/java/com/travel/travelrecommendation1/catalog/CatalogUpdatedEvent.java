@@ -0,0 +1,52 @@
+package com.travel.travelrecommendation1.catalog;
+
+/**
+ * Published by {@link DestinationCatalog} after a new snapshot has been swapped
+ * in, so caches and derived data keyed on the catalog can drop stale entries.
+ */
+public class CatalogUpdatedEvent {
+
+    private final CatalogSnapshot snapshot;
+    private final CatalogSnapshot previous;
+    private final long[] changedIds;
+    private final long loadNanos;
+
+    public CatalogUpdatedEvent(CatalogSnapshot snapshot, long loadNanos) {
+        this(snapshot, null, null, loadNanos);
+    }
+
+    public CatalogUpdatedEvent(CatalogSnapshot snapshot, CatalogSnapshot previous, long[] changedIds,
+            long loadNanos) {
+        this.snapshot = snapshot;
+        this.previous = previous;
+        this.changedIds = changedIds;
+        this.loadNanos = loadNanos;
+    }
+
+    public CatalogSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    public long getVersion() {
+        return snapshot.version();
+    }
+
+    /** Whether only {@link #getChangedIds()} differ from {@link #getPrevious()}, as opposed to a full reload. */
+    public boolean isDelta() {
+        return changedIds != null;
+    }
+
+    public CatalogSnapshot getPrevious() {
+        return previous;
+    }
+
+    /** Ids of the rows inserted, replaced or removed since the previous snapshot; null after a full reload. */
+    public long[] getChangedIds() {
+        return changedIds;
+    }
+
+    /** Time spent loading and indexing this snapshot. */
+    public long getLoadNanos() {
+        return loadNanos;
+    }
+}
@@ -0,0 +1,247 @@
+package com.travel.travelrecommendation1.catalog;
+
+import com.travel.travelrecommendation1.model.Destination;
+import com.travel.travelrecommendation1.repository.DestinationRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Holds the current {@link CatalogSnapshot}. Readers grab the reference once
+ * per request and work against that snapshot; {@link #refresh()} builds a new
+ * snapshot off to the side, swaps it in atomically and announces it with a
+ * {@link CatalogUpdatedEvent}.
+ *
+ * Once loaded, the catalog polls for rows whose {@code updatedAt} moved past
+ * the newest one it has seen and applies just those as a delta
+ * ({@link #applyChanges()}). Deleted rows show up as a row count that
+ * disagrees and are found by comparing row versions ({@link #reconcile()}),
+ * also without reloading the table.
+ *
+ * Without a snapshot (scoring in the database) the table is still versioned:
+ * {@link #tableVersion()} moves whenever the row count, the newest
+ * {@code updatedAt} or the sum of row versions does, so results cached under
+ * it go stale with the data. Writes that change none of these, i.e. plain SQL
+ * that neither bumps {@code version} nor sets {@code updated_at}, are not
+ * seen by either mode.
+ */
+@Component
+public class DestinationCatalog {
+
+    private final DestinationRepository destinationRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final AtomicReference<CatalogSnapshot> current = new AtomicReference<>();
+    private final AtomicLong versions = new AtomicLong();
+    // Polls re-read this much before the newest updatedAt seen, so writes
+    // committed late or stamped by a slightly slower clock are not missed;
+    // rows whose @Version did not move are skipped
+    private static final Duration CHANGE_WINDOW = Duration.ofSeconds(5);
+    private Instant watermark = Instant.EPOCH;
+    private final AtomicLong tableVersions = new AtomicLong();
+    private volatile DestinationRepository.TableState tableState;
+
+    @Autowired
+    public DestinationCatalog(DestinationRepository destinationRepository,
+            ApplicationEventPublisher eventPublisher) {
+        this.destinationRepository = destinationRepository;
+        this.eventPublisher = eventPublisher;
+    }
+
+    public CatalogSnapshot snapshot() {
+        CatalogSnapshot snapshot = current.get();
+        return snapshot != null ? snapshot : loadIfAbsent();
+    }
+
+    // Reload the whole table and publish it as a new version
+    public synchronized CatalogSnapshot refresh() {
+        long start = System.nanoTime();
+        List<Destination> rows = destinationRepository.findAll(Sort.by("id"));
+        CatalogSnapshot snapshot = CatalogSnapshot.of(versions.incrementAndGet(), rows);
+        watermark = Instant.EPOCH;
+        advanceWatermark(rows);
+        current.set(snapshot);
+        eventPublisher.publishEvent(new CatalogUpdatedEvent(snapshot, System.nanoTime() - start));
+        return snapshot;
+    }
+
+    @Scheduled(fixedDelayString = "${recommendation.catalog.refresh-interval:5s}",
+            initialDelayString = "${recommendation.catalog.refresh-interval:5s}")
+    public void pollChanges() {
+        // Nothing to keep current until something asked for the catalog
+        if (current.get() != null) {
+            applyChanges();
+        } else if (tableState != null) {
+            checkTable();
+        }
+    }
+
+    /** Version of the table's content, tracked from the first call on; see the class comment. */
+    public long tableVersion() {
+        if (tableState == null) {
+            checkTable();
+        }
+        return tableVersions.get();
+    }
+
+    // Listeners (caches, the interest tag sync) run before the new version is
+    // handed out, so nothing is cached under it from before the change
+    public synchronized long checkTable() {
+        DestinationRepository.TableState previous = tableState;
+        DestinationRepository.TableState state = destinationRepository.findTableState();
+        if (previous != null && sameState(previous, state)) {
+            return tableVersions.get();
+        }
+        if (previous != null) {
+            Instant since = previous.getLastUpdatedAt() != null
+                    ? previous.getLastUpdatedAt().minus(CHANGE_WINDOW)
+                    : Instant.EPOCH;
+            eventPublisher.publishEvent(new TableChangedEvent(since));
+        }
+        tableState = state;
+        return tableVersions.incrementAndGet();
+    }
+
+    private static boolean sameState(DestinationRepository.TableState a, DestinationRepository.TableState b) {
+        return Objects.equals(a.getRowCount(), b.getRowCount())
+                && Objects.equals(a.getLastUpdatedAt(), b.getLastUpdatedAt())
+                && Objects.equals(a.getVersionSum(), b.getVersionSum());
+    }
+
+    // Apply the rows changed since the last load and publish them as a new
+    // version; unchanged polls keep the current snapshot
+    public synchronized CatalogSnapshot applyChanges() {
+        CatalogSnapshot previous = current.get();
+        if (previous == null) {
+            return refresh();
+        }
+        long start = System.nanoTime();
+        List<Destination> rows = destinationRepository.findByUpdatedAtGreaterThanEqual(
+                watermark.minus(CHANGE_WINDOW), Sort.by("id"));
+        List<Destination> changed = new ArrayList<>();
+        int inserted = 0;
+        for (Destination d : rows) {
+            int row = d.getId() != null ? previous.indexOf(d.getId()) : -1;
+            if (row < 0) {
+                inserted++;
+                changed.add(d);
+            } else if (!Objects.equals(previous.destination(row).getVersion(), d.getVersion())) {
+                changed.add(d);
+            }
+        }
+        advanceWatermark(rows);
+        // Deletes leave nothing to poll for; when the row count disagrees,
+        // diff the row versions to find them
+        if (destinationRepository.count() != previous.size() + inserted) {
+            return reconcile();
+        }
+        if (changed.isEmpty()) {
+            return previous;
+        }
+        return publishChanges(previous, changed, new long[0], start);
+    }
+
+    /**
+     * Serves the snapshot stored in {@code file} until {@link #reconcile()}
+     * has compared it with the database. Does nothing if a catalog is
+     * already loaded.
+     *
+     * @return false if a catalog was already loaded
+     */
+    public synchronized boolean restore(Path file) throws IOException {
+        if (current.get() != null) {
+            return false;
+        }
+        long start = System.nanoTime();
+        CatalogSnapshot snapshot = CatalogSnapshotFile.read(file, versions.incrementAndGet());
+        watermark = Instant.EPOCH;
+        for (int i = 0; i < snapshot.size(); i++) {
+            advanceWatermark(snapshot.destination(i));
+        }
+        current.set(snapshot);
+        eventPublisher.publishEvent(new CatalogUpdatedEvent(snapshot, System.nanoTime() - start));
+        return true;
+    }
+
+    // Compare every row's version with the current snapshot and apply the
+    // difference, rows gone from the table included
+    public synchronized CatalogSnapshot reconcile() {
+        CatalogSnapshot previous = current.get();
+        if (previous == null) {
+            return refresh();
+        }
+        long start = System.nanoTime();
+        List<Long> changedIds = new ArrayList<>();
+        boolean[] present = new boolean[previous.size()];
+        int matched = 0;
+        for (DestinationRepository.RowVersion row : destinationRepository.findRowVersions()) {
+            int i = previous.indexOf(row.getId());
+            if (i < 0) {
+                changedIds.add(row.getId());
+            } else {
+                present[i] = true;
+                matched++;
+                if (!Objects.equals(previous.destination(i).getVersion(), row.getVersion())) {
+                    changedIds.add(row.getId());
+                }
+            }
+        }
+        long[] removedIds = new long[previous.size() - matched];
+        for (int i = 0, r = 0; r < removedIds.length; i++) {
+            if (!present[i]) {
+                removedIds[r++] = previous.id(i);
+            }
+        }
+        if (changedIds.isEmpty() && removedIds.length == 0) {
+            return previous;
+        }
+        List<Destination> changed = new ArrayList<>(destinationRepository.findAllById(changedIds));
+        changed.sort(Comparator.comparing(Destination::getId));
+        return publishChanges(previous, changed, removedIds, start);
+    }
+
+    private CatalogSnapshot publishChanges(CatalogSnapshot previous, List<Destination> changed, long[] removedIds,
+            long start) {
+        advanceWatermark(changed);
+        CatalogSnapshot snapshot = previous.withChanges(versions.incrementAndGet(), changed, removedIds);
+        // Removed ids too, so listeners drop what was derived from those rows
+        long[] changedIds = Arrays.copyOf(removedIds, changed.size() + removedIds.length);
+        for (int k = 0; k < changed.size(); k++) {
+            changedIds[removedIds.length + k] = changed.get(k).getId();
+        }
+        current.set(snapshot);
+        eventPublisher.publishEvent(new CatalogUpdatedEvent(snapshot, previous, changedIds,
+                System.nanoTime() - start));
+        return snapshot;
+    }
+
+    private void advanceWatermark(List<Destination> rows) {
+        for (Destination d : rows) {
+            advanceWatermark(d);
+        }
+    }
+
+    private void advanceWatermark(Destination d) {
+        if (d.getUpdatedAt() != null && d.getUpdatedAt().isAfter(watermark)) {
+            watermark = d.getUpdatedAt();
+        }
+    }
+
+    private synchronized CatalogSnapshot loadIfAbsent() {
+        CatalogSnapshot snapshot = current.get();
+        return snapshot != null ? snapshot : refresh();
+    }
+}
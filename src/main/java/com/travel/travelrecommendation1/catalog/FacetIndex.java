@@ -0,0 +1,328 @@
+package com.travel.travelrecommendation1.catalog;
+
+import com.travel.travelrecommendation1.dto.FacetBucket;
+import com.travel.travelrecommendation1.dto.FacetCounts;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bitmaps over the rows of one {@link CatalogSnapshot} for facet counts: one
+ * per interest tag, country, budget bucket, duration bucket and trip length
+ * in days. A filter becomes the AND of a few bitmaps and every count is the
+ * popcount of one more AND, so counting costs a pass over {@code size / 64}
+ * words per facet value and no row is visited.
+ *
+ * Budgets are a destination's starting price ({@code minBudget}); a
+ * destination is in every duration bucket its {@code minDuration ..
+ * maxDuration} range overlaps, and offers a trip of {@code d} days when
+ * {@code d} lies in that range.
+ */
+public final class FacetIndex {
+
+    // Longer trips are answered from the duration columns instead
+    private static final int MAX_INDEXED_DAYS = 60;
+
+    private static final int INTEREST = 0;
+    private static final int COUNTRY = 1;
+    private static final int BUDGET = 2;
+    private static final int DURATION = 3;
+
+    private final CatalogSnapshot snapshot;
+    private final int words;
+    private final long[] all;
+    private final long[][] tagRows;
+    private final long[][] countryRows;
+    private final int[] countriesByName;
+    private final int[] budgetBounds;
+    private final long[][] budgetRows;
+    private final int[] rowsByPrice;
+    private final int[] sortedPrices;
+    private final int[] budgetStart;
+    private final int[] durationBounds;
+    private final long[][] durationRows;
+    private final long[][] dayRows;
+
+    private FacetIndex(CatalogSnapshot snapshot, int[] budgetBounds, int[] durationBounds) {
+        int size = snapshot.size();
+        this.snapshot = snapshot;
+        this.words = (size + 63) >>> 6;
+        this.all = new long[words];
+        for (int i = 0; i < size; i++) {
+            set(all, i);
+        }
+
+        InterestDictionary interests = snapshot.interests();
+        long[] masks = snapshot.interestMasks();
+        int maskWords = interests.words();
+        this.tagRows = new long[interests.size()][words];
+        for (int i = 0; i < size; i++) {
+            for (int w = 0; w < maskWords; w++) {
+                for (long bits = masks[i * maskWords + w]; bits != 0; bits &= bits - 1) {
+                    set(tagRows[(w << 6) + Long.numberOfTrailingZeros(bits)], i);
+                }
+            }
+        }
+
+        this.countryRows = new long[snapshot.countryCount()][words];
+        for (int i = 0; i < size; i++) {
+            set(countryRows[snapshot.countryId(i)], i);
+        }
+        this.countriesByName = sortedCountries(snapshot);
+
+        // Rows in price order; each budget bucket is a contiguous run of them
+        this.budgetBounds = budgetBounds;
+        long[] byPrice = new long[size];
+        for (int i = 0; i < size; i++) {
+            byPrice[i] = ((long) snapshot.minBudget(i) << 32) | i;
+        }
+        Arrays.sort(byPrice);
+        this.rowsByPrice = new int[size];
+        this.sortedPrices = new int[size];
+        for (int p = 0; p < size; p++) {
+            rowsByPrice[p] = (int) byPrice[p];
+            sortedPrices[p] = (int) (byPrice[p] >> 32);
+        }
+        int budgetBuckets = budgetBounds.length + 1;
+        this.budgetStart = new int[budgetBuckets + 1];
+        this.budgetRows = new long[budgetBuckets][words];
+        for (int b = 1; b < budgetBuckets; b++) {
+            budgetStart[b] = firstAtLeast(sortedPrices, budgetBounds[b - 1]);
+        }
+        budgetStart[budgetBuckets] = size;
+        for (int b = 0; b < budgetBuckets; b++) {
+            for (int p = budgetStart[b]; p < budgetStart[b + 1]; p++) {
+                set(budgetRows[b], rowsByPrice[p]);
+            }
+        }
+
+        this.durationBounds = durationBounds;
+        this.durationRows = new long[durationBounds.length + 1][words];
+        int longest = 0;
+        for (int i = 0; i < size; i++) {
+            longest = Math.max(longest, snapshot.maxDuration(i));
+            for (int b = 0; b < durationRows.length; b++) {
+                if (snapshot.minDuration(i) <= durationMax(b) && snapshot.maxDuration(i) >= durationMin(b)) {
+                    set(durationRows[b], i);
+                }
+            }
+        }
+        this.dayRows = new long[Math.min(longest, MAX_INDEXED_DAYS)][words];
+        for (int i = 0; i < size; i++) {
+            int last = Math.min(snapshot.maxDuration(i), dayRows.length);
+            for (int d = Math.max(snapshot.minDuration(i), 1); d <= last; d++) {
+                set(dayRows[d - 1], i);
+            }
+        }
+    }
+
+    /**
+     * Index over {@code snapshot}. Budget buckets start at 0 and at each of
+     * {@code budgetBounds}, duration buckets at 1 day and at each of
+     * {@code durationBounds}; both must be ascending.
+     */
+    public static FacetIndex build(CatalogSnapshot snapshot, int[] budgetBounds, int[] durationBounds) {
+        return new FacetIndex(snapshot, budgetBounds, durationBounds);
+    }
+
+    public long version() {
+        return snapshot.version();
+    }
+
+    /**
+     * Counts for the filter given by the non-null arguments: any of
+     * {@code interests}, {@code country} (ignoring case), a starting price
+     * within {@code minBudget .. maxBudget} and trips of {@code duration} days.
+     */
+    public FacetCounts count(Collection<String> interests, String country, Integer minBudget, Integer maxBudget,
+            Integer duration) {
+        long[][] filters = new long[4][];
+        filters[INTEREST] = anyTag(interests);
+        filters[COUNTRY] = country != null && !country.isBlank() ? countryNamed(country.trim()) : null;
+        if (minBudget != null || maxBudget != null) {
+            filters[BUDGET] = priceRange(minBudget != null ? minBudget : Integer.MIN_VALUE,
+                    maxBudget != null ? maxBudget : Integer.MAX_VALUE);
+        }
+        filters[DURATION] = duration != null ? offering(duration) : null;
+
+        InterestDictionary dictionary = snapshot.interests();
+        long[] matching = matching(filters, INTEREST);
+        Map<String, Integer> interestCounts = new LinkedHashMap<>();
+        for (int t = 0; t < tagRows.length; t++) {
+            interestCounts.put(dictionary.tag(t), countBoth(matching, tagRows[t]));
+        }
+
+        matching = matching(filters, COUNTRY);
+        Map<String, Integer> countryCounts = new LinkedHashMap<>();
+        for (int c : countriesByName) {
+            countryCounts.put(snapshot.countryName(c), countBoth(matching, countryRows[c]));
+        }
+
+        matching = matching(filters, BUDGET);
+        List<FacetBucket> budgets = new ArrayList<>(budgetRows.length);
+        for (int b = 0; b < budgetRows.length; b++) {
+            budgets.add(new FacetBucket(b == 0 ? 0 : budgetBounds[b - 1],
+                    b < budgetBounds.length ? budgetBounds[b] - 1 : null, countBoth(matching, budgetRows[b])));
+        }
+
+        matching = matching(filters, DURATION);
+        List<FacetBucket> durations = new ArrayList<>(durationRows.length);
+        for (int b = 0; b < durationRows.length; b++) {
+            durations.add(new FacetBucket(durationMin(b), b < durationBounds.length ? durationMax(b) : null,
+                    countBoth(matching, durationRows[b])));
+        }
+
+        return new FacetCounts(count(matching(filters, -1)), interestCounts, countryCounts, budgets, durations);
+    }
+
+    // Rows with any of the tags; null when no tag is given
+    private long[] anyTag(Collection<String> interests) {
+        if (interests == null) {
+            return null;
+        }
+        long[] rows = null;
+        for (String tag : interests) {
+            if (tag == null || tag.isBlank()) {
+                continue;
+            }
+            if (rows == null) {
+                rows = new long[words];
+            }
+            // Tags no destination carries match nothing
+            int bit = snapshot.interests().bitOf(tag);
+            if (bit >= 0) {
+                or(rows, tagRows[bit]);
+            }
+        }
+        return rows;
+    }
+
+    // Same case-insensitive match as the scoring country filter
+    private long[] countryNamed(String country) {
+        long[] rows = new long[words];
+        for (int c = 0; c < countryRows.length; c++) {
+            if (country.equalsIgnoreCase(snapshot.countryName(c))) {
+                or(rows, countryRows[c]);
+            }
+        }
+        return rows;
+    }
+
+    // Buckets wholly inside the range are taken as bitmaps, only the rows of
+    // the (at most two) buckets it cuts through are set one by one
+    private long[] priceRange(int min, int max) {
+        long[] rows = new long[words];
+        if (min > max) {
+            return rows;
+        }
+        int from = firstAtLeast(sortedPrices, min);
+        int to = max == Integer.MAX_VALUE ? sortedPrices.length : firstAtLeast(sortedPrices, max + 1);
+        for (int b = 0; b < budgetRows.length; b++) {
+            int start = Math.max(from, budgetStart[b]);
+            int end = Math.min(to, budgetStart[b + 1]);
+            if (start >= end) {
+                continue;
+            }
+            if (start == budgetStart[b] && end == budgetStart[b + 1]) {
+                or(rows, budgetRows[b]);
+            } else {
+                for (int p = start; p < end; p++) {
+                    set(rows, rowsByPrice[p]);
+                }
+            }
+        }
+        return rows;
+    }
+
+    private long[] offering(int days) {
+        if (days >= 1 && days <= dayRows.length) {
+            return dayRows[days - 1];
+        }
+        long[] rows = new long[words];
+        if (days > MAX_INDEXED_DAYS) {
+            for (int i = 0; i < snapshot.size(); i++) {
+                if (snapshot.minDuration(i) <= days && days <= snapshot.maxDuration(i)) {
+                    set(rows, i);
+                }
+            }
+        }
+        return rows;
+    }
+
+    // AND of every filter but the skipped one
+    private long[] matching(long[][] filters, int skip) {
+        long[] rows = all.clone();
+        for (int f = 0; f < filters.length; f++) {
+            if (f != skip && filters[f] != null) {
+                for (int w = 0; w < words; w++) {
+                    rows[w] &= filters[f][w];
+                }
+            }
+        }
+        return rows;
+    }
+
+    private int durationMin(int bucket) {
+        return bucket == 0 ? 1 : durationBounds[bucket - 1];
+    }
+
+    private int durationMax(int bucket) {
+        return bucket < durationBounds.length ? durationBounds[bucket] - 1 : Integer.MAX_VALUE;
+    }
+
+    private static int[] sortedCountries(CatalogSnapshot snapshot) {
+        List<Integer> ids = new ArrayList<>();
+        for (int c = 0; c < snapshot.countryCount(); c++) {
+            if (snapshot.countryName(c) != null) {
+                ids.add(c);
+            }
+        }
+        ids.sort(Comparator.comparing(snapshot::countryName));
+        return ids.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private static int firstAtLeast(int[] sorted, int value) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sorted[mid] < value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static void set(long[] rows, int row) {
+        rows[row >>> 6] |= 1L << row;
+    }
+
+    private static void or(long[] target, long[] rows) {
+        for (int w = 0; w < target.length; w++) {
+            target[w] |= rows[w];
+        }
+    }
+
+    private static int count(long[] rows) {
+        int count = 0;
+        for (long word : rows) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    private static int countBoth(long[] a, long[] b) {
+        int count = 0;
+        for (int w = 0; w < a.length; w++) {
+            count += Long.bitCount(a[w] & b[w]);
+        }
+        return count;
+    }
+}
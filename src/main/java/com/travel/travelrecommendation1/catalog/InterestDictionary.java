@@ -0,0 +1,130 @@
+package com.travel.travelrecommendation1.catalog;
+
+import com.travel.travelrecommendation1.model.Destination;
+import com.travel.travelrecommendation1.model.Interest;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Assigns every interest tag found in the catalog a bit position so interest
+ * sets can be stored as {@code long} masks and matched with a popcount.
+ *
+ * Built from the data rather than from {@link Interest} alone, because the
+ * seed data uses tags (food, history, romance, ...) the enum does not know.
+ * Tags are trimmed and lower-cased on both the catalog and the request side.
+ * A mask is {@link #words()} longs wide; one word covers the first 64 tags.
+ */
+public final class InterestDictionary {
+
+    private final Map<String, Integer> bits;
+    private final String[] tags;
+    private final int words;
+
+    private InterestDictionary(Map<String, Integer> bits) {
+        this.bits = bits;
+        this.tags = bits.keySet().toArray(new String[0]);
+        this.words = Math.max(1, (tags.length + 63) >>> 6);
+    }
+
+    public static InterestDictionary build(List<Destination> destinations) {
+        Map<String, Integer> bits = new LinkedHashMap<>();
+        // Enum tags first so they keep stable low bit positions
+        for (Interest interest : Interest.values()) {
+            bits.putIfAbsent(normalize(interest.name()), bits.size());
+        }
+        for (Destination d : destinations) {
+            if (d.getInterests() == null) {
+                continue;
+            }
+            for (String tag : d.getInterests().split(",")) {
+                String key = normalize(tag);
+                if (!key.isEmpty()) {
+                    bits.putIfAbsent(key, bits.size());
+                }
+            }
+        }
+        return new InterestDictionary(bits);
+    }
+
+    // Dictionary with tags at the given bit positions, for CatalogSnapshotFile
+    static InterestDictionary of(String[] tags) {
+        Map<String, Integer> bits = new LinkedHashMap<>();
+        for (String tag : tags) {
+            bits.put(tag, bits.size());
+        }
+        return new InterestDictionary(bits);
+    }
+
+    public static String normalize(String tag) {
+        return tag.trim().toLowerCase(Locale.ROOT);
+    }
+
+    public int words() {
+        return words;
+    }
+
+    public int size() {
+        return tags.length;
+    }
+
+    public String tag(int bit) {
+        return tags[bit];
+    }
+
+    /** Bit position of a tag, or -1 if no destination carries it. */
+    public int bitOf(String tag) {
+        Integer bit = bits.get(normalize(tag));
+        return bit != null ? bit : -1;
+    }
+
+    // Whether every tag in a CSV interest column already has a bit
+    boolean containsAll(String csv) {
+        if (csv == null) {
+            return true;
+        }
+        for (String tag : csv.split(",")) {
+            if (!normalize(tag).isEmpty() && bitOf(tag) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Encode a CSV interest column into dest[offset .. offset + words)
+    void encodeCsv(String csv, long[] dest, int offset) {
+        if (csv == null) {
+            return;
+        }
+        for (String tag : csv.split(",")) {
+            int bit = bitOf(tag);
+            if (bit >= 0) {
+                dest[offset + (bit >>> 6)] |= 1L << bit;
+            }
+        }
+    }
+
+    /**
+     * Mask for a request's interests. Tags unknown to the catalog are dropped
+     * since no destination could match them; repeated tags count once.
+     */
+    public long[] mask(Collection<String> interests) {
+        long[] mask = new long[words];
+        if (interests == null) {
+            return mask;
+        }
+        for (String tag : interests) {
+            if (tag == null) {
+                continue;
+            }
+            int bit = bitOf(tag);
+            if (bit >= 0) {
+                mask[bit >>> 6] |= 1L << bit;
+            }
+        }
+        return mask;
+    }
+}
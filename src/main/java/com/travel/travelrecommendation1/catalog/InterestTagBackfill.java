@@ -0,0 +1,79 @@
+package com.travel.travelrecommendation1.catalog;
+
+import com.travel.travelrecommendation1.model.Destination;
+import com.travel.travelrecommendation1.repository.DestinationRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Keeps the {@code destination_interests} rows derived from the CSV
+ * {@code interests} column, which stays the source of truth. Writes through
+ * the entity update both; rows written with plain SQL (the seed script, or
+ * edits made outside this application) are re-derived at startup and, while
+ * the table is tracked without a catalog, on every detected change, for the
+ * rows written since the previous check and any still without tags. Such
+ * writes must bump {@code updated_at} or {@code version} to be seen.
+ * <p>
+ * The derived rows are written with plain SQL too: changing the entity's
+ * collection would count as an update of the destination, bumping its
+ * {@code version} and {@code updated_at} and with them the catalog and every
+ * cached result, on each start.
+ */
+@Component
+public class InterestTagBackfill {
+
+    private final DestinationRepository destinationRepository;
+
+    @Autowired
+    public InterestTagBackfill(DestinationRepository destinationRepository) {
+        this.destinationRepository = destinationRepository;
+    }
+
+    @Order(0)
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfill() {
+        sync(destinationRepository.findWithoutInterestTags());
+    }
+
+    @EventListener
+    @Transactional
+    public void onTableChanged(TableChangedEvent event) {
+        // A row can be in both; the loaded entities do not see the SQL writes
+        Map<Long, Destination> rows = new LinkedHashMap<>();
+        for (Destination destination : destinationRepository.findByUpdatedAtGreaterThanEqual(event.getSince(),
+                Sort.by("id"))) {
+            rows.put(destination.getId(), destination);
+        }
+        for (Destination destination : destinationRepository.findWithoutInterestTags()) {
+            rows.putIfAbsent(destination.getId(), destination);
+        }
+        sync(rows.values());
+    }
+
+    // Only rows whose tags differ are touched, so a sync settles after one round
+    private void sync(Collection<Destination> rows) {
+        for (Destination destination : rows) {
+            Set<String> tags = Destination.parseInterests(destination.getInterests());
+            if (tags.equals(destination.getInterestTags())) {
+                continue;
+            }
+            if (!destination.getInterestTags().isEmpty()) {
+                destinationRepository.deleteInterestTags(destination.getId());
+            }
+            for (String tag : tags) {
+                destinationRepository.insertInterestTag(destination.getId(), tag);
+            }
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.travel.travelrecommendation1.catalog;
+
+import java.time.Instant;
+
+/**
+ * Published by {@link DestinationCatalog} when the destinations table changed
+ * while no snapshot is held ({@code recommendation.scoring.mode=database}),
+ * before the new table version is handed out. Rows written since
+ * {@link #getSince()} are the ones that may have changed; deletes are only
+ * seen in the row count.
+ */
+public class TableChangedEvent {
+
+    private final Instant since;
+
+    public TableChangedEvent(Instant since) {
+        this.since = since;
+    }
+
+    public Instant getSince() {
+        return since;
+    }
+}
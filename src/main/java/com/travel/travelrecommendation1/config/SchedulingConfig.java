@@ -0,0 +1,13 @@
+package com.travel.travelrecommendation1.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+// Drives the background polling: catalog changes (DestinationCatalog#pollChanges)
+// and scoring rule edits (RuleEngine#pollForChanges)
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(name = "recommendation.polling-enabled", havingValue = "true", matchIfMissing = true)
+public class SchedulingConfig {
+}
@@ -0,0 +1,136 @@
+package com.travel.travelrecommendation1.controller;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Admission control in front of the scoring endpoints ({@code POST} to
+ * {@code /api/recommendations}, {@code /batch} and {@code /stream}); cheap
+ * reads, the internal shard endpoint and CORS preflights are not gated. At most
+ * {@code recommendation.admission.max-concurrent} requests are handled at
+ * once; up to {@code max-queue} more wait, first come first served, for up to
+ * {@code queue-timeout} and are then answered 503. With the queue full a
+ * request is turned away at once with 429. Both carry {@code Retry-After}, so
+ * excess load is rejected in milliseconds instead of queueing behind work the
+ * instance cannot finish. CORS headers are added by a filter ahead of this
+ * one, so the browser sees rejections as such.
+ * <p>
+ * The arrival time is kept in the {@link #ARRIVAL_NANOS} request attribute so
+ * the scoring deadline includes time spent waiting here. Outcomes are counted
+ * in {@code recommendation.admission}; {@code recommendation.admission.active}
+ * and {@code .queued} are the current occupancy.
+ */
+@Component
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    public static final String ARRIVAL_NANOS = "com.travel.travelrecommendation1.admission.arrival";
+
+    private static final Set<String> SCORING_PATHS = Set.of("/api/recommendations",
+            "/api/recommendations/batch", "/api/recommendations/stream", "/api/recommendations/shard");
+
+    private final boolean enabled;
+    private final int maxConcurrent;
+    private final int maxQueue;
+    private final long queueTimeoutNanos;
+    private final Semaphore permits;
+    private final AtomicInteger queued = new AtomicInteger();
+    private final Counter admitted;
+    private final Counter queueFull;
+    private final Counter timedOut;
+
+    @Autowired
+    public AdmissionControlFilter(@Value("${recommendation.admission.enabled:true}") boolean enabled,
+            @Value("${recommendation.admission.max-concurrent:64}") int maxConcurrent,
+            @Value("${recommendation.admission.max-queue:128}") int maxQueue,
+            @Value("${recommendation.admission.queue-timeout:100ms}") Duration queueTimeout,
+            MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.maxConcurrent = Math.max(maxConcurrent, 1);
+        this.maxQueue = Math.max(maxQueue, 0);
+        this.queueTimeoutNanos = queueTimeout.toNanos();
+        this.permits = new Semaphore(this.maxConcurrent, true);
+        this.admitted = outcome(meterRegistry, "admitted");
+        this.queueFull = outcome(meterRegistry, "rejected_queue_full");
+        this.timedOut = outcome(meterRegistry, "rejected_timeout");
+        Gauge.builder("recommendation.admission.active", permits, p -> this.maxConcurrent - p.availablePermits())
+                .register(meterRegistry);
+        Gauge.builder("recommendation.admission.queued", queued, AtomicInteger::get).register(meterRegistry);
+    }
+
+    private static Counter outcome(MeterRegistry registry, String outcome) {
+        return Counter.builder("recommendation.admission").tag("outcome", outcome).register(registry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || !"POST".equals(request.getMethod())
+                || !SCORING_PATHS.contains(request.getRequestURI().substring(request.getContextPath().length()));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        request.setAttribute(ARRIVAL_NANOS, System.nanoTime());
+        if (!admit(response)) {
+            return;
+        }
+        admitted.increment();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private boolean admit(HttpServletResponse response) throws IOException {
+        try {
+            // Timed even when not waiting, so newcomers do not overtake the queue
+            if (permits.tryAcquire(0, TimeUnit.NANOSECONDS)) {
+                return true;
+            }
+            if (queued.incrementAndGet() > maxQueue) {
+                queued.decrementAndGet();
+                queueFull.increment();
+                reject(response, HttpStatus.TOO_MANY_REQUESTS);
+                return false;
+            }
+            try {
+                if (permits.tryAcquire(queueTimeoutNanos, TimeUnit.NANOSECONDS)) {
+                    return true;
+                }
+            } finally {
+                queued.decrementAndGet();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        timedOut.increment();
+        reject(response, HttpStatus.SERVICE_UNAVAILABLE);
+        return false;
+    }
+
+    private static void reject(HttpServletResponse response, HttpStatus status) throws IOException {
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+        response.setContentType("text/plain");
+        response.getWriter().write("Service temporarily overloaded, please retry");
+    }
+}
@@ -0,0 +1,43 @@
+package com.travel.travelrecommendation1.controller;
+
+import com.travel.travelrecommendation1.catalog.CatalogFacets;
+import com.travel.travelrecommendation1.dto.FacetCounts;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Destination counts for the filter panel, mapped only where
+ * {@link CatalogFacets} is: when this instance keeps the catalog in memory.
+ */
+@RestController
+@RequestMapping("/api/recommendations")
+@CrossOrigin(origins = "http://localhost:3000")
+@ConditionalOnExpression(CatalogFacets.ENABLED)
+public class FacetController {
+
+    private final CatalogFacets catalogFacets;
+
+    @Autowired
+    public FacetController(CatalogFacets catalogFacets) {
+        this.catalogFacets = catalogFacets;
+    }
+
+    // Destination counts per interest, country, budget and duration bucket for
+    // the filter panel; every parameter is optional
+    @GetMapping("/facets")
+    public ResponseEntity<FacetCounts> getFacets(@RequestParam(required = false) List<String> interests,
+            @RequestParam(required = false) String country,
+            @RequestParam(required = false) Integer minBudget,
+            @RequestParam(required = false) Integer maxBudget,
+            @RequestParam(required = false) Integer duration) {
+        return ResponseEntity.ok(catalogFacets.count(interests, country, minBudget, maxBudget, duration));
+    }
+}
@@ -1,54 +1,283 @@
 package com.travel.travelrecommendation1.controller;
 
+import com.travel.travelrecommendation1.cache.EncodedJson;
+import com.travel.travelrecommendation1.dto.DestinationPage;
+import com.travel.travelrecommendation1.dto.DestinationSummary;
 import com.travel.travelrecommendation1.dto.RecommendationRequest;
 import com.travel.travelrecommendation1.dto.RecommendationResponse;
+import com.travel.travelrecommendation1.dto.RecommendationWithReason;
 import com.travel.travelrecommendation1.model.Destination;
+import com.travel.travelrecommendation1.scoring.Deadline;
 import com.travel.travelrecommendation1.service.RecommendationService;
+import com.travel.travelrecommendation1.service.RecommendationSink;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.ConstraintViolation;
 import jakarta.validation.Valid;
+import jakarta.validation.Validator;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
+import tools.jackson.databind.json.JsonMapper;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.List;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/recommendations")
 @CrossOrigin(origins = "http://localhost:3000")
 public class RecommendationController {
 
+    public static final String PARTIAL_HEADER = "X-Recommendations-Partial";
+
+    private static final byte[] SSE_DATA = "data: ".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] SSE_END = "\n\n".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] NEWLINE = "\n".getBytes(StandardCharsets.US_ASCII);
+
     private final RecommendationService recommendationService;
+    private final Validator validator;
+    private final JsonMapper jsonMapper;
+    private final int maxBatchSize;
+    private final int maxLimit;
+    private final Duration timeBudget;
+    private final int maxPageSize;
 
     @Autowired
-    public RecommendationController(RecommendationService recommendationService) {
+    public RecommendationController(RecommendationService recommendationService, Validator validator,
+            JsonMapper jsonMapper,
+            @Value("${recommendation.batch.max-size:1000}") int maxBatchSize,
+            @Value("${recommendation.max-limit:1000}") int maxLimit,
+            @Value("${recommendation.scoring.time-budget:0ms}") Duration timeBudget,
+            @Value("${recommendation.destinations.max-page-size:100}") int maxPageSize) {
         this.recommendationService = recommendationService;
+        this.validator = validator;
+        this.jsonMapper = jsonMapper;
+        this.maxBatchSize = maxBatchSize;
+        this.maxLimit = maxLimit;
+        this.timeBudget = timeBudget;
+        this.maxPageSize = maxPageSize;
     }
 
     @PostMapping
     public ResponseEntity<RecommendationResponse> getRecommendations(@Valid @RequestBody RecommendationRequest request,
-            BindingResult bindingResult) {
+            BindingResult bindingResult,
+            @RequestAttribute(name = AdmissionControlFilter.ARRIVAL_NANOS, required = false) Long arrivalNanos) {
         if (bindingResult.hasErrors()) {
             String errorMsg = bindingResult.getAllErrors().get(0).getDefaultMessage();
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, errorMsg);
         }
-        RecommendationResponse response = recommendationService.getRecommendations(request);
+        if (exceedsLimit(request)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Limit must not exceed " + maxLimit);
+        }
+        // The time budget counts from arrival, queueing included
+        Deadline deadline = Deadline.of(arrivalNanos != null ? arrivalNanos : System.nanoTime(), timeBudget);
+        RecommendationResponse response = recommendationService.getRecommendations(request, deadline);
         return ResponseEntity.ok(response);
     }
 
+    // Same ranking, written out one recommendation at a time as NDJSON, or as
+    // server-sent events when the client accepts text/event-stream, with no
+    // cap on limit. Results are rendered from the collector as they are
+    // written, never as a list or response; scoring still finishes before the
+    // first line, so whether it is partial goes in a header. Written on the
+    // request thread, so admission control covers the whole write.
+    @PostMapping("/stream")
+    public void streamRecommendations(@Valid @RequestBody RecommendationRequest request,
+            BindingResult bindingResult,
+            @RequestAttribute(name = AdmissionControlFilter.ARRIVAL_NANOS, required = false) Long arrivalNanos,
+            @RequestHeader(name = HttpHeaders.ACCEPT, required = false) String accept,
+            HttpServletResponse response) throws IOException {
+        if (bindingResult.hasErrors()) {
+            String errorMsg = bindingResult.getAllErrors().get(0).getDefaultMessage();
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, errorMsg);
+        }
+        Deadline deadline = Deadline.of(arrivalNanos != null ? arrivalNanos : System.nanoTime(), timeBudget);
+        recommendationService.streamRecommendations(request, deadline,
+                new StreamingSink(response, jsonMapper, wantsEventStream(accept)));
+    }
+
+    @PostMapping("/batch")
+    public ResponseEntity<List<RecommendationResponse>> getBatchRecommendations(
+            @RequestBody List<RecommendationRequest> requests,
+            @RequestAttribute(name = AdmissionControlFilter.ARRIVAL_NANOS, required = false) Long arrivalNanos) {
+        if (requests.size() > maxBatchSize) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Batch size must not exceed " + maxBatchSize);
+        }
+        for (int i = 0; i < requests.size(); i++) {
+            RecommendationRequest request = requests.get(i);
+            if (request == null) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Request " + i + ": must not be null");
+            }
+            Set<ConstraintViolation<RecommendationRequest>> violations = validator.validate(request);
+            if (!violations.isEmpty()) {
+                String errorMsg = violations.iterator().next().getMessage();
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Request " + i + ": " + errorMsg);
+            }
+            if (exceedsLimit(request)) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                        "Request " + i + ": Limit must not exceed " + maxLimit);
+            }
+        }
+        // One time budget for the whole batch
+        Deadline deadline = Deadline.of(arrivalNanos != null ? arrivalNanos : System.nanoTime(), timeBudget);
+        return ResponseEntity.ok(recommendationService.getBatchRecommendations(requests, deadline));
+    }
+
+    // Card summaries in id order; pass nextCursor back as "after" for the next page
     @GetMapping("/destinations")
-    public ResponseEntity<List<Destination>> getAllDestinations() {
-        List<Destination> destinations = recommendationService.getAllDestinations();
-        return ResponseEntity.ok(destinations);
+    public ResponseEntity<byte[]> getDestinations(@RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestHeader(name = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        if (size < 1) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Page size must be positive");
+        }
+        EncodedJson<DestinationPage> page = recommendationService.getDestinations(after,
+                Math.min(size, maxPageSize));
+        return json(ResponseEntity.ok(), page, acceptEncoding);
+    }
+
+    // Highest rated over the whole catalog, for the home page's popular picks
+    @GetMapping("/destinations/top-rated")
+    public ResponseEntity<List<DestinationSummary>> getTopRatedDestinations(
+            @RequestParam(defaultValue = "3") int size) {
+        if (size < 1) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Size must be positive");
+        }
+        return ResponseEntity.ok(recommendationService.getTopRatedDestinations(Math.min(size, maxPageSize)));
     }
 
     @GetMapping("/destinations/{id}")
-    public ResponseEntity<Destination> getDestinationById(@PathVariable Long id) {
-        Destination destination = recommendationService.getDestinationById(id);
+    public ResponseEntity<byte[]> getDestinationById(@PathVariable Long id,
+            @RequestHeader(name = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        EncodedJson<Destination> destination = recommendationService.getDestinationById(id);
         if (destination == null) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Destination not found");
         }
-        return ResponseEntity.ok(destination);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (destination.value().getUpdatedAt() != null) {
+            response.lastModified(destination.value().getUpdatedAt());
+        }
+        return json(response, destination, acceptEncoding);
+    }
+
+    // The cached bytes go out as they are, gzipped ones when the client takes
+    // them, tagged with the hash of their JSON. Spring compares the ETag with
+    // If-None-Match and answers 304 before writing anything, so a revalidation
+    // costs neither a query nor encoding. no-cache makes browsers revalidate
+    // instead of guessing a freshness lifetime from Last-Modified.
+    private static ResponseEntity<byte[]> json(ResponseEntity.BodyBuilder response, EncodedJson<?> encoded,
+            String acceptEncoding) {
+        response.contentType(MediaType.APPLICATION_JSON)
+                .cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (encoded.gzip() != null && acceptsGzip(acceptEncoding)) {
+            // A strong ETag names one exact byte sequence, so the encodings differ
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                    .eTag("\"" + encoded.etag() + "-gzip\"")
+                    .body(encoded.gzip());
+        }
+        return response.eTag("\"" + encoded.etag() + "\"").body(encoded.json());
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim();
+            if (name.equalsIgnoreCase("gzip") || name.equals("*")) {
+                for (int i = 1; i < parts.length; i++) {
+                    String param = parts[i].trim().replace(" ", "");
+                    if (param.matches("(?i)q=0(\\.0{0,3})?")) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Responses built in full are capped; /stream is meant for larger limits
+    private boolean exceedsLimit(RecommendationRequest request) {
+        return request.getLimit() != null && request.getLimit() > maxLimit;
+    }
+
+    // NDJSON unless text/event-stream is preferred over it
+    private static boolean wantsEventStream(String accept) {
+        if (accept == null) {
+            return false;
+        }
+        double eventStream = 0;
+        double ndjson = 0;
+        try {
+            for (MediaType type : MediaType.parseMediaTypes(accept)) {
+                if (type.equalsTypeAndSubtype(MediaType.TEXT_EVENT_STREAM)) {
+                    eventStream = Math.max(eventStream, type.getQualityValue());
+                } else if (type.equalsTypeAndSubtype(MediaType.APPLICATION_NDJSON)) {
+                    ndjson = Math.max(ndjson, type.getQualityValue());
+                }
+            }
+        } catch (InvalidMediaTypeException e) {
+            return false;
+        }
+        return eventStream > ndjson;
+    }
+
+    // Each recommendation is encoded on its own and goes straight into the
+    // servlet's buffer; the first one is flushed so the client sees it at once
+    private static final class StreamingSink implements RecommendationSink {
+        private final HttpServletResponse response;
+        private final JsonMapper jsonMapper;
+        private final boolean eventStream;
+        private ServletOutputStream out;
+        private boolean flushed;
+
+        StreamingSink(HttpServletResponse response, JsonMapper jsonMapper, boolean eventStream) {
+            this.response = response;
+            this.jsonMapper = jsonMapper;
+            this.eventStream = eventStream;
+        }
+
+        @Override
+        public void start(boolean partial) throws IOException {
+            response.setStatus(HttpStatus.OK.value());
+            response.setContentType(eventStream ? MediaType.TEXT_EVENT_STREAM_VALUE
+                    : MediaType.APPLICATION_NDJSON_VALUE);
+            response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+            response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+            response.setHeader(PARTIAL_HEADER, Boolean.toString(partial));
+            out = response.getOutputStream();
+        }
+
+        @Override
+        public void accept(RecommendationWithReason recommendation) throws IOException {
+            byte[] json = jsonMapper.writeValueAsBytes(recommendation);
+            if (eventStream) {
+                out.write(SSE_DATA);
+                out.write(json);
+                out.write(SSE_END);
+            } else {
+                out.write(json);
+                out.write(NEWLINE);
+            }
+            if (!flushed) {
+                out.flush();
+                flushed = true;
+            }
+        }
     }
 }
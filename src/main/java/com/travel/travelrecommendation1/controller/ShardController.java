@@ -0,0 +1,68 @@
+package com.travel.travelrecommendation1.controller;
+
+import com.travel.travelrecommendation1.catalog.DestinationCatalog;
+import com.travel.travelrecommendation1.dto.RecommendationRequest;
+import com.travel.travelrecommendation1.scoring.Deadline;
+import com.travel.travelrecommendation1.scoring.ScoringEngine;
+import com.travel.travelrecommendation1.service.RecommendationMetrics;
+import com.travel.travelrecommendation1.shard.HttpCatalogShard;
+import com.travel.travelrecommendation1.shard.LocalCatalogShard;
+import com.travel.travelrecommendation1.shard.ShardResult;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.validation.BindingResult;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestAttribute;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+
+/**
+ * The shard side of sharded scoring: scores this instance's catalog for a
+ * coordinator (see {@code ShardCoordinator}) and returns the local top-K
+ * candidates rather than a ranking. The rows scanned are counted in this
+ * instance's metrics, the coordinator does not see them. Only mapped on
+ * instances configured as shards, and admission-controlled like the other
+ * scoring endpoints.
+ */
+@RestController
+@ConditionalOnProperty(name = "recommendation.sharding.serve", havingValue = "true")
+public class ShardController {
+
+    private final LocalCatalogShard shard;
+    private final ScoringEngine scoringEngine;
+    private final RecommendationMetrics metrics;
+    private final Duration timeBudget;
+
+    @Autowired
+    public ShardController(DestinationCatalog destinationCatalog, ScoringEngine scoringEngine,
+            RecommendationMetrics metrics,
+            @Value("${recommendation.scoring.time-budget:0ms}") Duration timeBudget) {
+        this.shard = new LocalCatalogShard(destinationCatalog::snapshot, scoringEngine);
+        this.scoringEngine = scoringEngine;
+        this.metrics = metrics;
+        this.timeBudget = timeBudget;
+    }
+
+    @PostMapping(HttpCatalogShard.PATH)
+    public ShardResult search(@Valid @RequestBody RecommendationRequest request, BindingResult bindingResult,
+            @RequestHeader(name = HttpCatalogShard.TIME_BUDGET_HEADER, required = false) Long budgetMillis,
+            @RequestAttribute(name = AdmissionControlFilter.ARRIVAL_NANOS, required = false) Long arrivalNanos) {
+        if (bindingResult.hasErrors()) {
+            String errorMsg = bindingResult.getAllErrors().get(0).getDefaultMessage();
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, errorMsg);
+        }
+        // The coordinator's remaining budget, or this instance's own
+        Duration budget = budgetMillis != null ? Duration.ofMillis(budgetMillis) : timeBudget;
+        Deadline deadline = Deadline.of(arrivalNanos != null ? arrivalNanos : System.nanoTime(), budget);
+        ShardResult result = shard.search(request, scoringEngine.rules(), deadline);
+        metrics.recordCandidates(result.getLoaded(), result.getStats(), result.getCandidates().size());
+        return result;
+    }
+}
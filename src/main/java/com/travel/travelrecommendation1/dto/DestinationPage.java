@@ -0,0 +1,26 @@
+package com.travel.travelrecommendation1.dto;
+
+import java.util.List;
+
+/**
+ * One page of the destination listing, in id order. {@code nextCursor} is
+ * passed back as {@code after} for the following page and is null on the
+ * last one.
+ */
+public class DestinationPage {
+    private final List<DestinationSummary> items;
+    private final Long nextCursor;
+
+    public DestinationPage(List<DestinationSummary> items, Long nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<DestinationSummary> getItems() {
+        return items;
+    }
+
+    public Long getNextCursor() {
+        return nextCursor;
+    }
+}
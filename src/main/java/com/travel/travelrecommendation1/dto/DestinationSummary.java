@@ -0,0 +1,56 @@
+package com.travel.travelrecommendation1.dto;
+
+/**
+ * What a destination card shows, selected by the repository straight into
+ * this class: the first {@link #DESCRIPTION_LENGTH} characters of the
+ * description, no highlights or best time, and no entity is loaded. The full
+ * {@link com.travel.travelrecommendation1.model.Destination} is served by
+ * {@code GET /destinations/{id}}.
+ */
+public class DestinationSummary {
+    // Enough for the two lines a card shows
+    public static final int DESCRIPTION_LENGTH = 160;
+
+    private final Long id;
+    private final String name;
+    private final String country;
+    private final String description;
+    private final String image;
+    private final Double rating;
+    private final Integer reviews;
+    private final Integer minBudget;
+    private final Integer maxBudget;
+    private final Integer minDuration;
+    private final Integer maxDuration;
+    private final String interests;
+
+    public DestinationSummary(Long id, String name, String country, String description, String image,
+            Double rating, Integer reviews, Integer minBudget, Integer maxBudget, Integer minDuration,
+            Integer maxDuration, String interests) {
+        this.id = id;
+        this.name = name;
+        this.country = country;
+        this.description = description;
+        this.image = image;
+        this.rating = rating;
+        this.reviews = reviews;
+        this.minBudget = minBudget;
+        this.maxBudget = maxBudget;
+        this.minDuration = minDuration;
+        this.maxDuration = maxDuration;
+        this.interests = interests;
+    }
+
+    public Long getId() { return id; }
+    public String getName() { return name; }
+    public String getCountry() { return country; }
+    public String getDescription() { return description; }
+    public String getImage() { return image; }
+    public Double getRating() { return rating; }
+    public Integer getReviews() { return reviews; }
+    public Integer getMinBudget() { return minBudget; }
+    public Integer getMaxBudget() { return maxBudget; }
+    public Integer getMinDuration() { return minDuration; }
+    public Integer getMaxDuration() { return maxDuration; }
+    public String getInterests() { return interests; }
+}
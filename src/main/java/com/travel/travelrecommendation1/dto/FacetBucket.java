@@ -0,0 +1,26 @@
+package com.travel.travelrecommendation1.dto;
+
+/** One bucket of a range facet: {@code min} to {@code max} inclusive, {@code max} null when open-ended. */
+public class FacetBucket {
+    private final int min;
+    private final Integer max;
+    private final int count;
+
+    public FacetBucket(int min, Integer max, int count) {
+        this.min = min;
+        this.max = max;
+        this.count = count;
+    }
+
+    public int getMin() {
+        return min;
+    }
+
+    public Integer getMax() {
+        return max;
+    }
+
+    public int getCount() {
+        return count;
+    }
+}
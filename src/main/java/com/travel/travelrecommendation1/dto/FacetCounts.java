@@ -0,0 +1,46 @@
+package com.travel.travelrecommendation1.dto;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Destination counts for a partial filter. {@code total} matches the whole
+ * filter; each facet is counted with every filter but its own, so the counts
+ * show what choosing another value of that facet would give.
+ */
+public class FacetCounts {
+    private final int total;
+    private final Map<String, Integer> interests;
+    private final Map<String, Integer> countries;
+    private final List<FacetBucket> budgets;
+    private final List<FacetBucket> durations;
+
+    public FacetCounts(int total, Map<String, Integer> interests, Map<String, Integer> countries,
+            List<FacetBucket> budgets, List<FacetBucket> durations) {
+        this.total = total;
+        this.interests = interests;
+        this.countries = countries;
+        this.budgets = budgets;
+        this.durations = durations;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public Map<String, Integer> getInterests() {
+        return interests;
+    }
+
+    public Map<String, Integer> getCountries() {
+        return countries;
+    }
+
+    public List<FacetBucket> getBudgets() {
+        return budgets;
+    }
+
+    public List<FacetBucket> getDurations() {
+        return durations;
+    }
+}
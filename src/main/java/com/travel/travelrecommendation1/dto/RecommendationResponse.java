@@ -4,6 +4,8 @@ import java.util.List;
 
 public class RecommendationResponse {
     private List<RecommendationWithReason> recommendations;
+    // Scoring ran out of time: the best of the destinations it got to
+    private boolean partial;
 
     public RecommendationResponse() {}
 
@@ -11,6 +13,11 @@ public class RecommendationResponse {
         this.recommendations = recommendations;
     }
 
+    public RecommendationResponse(List<RecommendationWithReason> recommendations, boolean partial) {
+        this.recommendations = recommendations;
+        this.partial = partial;
+    }
+
     public List<RecommendationWithReason> getRecommendations() {
         return recommendations;
     }
@@ -18,4 +25,12 @@ public class RecommendationResponse {
     public void setRecommendations(List<RecommendationWithReason> recommendations) {
         this.recommendations = recommendations;
     }
+
+    public boolean isPartial() {
+        return partial;
+    }
+
+    public void setPartial(boolean partial) {
+        this.partial = partial;
+    }
 }
@@ -0,0 +1,39 @@
+package com.travel.travelrecommendation1.dto;
+
+import com.travel.travelrecommendation1.model.Destination;
+
+/**
+ * Read-only view of a catalog {@link Destination} as it appears in a
+ * recommendation: the shared catalog entry plus the price and trip length
+ * projected for the request. Serializes to the same JSON as a Destination
+ * whose min/max budget are the price and min/max duration the trip length,
+ * without copying the entity.
+ */
+public class RecommendedDestination {
+    private final Destination destination;
+    private final int price;
+    private final int duration;
+
+    public RecommendedDestination(Destination destination, int price, int duration) {
+        this.destination = destination;
+        this.price = price;
+        this.duration = duration;
+    }
+
+    public Long getId() { return destination.getId(); }
+    public String getName() { return destination.getName(); }
+    public String getCountry() { return destination.getCountry(); }
+    public String getDescription() { return destination.getDescription(); }
+    // Single value: Min == Max implies single price
+    public Integer getMinBudget() { return price; }
+    public Integer getMaxBudget() { return price; }
+    // Single value matching the price
+    public Integer getMinDuration() { return duration; }
+    public Integer getMaxDuration() { return duration; }
+    public String getInterests() { return destination.getInterests(); }
+    public Double getRating() { return destination.getRating(); }
+    public Integer getReviews() { return destination.getReviews(); }
+    public String getImage() { return destination.getImage(); }
+    public String getHighlights() { return destination.getHighlights(); }
+    public String getBestTime() { return destination.getBestTime(); }
+}
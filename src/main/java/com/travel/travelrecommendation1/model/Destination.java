@@ -1,10 +1,18 @@
 package com.travel.travelrecommendation1.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.Locale;
 import java.util.Objects;
+import java.util.Set;
 
 @Entity
-@Table(name = "destinations")
+@Table(name = "destinations", indexes = {
+        @Index(name = "idx_destinations_duration", columnList = "min_duration, max_duration"),
+        @Index(name = "idx_destinations_updated_at", columnList = "updated_at"),
+        @Index(name = "idx_destinations_rating", columnList = "rating, id") })
 public class Destination {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -21,12 +29,31 @@ public class Destination {
     // "beach,adventure,culture")
     private String interests;
 
+    // Normalized copy of the interests, one row per tag, so the database can
+    // filter on them (see DestinationRepository#findFeasible). Always derived
+    // from the CSV column; InterestTagBackfill repairs plain SQL writes.
+    @ElementCollection
+    @CollectionTable(name = "destination_interests", joinColumns = @JoinColumn(name = "destination_id"),
+            indexes = @Index(name = "idx_destination_interests_interest", columnList = "interest, destination_id"))
+    @Column(name = "interest")
+    @JsonIgnore
+    private Set<String> interestTags = new HashSet<>();
+
     private Double rating;
     private Integer reviews;
     private String image;
     private String highlights; // Stored as CSV
     private String bestTime;
 
+    // Change tracking for the catalog's incremental refresh. The column
+    // defaults cover rows written with plain SQL, such as the seed script.
+    @Version
+    @Column(columnDefinition = "bigint default 0 not null")
+    private Long version;
+
+    @Column(columnDefinition = "timestamp with time zone default current_timestamp")
+    private Instant updatedAt;
+
     public Destination() {
     }
 
@@ -101,6 +128,25 @@ public class Destination {
 
     public void setInterests(String interests) {
         this.interests = interests;
+        this.interestTags.clear();
+        this.interestTags.addAll(parseInterests(interests));
+    }
+
+    public Set<String> getInterestTags() {
+        return interestTags;
+    }
+
+    public static Set<String> parseInterests(String interests) {
+        Set<String> tags = new HashSet<>();
+        if (interests != null) {
+            for (String tag : interests.split(",")) {
+                String key = tag.trim().toLowerCase(Locale.ROOT);
+                if (!key.isEmpty()) {
+                    tags.add(key);
+                }
+            }
+        }
+        return tags;
     }
 
     public Double getRating() {
@@ -143,6 +189,28 @@ public class Destination {
         this.bestTime = bestTime;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    @PrePersist
+    @PreUpdate
+    void touch() {
+        updatedAt = Instant.now();
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o)
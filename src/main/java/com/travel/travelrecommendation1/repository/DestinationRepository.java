@@ -1,10 +1,102 @@
 package com.travel.travelrecommendation1.repository;
 
+import com.travel.travelrecommendation1.dto.DestinationSummary;
 import com.travel.travelrecommendation1.model.Destination;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface DestinationRepository extends JpaRepository<Destination, Long> {
-    // Custom query methods can be added here if needed
+
+    /**
+     * Rows that pass the scorer's hard filters: the trip length clamped to the
+     * destination's range fits {@code maxDuration}, the projected cost
+     * (minBudget / minDuration per day) fits {@code maxBudget}, and at least
+     * one of {@code interests} (normalized tags, non-empty) matches. The budget
+     * test is done in integer arithmetic and errs on the side of keeping a row,
+     * the scorer applies the exact check. Ordered by id like the catalog.
+     */
+    @Query(value = """
+            SELECT d.* FROM destinations d
+            WHERE LEAST(GREATEST(:duration, COALESCE(d.min_duration, 0)), COALESCE(d.max_duration, 0)) <= :maxDuration
+              AND CAST(COALESCE(d.min_budget, 0) AS BIGINT)
+                    * LEAST(GREATEST(:duration, COALESCE(d.min_duration, 0)), COALESCE(d.max_duration, 0))
+                  <= (CAST(:maxBudget AS BIGINT) + 1) * GREATEST(COALESCE(d.min_duration, 0), 1)
+              AND EXISTS (SELECT 1 FROM destination_interests i
+                          WHERE i.destination_id = d.id AND i.interest IN (:interests))
+            ORDER BY d.id
+            """, nativeQuery = true)
+    List<Destination> findFeasible(@Param("duration") int duration, @Param("maxDuration") int maxDuration,
+            @Param("maxBudget") int maxBudget, @Param("interests") Collection<String> interests);
+
+    // Keyset page of the listing: the first rows with an id above the cursor,
+    // read through the primary key whatever the page number. Summaries carry
+    // the first DestinationSummary.DESCRIPTION_LENGTH characters of the description.
+    @Query("""
+            SELECT new com.travel.travelrecommendation1.dto.DestinationSummary(d.id, d.name, d.country,
+                SUBSTRING(d.description, 1, 160), d.image, d.rating, d.reviews, d.minBudget, d.maxBudget,
+                d.minDuration, d.maxDuration, d.interests)
+            FROM Destination d WHERE d.id > :after ORDER BY d.id
+            """)
+    List<DestinationSummary> findSummariesAfter(@Param("after") long after, Limit limit);
+
+    // Best rated first across the whole table, ties by id
+    @Query("""
+            SELECT new com.travel.travelrecommendation1.dto.DestinationSummary(d.id, d.name, d.country,
+                SUBSTRING(d.description, 1, 160), d.image, d.rating, d.reviews, d.minBudget, d.maxBudget,
+                d.minDuration, d.maxDuration, d.interests)
+            FROM Destination d ORDER BY d.rating DESC NULLS LAST, d.id
+            """)
+    List<DestinationSummary> findTopRated(Limit limit);
+
+    // Rows written at or after the given instant, for the catalog's incremental refresh
+    List<Destination> findByUpdatedAtGreaterThanEqual(Instant since, Sort sort);
+
+    // (id, version) of every row, for reconciling a catalog restored from disk
+    @Query("SELECT d.id AS id, d.version AS version FROM Destination d ORDER BY d.id")
+    List<RowVersion> findRowVersions();
+
+    // Cheap fingerprint of the whole table, polled when no catalog is held
+    @Query("""
+            SELECT COUNT(d) AS rowCount, MAX(d.updatedAt) AS lastUpdatedAt, COALESCE(SUM(d.version), 0) AS versionSum
+            FROM Destination d
+            """)
+    TableState findTableState();
+
+    // Rows loaded by the seed script bypass the entity, so their tag rows are missing
+    @Query("SELECT d FROM Destination d WHERE d.interests IS NOT NULL AND d.interestTags IS EMPTY")
+    List<Destination> findWithoutInterestTags();
+
+    // Tag rows written around the entity, so the destination row itself is not updated
+    @Modifying
+    @Query(value = "DELETE FROM destination_interests WHERE destination_id = :id", nativeQuery = true)
+    void deleteInterestTags(@Param("id") long id);
+
+    @Modifying
+    @Query(value = "INSERT INTO destination_interests (destination_id, interest) VALUES (:id, :interest)",
+            nativeQuery = true)
+    void insertInterestTag(@Param("id") long id, @Param("interest") String interest);
+
+    interface RowVersion {
+        Long getId();
+
+        Long getVersion();
+    }
+
+    interface TableState {
+        Long getRowCount();
+
+        Instant getLastUpdatedAt();
+
+        Long getVersionSum();
+    }
 }
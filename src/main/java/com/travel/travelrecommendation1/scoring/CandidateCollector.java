@@ -0,0 +1,135 @@
+package com.travel.travelrecommendation1.scoring;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Bounded collection of a request's candidates. Without diversity only the
+ * overall top {@code limit} is kept; with diversity the top {@code limit} of
+ * each country is kept, which is exactly what {@link DiversityReranker} needs.
+ * Memory is O(limit) or O(countries * limit), independent of catalog size.
+ *
+ * Collectors filled from disjoint parts of the catalog can be merged; since
+ * ties are broken by catalog row, the merged ranking does not depend on how
+ * the catalog was split or in which order parts finished.
+ */
+public final class CandidateCollector {
+
+    private final int limit;
+    private final boolean diversify;
+    private final int diversityBonus;
+    private final TopKSelector overall;
+    private final TopKSelector[] byCountry;
+    private final ScanStats stats = new ScanStats();
+    private boolean partial;
+
+    public CandidateCollector(int limit, boolean diversify, int countryCount, int diversityBonus) {
+        this.limit = limit;
+        this.diversify = diversify;
+        this.diversityBonus = diversityBonus;
+        this.overall = diversify ? null : new TopKSelector(limit, ScoredCandidate.RANK);
+        this.byCountry = diversify ? new TopKSelector[countryCount] : null;
+    }
+
+    public void offer(ScoredCandidate candidate) {
+        if (!diversify) {
+            overall.offer(candidate);
+            return;
+        }
+        TopKSelector selector = byCountry[candidate.countryId()];
+        if (selector == null) {
+            selector = new TopKSelector(limit, ScoredCandidate.RANK);
+            byCountry[candidate.countryId()] = selector;
+        }
+        selector.offer(candidate);
+    }
+
+    public boolean wouldAccept(int countryId, int score, int row) {
+        if (!diversify) {
+            return overall.wouldAccept(score, row);
+        }
+        TopKSelector selector = byCountry[countryId];
+        return selector == null ? limit > 0 : selector.wouldAccept(score, row);
+    }
+
+    public void merge(CandidateCollector other) {
+        stats.merge(other.stats);
+        partial |= other.partial;
+        for (ScoredCandidate candidate : other.retained()) {
+            offer(candidate);
+        }
+    }
+
+    /**
+     * Every candidate kept, in no particular order: the overall top
+     * {@code limit}, or with diversity the top {@code limit} of each country.
+     * The union of these from disjoint parts of a catalog contains everything
+     * the ranking over the whole catalog needs.
+     */
+    public List<ScoredCandidate> retained() {
+        List<ScoredCandidate> retained = new ArrayList<>();
+        if (!diversify) {
+            overall.addTo(retained);
+        } else {
+            for (TopKSelector selector : byCountry) {
+                if (selector != null) {
+                    selector.addTo(retained);
+                }
+            }
+        }
+        return retained;
+    }
+
+    public ScanStats stats() {
+        return stats;
+    }
+
+    /** Whether scoring stopped at its deadline before reaching every feasible row. */
+    public boolean partial() {
+        return partial;
+    }
+
+    void markPartial() {
+        partial = true;
+    }
+
+    /** Final ranking, best first, at most {@code limit} entries. */
+    public List<ScoredCandidate> ranked() {
+        if (limit <= 0) {
+            return Collections.emptyList();
+        }
+        return selection().toSortedList();
+    }
+
+    /**
+     * The same ranking handed out one candidate at a time, for writing results
+     * as they are rendered. Takes the candidates out of the collector, so it
+     * can be called once and the collector holds nothing afterwards.
+     */
+    public Iterator<ScoredCandidate> drainRanked() {
+        if (limit <= 0) {
+            return Collections.emptyIterator();
+        }
+        TopKSelector selection = selection();
+        if (diversify) {
+            Arrays.fill(byCountry, null);
+        }
+        return selection.drain();
+    }
+
+    private TopKSelector selection() {
+        if (!diversify) {
+            return overall;
+        }
+        List<ScoredCandidate> pool = new ArrayList<>();
+        for (TopKSelector selector : byCountry) {
+            if (selector != null) {
+                selector.addTo(pool);
+            }
+        }
+        return DiversityReranker.select(pool, limit, byCountry.length, diversityBonus);
+    }
+}
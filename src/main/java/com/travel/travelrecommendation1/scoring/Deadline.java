@@ -0,0 +1,48 @@
+package com.travel.travelrecommendation1.scoring;
+
+import java.time.Duration;
+
+/**
+ * The point in time by which a request should be answered, on the
+ * {@link System#nanoTime()} clock. Scoring checks it every
+ * {@link ScoringEngine#CHECK_INTERVAL} rows and, once it has passed, stops
+ * with the best candidates found so far.
+ */
+public final class Deadline {
+
+    /** No time limit. */
+    public static final Deadline NONE = new Deadline(0, false);
+
+    private final long nanoTime;
+    private final boolean bounded;
+
+    private Deadline(long nanoTime, boolean bounded) {
+        this.nanoTime = nanoTime;
+        this.bounded = bounded;
+    }
+
+    /** {@code budget} after {@code startNanos}; a zero or negative budget means no limit. */
+    public static Deadline of(long startNanos, Duration budget) {
+        if (budget == null || budget.isZero() || budget.isNegative()) {
+            return NONE;
+        }
+        return new Deadline(startNanos + budget.toNanos(), true);
+    }
+
+    public static Deadline after(Duration budget) {
+        return of(System.nanoTime(), budget);
+    }
+
+    public boolean isBounded() {
+        return bounded;
+    }
+
+    public boolean expired() {
+        return bounded && System.nanoTime() - nanoTime >= 0;
+    }
+
+    /** Time left, zero once expired; only meaningful if {@link #isBounded()}. */
+    public Duration remaining() {
+        return Duration.ofNanos(Math.max(nanoTime - System.nanoTime(), 0));
+    }
+}
@@ -0,0 +1,70 @@
+package com.travel.travelrecommendation1.scoring;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Diversity bonus: when one country holds more than half of the top
+ * {@code limit} results, every candidate from another country gets the
+ * bonus (+1 by default, see {@link ScoringRules}) and the list is re-ranked.
+ *
+ * The re-ranked order is (score + bonus) desc, then the original rank, which
+ * is what re-sorting a stably sorted list produces. Candidates of one country
+ * all get the same adjustment and keep their relative order, so whatever the
+ * bonus, the pool passed in must hold the top {@code limit} of every country
+ * (see {@link CandidateCollector}), not just the window.
+ */
+final class DiversityReranker {
+
+    private DiversityReranker() {
+    }
+
+    static List<ScoredCandidate> rerank(List<ScoredCandidate> pool, int limit, int countryCount, int bonus) {
+        return select(pool, limit, countryCount, bonus).toSortedList();
+    }
+
+    // Selector holding the final ranking, for callers that drain it instead
+    static TopKSelector select(List<ScoredCandidate> pool, int limit, int countryCount, int bonus) {
+        TopKSelector window = new TopKSelector(limit, ScoredCandidate.RANK);
+        for (ScoredCandidate candidate : pool) {
+            window.offer(candidate);
+        }
+        List<ScoredCandidate> top = new ArrayList<>(window.size());
+        window.addTo(top);
+
+        int dominant = dominantCountry(top, limit, countryCount);
+        if (dominant < 0) {
+            return window;
+        }
+
+        TopKSelector reranked = new TopKSelector(limit, diversified(dominant, bonus));
+        for (ScoredCandidate candidate : pool) {
+            candidate.setDiversityBonus(candidate.countryId() != dominant);
+            reranked.offer(candidate);
+        }
+        return reranked;
+    }
+
+    // Country with more than limit / 2 entries in the window, in any order, or -1
+    private static int dominantCountry(List<ScoredCandidate> top, int limit, int countryCount) {
+        int[] counts = new int[countryCount];
+        for (ScoredCandidate candidate : top) {
+            if (++counts[candidate.countryId()] > limit / 2) {
+                return candidate.countryId();
+            }
+        }
+        return -1;
+    }
+
+    private static Comparator<ScoredCandidate> diversified(int dominant, int bonus) {
+        return (a, b) -> {
+            int adjustedA = a.score() + (a.countryId() != dominant ? bonus : 0);
+            int adjustedB = b.score() + (b.countryId() != dominant ? bonus : 0);
+            if (adjustedA != adjustedB) {
+                return Integer.compare(adjustedB, adjustedA);
+            }
+            return ScoredCandidate.RANK.compare(a, b);
+        };
+    }
+}
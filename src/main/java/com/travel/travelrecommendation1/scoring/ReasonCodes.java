@@ -0,0 +1,43 @@
+package com.travel.travelrecommendation1.scoring;
+
+/**
+ * Compact form of a recommendation's "reason" text. Scoring only sets bits
+ * (plus the interest match count kept next to them); the sentence is rendered
+ * for the handful of candidates that make the final top-K.
+ */
+public final class ReasonCodes {
+
+    public static final int FITS_DURATION = 1;
+    public static final int NOT_ENOUGH_TIME = 1 << 1;
+    public static final int PREFERRED_COUNTRY = 1 << 2;
+    public static final int EXACT_DURATION = 1 << 3;
+    public static final int OVER_BUDGET = 1 << 4;
+    public static final int FITS_BUDGET = 1 << 5;
+    public static final int UNDER_BUDGET = 1 << 6;
+
+    private ReasonCodes() {
+    }
+
+    /** Same text, in the same order, that scoring used to append per candidate. */
+    public static String render(int flags, int interestMatches, boolean diversityBonus) {
+        StringBuilder reason = new StringBuilder(128);
+        if ((flags & FITS_DURATION) != 0)
+            reason.append("Fits your duration. ");
+        if ((flags & NOT_ENOUGH_TIME) != 0)
+            reason.append("Not enough time. ");
+        if ((flags & PREFERRED_COUNTRY) != 0)
+            reason.append("In your preferred country. ");
+        if ((flags & EXACT_DURATION) != 0)
+            reason.append("Exact duration match. ");
+        if ((flags & OVER_BUDGET) != 0)
+            reason.append("Over budget. ");
+        if ((flags & FITS_BUDGET) != 0)
+            reason.append("Fits your budget range. ");
+        if ((flags & UNDER_BUDGET) != 0)
+            reason.append("Under budget. ");
+        if (interestMatches > 0)
+            reason.append("Matches ").append(interestMatches).append(" of your interests. ");
+        String text = reason.toString().trim();
+        return diversityBonus ? (text + " Diversity bonus.").trim() : text;
+    }
+}
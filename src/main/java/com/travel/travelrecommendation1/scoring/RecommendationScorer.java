@@ -0,0 +1,144 @@
+package com.travel.travelrecommendation1.scoring;
+
+import com.travel.travelrecommendation1.catalog.CatalogSnapshot;
+
+/**
+ * Scores one catalog row against a {@link ScoringQuery} and offers it to a
+ * {@link CandidateCollector} if it passes the hard filters (duration overlap,
+ * projected cost within budget, at least one interest, positive score).
+ */
+public final class RecommendationScorer {
+
+    /** Whether any of {@code rows} passes the hard filters for {@code query}, i.e. could be ranked. */
+    public boolean admitsAny(CatalogSnapshot catalog, int[] rows, ScoringQuery query) {
+        CandidateCollector collector = query.newCollector(catalog);
+        for (int row : rows) {
+            score(catalog, row, query, collector);
+        }
+        return !collector.ranked().isEmpty();
+    }
+
+    public void score(CatalogSnapshot catalog, int i, ScoringQuery query, CandidateCollector collector) {
+        ScoringRules rules = query.rules();
+        int duration = query.duration();
+        int destMinDuration = catalog.minDuration(i);
+        int destMaxDuration = catalog.maxDuration(i);
+        int score = 0;
+        // Reasons are recorded as flags and only rendered for the final top-K
+        int reason = 0;
+
+        // Duration match: User's max duration must be enough for at least the min
+        // duration of the trip
+        if (duration >= destMinDuration) {
+            score += rules.fitsDuration;
+            reason |= ReasonCodes.FITS_DURATION;
+        } else {
+            // Penalty only if duration is too short
+            int penalty = (destMinDuration - duration);
+            score += penalty * rules.notEnoughTimePerDay;
+            if (penalty > 0)
+                reason |= ReasonCodes.NOT_ENOUGH_TIME;
+        }
+        // Country match
+        if (query.countryRequested() && query.countryMatches(catalog.countryId(i))) {
+            score += rules.preferredCountry;
+            reason |= ReasonCodes.PREFERRED_COUNTRY;
+        }
+        // Dynamic Pricing & Duration Logic
+        // Daily rate (MinBudget / MinDuration) is precomputed by the catalog
+        double dailyRate = catalog.dailyRate(i);
+
+        // Determine valid duration overlap between User Request and Destination
+        // Availability. We CAP the duration at the destination's Max.
+        // e.g. Request 7 days. Dest Max 5 days -> We set validStart = 5.
+        int validStart = Math.max(duration, destMinDuration);
+        validStart = Math.min(validStart, destMaxDuration); // Apply Cap
+        int validEnd = Math.min(query.userMaxDuration(), destMaxDuration);
+
+        if (validStart > validEnd) {
+            collector.stats().addRejectedDuration(1);
+            return; // No duration overlap
+        }
+
+        // Exact Duration Match Bonus
+        // If we can provide exactly what the user asked for (didn't have to cap it),
+        // give a bonus.
+        if (validStart == duration) {
+            score += rules.exactDuration;
+            reason |= ReasonCodes.EXACT_DURATION;
+        }
+
+        // Calculate Projected Cost for the valid duration
+        int projectedCost = (int) (dailyRate * validStart);
+
+        // Strict Budget Filtering on the Projected Cost. Cheap trips are allowed;
+        // they are caught by the +1 scoring logic below.
+        int userMinBud = query.userMinBudget();
+        int userMaxBud = query.userMaxBudget();
+
+        if (projectedCost > userMaxBud) {
+            collector.stats().addRejectedBudget(1);
+            return; // Too expensive
+        }
+
+        // Valid! We strictly respect the requested duration (no upsell).
+        int displayPrice = projectedCost;
+
+        // Budget Scoring Logic (Range-Aware)
+        if (displayPrice > userMaxBud) {
+            score += rules.overBudget;
+            reason |= ReasonCodes.OVER_BUDGET;
+        } else if (displayPrice >= userMinBud) {
+            // In range [min, max] -> Perfect match
+            score += rules.fitsBudget;
+            reason |= ReasonCodes.FITS_BUDGET;
+        } else {
+            // Below min -> Acceptable but maybe too cheap
+            score += rules.underBudget;
+            reason |= ReasonCodes.UNDER_BUDGET;
+        }
+
+        // Interest overlap: Simple Match, points per shared interest (+2 by default)
+        int interestMatches = catalog.interestMatches(i, query.interestMask());
+        score += interestMatches * rules.perInterest;
+        // Only add if at least one interest matches and score > 0. The
+        // displayed values (price, duration) travel with the candidate; the
+        // catalog entry is shared, never copied.
+        int countryId = catalog.countryId(i);
+        if (interestMatches == 0) {
+            collector.stats().addRejectedInterest();
+        } else if (score <= 0) {
+            collector.stats().addRejectedScore();
+        } else if (collector.wouldAccept(countryId, score, i)) {
+            collector.offer(new ScoredCandidate(i, countryId, score, reason, interestMatches, displayPrice,
+                    validStart));
+        }
+    }
+
+    /**
+     * Row-major scan for a batch: every row is scored against all queries
+     * before moving on, so the catalog is read once for the whole batch.
+     * Past the deadline, checked as in {@link ScoringEngine}, every collector
+     * is marked partial and the scan stops.
+     */
+    public void scoreAll(CatalogSnapshot catalog, ScoringQuery[] queries, CandidateCollector[] collectors,
+            Deadline deadline) {
+        int scanned = 0;
+        for (; scanned < catalog.size(); scanned++) {
+            if (scanned >= ScoringEngine.CHECK_INTERVAL && scanned % ScoringEngine.CHECK_INTERVAL == 0
+                    && deadline.expired()) {
+                for (CandidateCollector collector : collectors) {
+                    collector.markPartial();
+                }
+                break;
+            }
+            for (int q = 0; q < queries.length; q++) {
+                score(catalog, scanned, queries[q], collectors[q]);
+            }
+        }
+        for (CandidateCollector collector : collectors) {
+            collector.stats().addScanned(scanned);
+            collector.stats().addSkippedDeadline(catalog.size() - scanned);
+        }
+    }
+}
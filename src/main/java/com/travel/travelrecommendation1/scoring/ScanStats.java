@@ -0,0 +1,81 @@
+package com.travel.travelrecommendation1.scoring;
+
+/**
+ * Per-request accounting of what happened to catalog rows: pruned by the
+ * range index or rejected by the scorer (by reason), scored, or left unscored
+ * when the deadline passed. Kept as plain ints on the collector and merged
+ * along with it.
+ */
+public final class ScanStats {
+
+    private int scanned;
+    private int rejectedDuration;
+    private int rejectedBudget;
+    private int rejectedInterest;
+    private int rejectedScore;
+    private int skippedDeadline;
+
+    /** Rows handed to the scorer. */
+    public int scanned() {
+        return scanned;
+    }
+
+    /** Rows without duration overlap, whether pruned by the index or the scorer. */
+    public int rejectedDuration() {
+        return rejectedDuration;
+    }
+
+    /** Rows whose projected cost exceeds the max budget. */
+    public int rejectedBudget() {
+        return rejectedBudget;
+    }
+
+    /** Feasible rows sharing no interest with the request. */
+    public int rejectedInterest() {
+        return rejectedInterest;
+    }
+
+    /** Rows with a matching interest but a score of zero or less. */
+    public int rejectedScore() {
+        return rejectedScore;
+    }
+
+    /** Feasible rows not scored because the deadline had passed. */
+    public int skippedDeadline() {
+        return skippedDeadline;
+    }
+
+    void addScanned(int rows) {
+        scanned += rows;
+    }
+
+    void addRejectedDuration(int rows) {
+        rejectedDuration += rows;
+    }
+
+    void addRejectedBudget(int rows) {
+        rejectedBudget += rows;
+    }
+
+    void addRejectedInterest() {
+        rejectedInterest++;
+    }
+
+    void addRejectedScore() {
+        rejectedScore++;
+    }
+
+    void addSkippedDeadline(int rows) {
+        skippedDeadline += rows;
+    }
+
+    /** Adds {@code other}'s counts to these, e.g. to total the shards of one request. */
+    public void merge(ScanStats other) {
+        scanned += other.scanned;
+        rejectedDuration += other.rejectedDuration;
+        rejectedBudget += other.rejectedBudget;
+        rejectedInterest += other.rejectedInterest;
+        rejectedScore += other.rejectedScore;
+        skippedDeadline += other.skippedDeadline;
+    }
+}
@@ -0,0 +1,81 @@
+package com.travel.travelrecommendation1.scoring;
+
+import java.util.Comparator;
+
+/**
+ * A destination that passed the hard filters of a request, with its score.
+ * {@code row} is the catalog row (id order) and breaks score ties, which keeps
+ * the ranking identical to a stable sort over the catalog. The price and trip
+ * length projected for the request are kept as ints; the catalog entry itself
+ * is looked up by row only when the candidate is rendered.
+ */
+public final class ScoredCandidate {
+
+    /** Best first: higher score, then earlier catalog row. */
+    public static final Comparator<ScoredCandidate> RANK = (a, b) -> a.score != b.score
+            ? Integer.compare(b.score, a.score)
+            : Integer.compare(a.row, b.row);
+
+    private final int row;
+    private final int countryId;
+    private final int score;
+    private final int reasonFlags;
+    private final int interestMatches;
+    private final int price;
+    private final int duration;
+    private boolean diversityBonus;
+
+    public ScoredCandidate(int row, int countryId, int score, int reasonFlags, int interestMatches, int price,
+            int duration) {
+        this.row = row;
+        this.countryId = countryId;
+        this.score = score;
+        this.reasonFlags = reasonFlags;
+        this.interestMatches = interestMatches;
+        this.price = price;
+        this.duration = duration;
+    }
+
+    public int row() {
+        return row;
+    }
+
+    public int countryId() {
+        return countryId;
+    }
+
+    public int score() {
+        return score;
+    }
+
+    /** Projected price for the requested trip. */
+    public int price() {
+        return price;
+    }
+
+    /** Projected trip length in days. */
+    public int duration() {
+        return duration;
+    }
+
+    public boolean hasDiversityBonus() {
+        return diversityBonus;
+    }
+
+    void setDiversityBonus(boolean diversityBonus) {
+        this.diversityBonus = diversityBonus;
+    }
+
+    public int reasonFlags() {
+        return reasonFlags;
+    }
+
+    public int interestMatches() {
+        return interestMatches;
+    }
+
+    /** Human-readable reason; built on demand, see {@link ReasonCodes}. */
+    public String reason() {
+        return ReasonCodes.render(reasonFlags, interestMatches, diversityBonus);
+    }
+}
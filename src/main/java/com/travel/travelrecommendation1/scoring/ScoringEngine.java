@@ -0,0 +1,175 @@
+package com.travel.travelrecommendation1.scoring;
+
+import com.travel.travelrecommendation1.catalog.BudgetDurationIndex;
+import com.travel.travelrecommendation1.catalog.CatalogSnapshot;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Runs a {@link ScoringQuery} over a catalog snapshot.
+ *
+ * Requests whose feasible rows (after range-index pruning) stay below
+ * {@code recommendation.scoring.parallel-threshold} are scored sequentially on
+ * the calling thread. Larger ones are split into chunks on a dedicated
+ * fork/join pool; each chunk fills its own bounded collector and the results
+ * are merged. Because ranking ties are broken by catalog row, the parallel
+ * output is identical to the sequential one.
+ *
+ * With a bounded {@link Deadline} the clock is checked every
+ * {@link #CHECK_INTERVAL} rows; when it has passed, scoring stops and the
+ * collector holds the best candidates among the rows scored so far and is
+ * marked {@link CandidateCollector#partial() partial}. The first
+ * {@code CHECK_INTERVAL} rows are always scored, so a late request still gets
+ * an answer.
+ *
+ * The engine also holds the current {@link ScoringRules}. Callers read them
+ * once per request into the {@link ScoringQuery}, so swapping them (see
+ * {@code RuleEngine}) never changes the rules under a running request.
+ */
+@Component
+public class ScoringEngine {
+
+    public static final int CHECK_INTERVAL = 1024;
+
+    private final RecommendationScorer scorer;
+    private final ForkJoinPool pool;
+    private final int parallelThreshold;
+    private final int chunkSize;
+    private final AtomicReference<ScoringRules> rules = new AtomicReference<>(ScoringRules.DEFAULT);
+
+    @Autowired
+    public ScoringEngine(@Value("${recommendation.scoring.parallel-enabled:true}") boolean parallelEnabled,
+            @Value("${recommendation.scoring.parallelism:0}") int parallelism,
+            @Value("${recommendation.scoring.parallel-threshold:50000}") int parallelThreshold,
+            @Value("${recommendation.scoring.chunk-size:16384}") int chunkSize) {
+        this.scorer = new RecommendationScorer();
+        this.pool = parallelEnabled
+                ? new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors())
+                : null;
+        this.parallelThreshold = parallelThreshold;
+        this.chunkSize = Math.max(chunkSize, 1);
+    }
+
+    /** Sequential-only engine. */
+    public static ScoringEngine sequential() {
+        return new ScoringEngine(false, 0, Integer.MAX_VALUE, Integer.MAX_VALUE);
+    }
+
+    public RecommendationScorer scorer() {
+        return scorer;
+    }
+
+    public ScoringRules rules() {
+        return rules.get();
+    }
+
+    public void setRules(ScoringRules rules) {
+        this.rules.set(rules);
+    }
+
+    public CandidateCollector score(CatalogSnapshot catalog, ScoringQuery query) {
+        return score(catalog, query, Deadline.NONE);
+    }
+
+    public CandidateCollector score(CatalogSnapshot catalog, ScoringQuery query, Deadline deadline) {
+        BudgetDurationIndex index = catalog.budgetDurationIndex();
+        int feasible = index.countCandidates(query.duration(), query.userMaxDuration(), query.userMaxBudget());
+        CandidateCollector collector;
+        if (pool == null || feasible < parallelThreshold) {
+            CandidateCollector sequential = query.newCollector(catalog);
+            if (deadline.isBounded()) {
+                int scanned = scoreUntil(catalog, query, index, sequential, deadline);
+                sequential.stats().addScanned(scanned);
+                sequential.stats().addSkippedDeadline(feasible - scanned);
+            } else {
+                index.forEachCandidate(query.duration(), query.userMaxDuration(), query.userMaxBudget(),
+                        row -> scorer.score(catalog, row, query, sequential));
+                sequential.stats().addScanned(feasible);
+            }
+            collector = sequential;
+        } else {
+            int[] rows = index.candidateRows(query.duration(), query.userMaxDuration(), query.userMaxBudget());
+            collector = pool.invoke(new ChunkTask(catalog, query, deadline, rows, 0, rows.length));
+        }
+        // Account for the rows the index pruned without scoring them
+        int durationFeasible = index.countDurationFeasible(query.duration(), query.userMaxDuration());
+        collector.stats().addRejectedDuration(catalog.size() - durationFeasible);
+        collector.stats().addRejectedBudget(durationFeasible - feasible);
+        return collector;
+    }
+
+    private int scoreUntil(CatalogSnapshot catalog, ScoringQuery query, BudgetDurationIndex index,
+            CandidateCollector collector, Deadline deadline) {
+        int[] scored = new int[1];
+        index.forEachCandidateWhile(query.duration(), query.userMaxDuration(), query.userMaxBudget(), row -> {
+            if (scored[0] >= CHECK_INTERVAL && scored[0] % CHECK_INTERVAL == 0 && deadline.expired()) {
+                collector.markPartial();
+                return false;
+            }
+            scorer.score(catalog, row, query, collector);
+            scored[0]++;
+            return true;
+        });
+        return scored[0];
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (pool != null) {
+            pool.shutdown();
+        }
+    }
+
+    private final class ChunkTask extends RecursiveTask<CandidateCollector> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final CatalogSnapshot catalog;
+        private final ScoringQuery query;
+        private final Deadline deadline;
+        private final int[] rows;
+        private final int from;
+        private final int to;
+
+        ChunkTask(CatalogSnapshot catalog, ScoringQuery query, Deadline deadline, int[] rows, int from, int to) {
+            this.catalog = catalog;
+            this.query = query;
+            this.deadline = deadline;
+            this.rows = rows;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected CandidateCollector compute() {
+            if (to - from <= chunkSize) {
+                CandidateCollector collector = query.newCollector(catalog);
+                int slot = from;
+                for (; slot < to; slot++) {
+                    // On entry and every CHECK_INTERVAL rows, except in the
+                    // first CHECK_INTERVAL rows overall, which are always scored
+                    if (slot >= CHECK_INTERVAL && (slot - from) % CHECK_INTERVAL == 0 && deadline.expired()) {
+                        collector.markPartial();
+                        break;
+                    }
+                    scorer.score(catalog, rows[slot], query, collector);
+                }
+                collector.stats().addScanned(slot - from);
+                collector.stats().addSkippedDeadline(to - slot);
+                return collector;
+            }
+            int mid = (from + to) >>> 1;
+            ChunkTask right = new ChunkTask(catalog, query, deadline, rows, mid, to);
+            right.fork();
+            CandidateCollector collector = new ChunkTask(catalog, query, deadline, rows, from, mid).compute();
+            collector.merge(right.join());
+            return collector;
+        }
+    }
+}
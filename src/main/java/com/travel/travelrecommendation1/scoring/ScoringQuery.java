@@ -0,0 +1,95 @@
+package com.travel.travelrecommendation1.scoring;
+
+import com.travel.travelrecommendation1.catalog.CatalogSnapshot;
+import com.travel.travelrecommendation1.dto.RecommendationRequest;
+
+/**
+ * A {@link RecommendationRequest} resolved against one catalog snapshot:
+ * defaults applied, interests encoded as a mask and the country filter
+ * turned into a per-country-id lookup, so scoring a row needs no boxing,
+ * String comparison or collection access.
+ */
+public final class ScoringQuery {
+
+    private final int duration;
+    private final int userMaxDuration;
+    private final int userMinBudget;
+    private final int userMaxBudget;
+    private final boolean countryRequested;
+    private final boolean[] countryMatches;
+    private final long[] interestMask;
+    private final int limit;
+    private final ScoringRules rules;
+
+    private ScoringQuery(RecommendationRequest request, CatalogSnapshot catalog, ScoringRules rules) {
+        String country = request.getCountry();
+        this.duration = request.getDuration();
+        this.userMaxDuration = request.getMaxDuration() != null ? request.getMaxDuration() : Integer.MAX_VALUE;
+        this.userMinBudget = request.getMinBudget() != null ? request.getMinBudget() : 0;
+        this.userMaxBudget = request.getMaxBudget() != null ? request.getMaxBudget() : Integer.MAX_VALUE;
+        this.countryRequested = country != null && !country.isEmpty();
+        this.countryMatches = new boolean[catalog.countryCount()];
+        if (countryRequested) {
+            for (int id = 0; id < countryMatches.length; id++) {
+                countryMatches[id] = country.equalsIgnoreCase(catalog.countryName(id));
+            }
+        }
+        this.interestMask = catalog.interests().mask(request.getInterests());
+        this.limit = request.getLimit() != null ? request.getLimit() : 10;
+        this.rules = rules;
+    }
+
+    /** Query scored with {@link ScoringRules#DEFAULT}. */
+    public static ScoringQuery of(RecommendationRequest request, CatalogSnapshot catalog) {
+        return new ScoringQuery(request, catalog, ScoringRules.DEFAULT);
+    }
+
+    public static ScoringQuery of(RecommendationRequest request, CatalogSnapshot catalog, ScoringRules rules) {
+        return new ScoringQuery(request, catalog, rules);
+    }
+
+    public int duration() {
+        return duration;
+    }
+
+    public int userMaxDuration() {
+        return userMaxDuration;
+    }
+
+    public int userMinBudget() {
+        return userMinBudget;
+    }
+
+    public int userMaxBudget() {
+        return userMaxBudget;
+    }
+
+    public boolean countryRequested() {
+        return countryRequested;
+    }
+
+    public boolean countryMatches(int countryId) {
+        return countryMatches[countryId];
+    }
+
+    public long[] interestMask() {
+        return interestMask;
+    }
+
+    public int limit() {
+        return limit;
+    }
+
+    public ScoringRules rules() {
+        return rules;
+    }
+
+    /** Diversity re-ranking only applies when no specific country was requested. */
+    public boolean diversify() {
+        return !countryRequested && rules.diversityEnabled();
+    }
+
+    public CandidateCollector newCollector(CatalogSnapshot catalog) {
+        return new CandidateCollector(limit, diversify(), catalog.countryCount(), rules.diversity);
+    }
+}
@@ -0,0 +1,102 @@
+package com.travel.travelrecommendation1.scoring;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * The scoring weights, compiled from a declarative rule table (rule name to
+ * points, see {@code scoring-rules.properties}). Names are resolved and
+ * values parsed once in {@link #compile}; the scorer reads plain final fields
+ * per candidate. Instances are immutable and carry a version so results
+ * computed under different rules never mix.
+ */
+public final class ScoringRules {
+
+    public static final String FITS_DURATION = "fits-duration";
+    public static final String NOT_ENOUGH_TIME_PER_DAY = "not-enough-time-per-day";
+    public static final String PREFERRED_COUNTRY = "preferred-country";
+    public static final String EXACT_DURATION = "exact-duration";
+    public static final String OVER_BUDGET = "over-budget";
+    public static final String FITS_BUDGET = "fits-budget";
+    public static final String UNDER_BUDGET = "under-budget";
+    public static final String PER_INTEREST = "per-interest";
+    public static final String DIVERSITY = "diversity";
+
+    /** The weights the service has always used. */
+    public static final ScoringRules DEFAULT = new ScoringRules(0, 2, -1, 100, 1, -2, 3, 1, 2, 1);
+
+    private final long version;
+    final int fitsDuration;
+    final int notEnoughTimePerDay;
+    final int preferredCountry;
+    final int exactDuration;
+    final int overBudget;
+    final int fitsBudget;
+    final int underBudget;
+    final int perInterest;
+    final int diversity;
+
+    private ScoringRules(long version, int fitsDuration, int notEnoughTimePerDay, int preferredCountry,
+            int exactDuration, int overBudget, int fitsBudget, int underBudget, int perInterest, int diversity) {
+        this.version = version;
+        this.fitsDuration = fitsDuration;
+        this.notEnoughTimePerDay = notEnoughTimePerDay;
+        this.preferredCountry = preferredCountry;
+        this.exactDuration = exactDuration;
+        this.overBudget = overBudget;
+        this.fitsBudget = fitsBudget;
+        this.underBudget = underBudget;
+        this.perInterest = perInterest;
+        this.diversity = diversity;
+    }
+
+    /**
+     * Compiles a rule table. Rules left out keep their {@link #DEFAULT} weight.
+     *
+     * @throws IllegalArgumentException on an unknown rule name or a weight that is not an integer
+     */
+    public static ScoringRules compile(long version, Properties table) {
+        Map<String, Integer> weights = DEFAULT.weights();
+        for (String name : table.stringPropertyNames()) {
+            String rule = name.trim();
+            if (!weights.containsKey(rule)) {
+                throw new IllegalArgumentException("Unknown scoring rule '" + rule + "'");
+            }
+            String value = table.getProperty(name).trim();
+            try {
+                weights.put(rule, Integer.parseInt(value));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Weight of scoring rule '" + rule + "' is not an integer: " + value);
+            }
+        }
+        return new ScoringRules(version, weights.get(FITS_DURATION), weights.get(NOT_ENOUGH_TIME_PER_DAY),
+                weights.get(PREFERRED_COUNTRY), weights.get(EXACT_DURATION), weights.get(OVER_BUDGET),
+                weights.get(FITS_BUDGET), weights.get(UNDER_BUDGET), weights.get(PER_INTEREST),
+                weights.get(DIVERSITY));
+    }
+
+    public long version() {
+        return version;
+    }
+
+    /** Rule name to weight, in rule order. */
+    public Map<String, Integer> weights() {
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        weights.put(FITS_DURATION, fitsDuration);
+        weights.put(NOT_ENOUGH_TIME_PER_DAY, notEnoughTimePerDay);
+        weights.put(PREFERRED_COUNTRY, preferredCountry);
+        weights.put(EXACT_DURATION, exactDuration);
+        weights.put(OVER_BUDGET, overBudget);
+        weights.put(FITS_BUDGET, fitsBudget);
+        weights.put(UNDER_BUDGET, underBudget);
+        weights.put(PER_INTEREST, perInterest);
+        weights.put(DIVERSITY, diversity);
+        return weights;
+    }
+
+    /** A zero diversity weight turns the re-rank off altogether. */
+    public boolean diversityEnabled() {
+        return diversity != 0;
+    }
+}
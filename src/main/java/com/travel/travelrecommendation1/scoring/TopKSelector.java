@@ -0,0 +1,103 @@
+package com.travel.travelrecommendation1.scoring;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+
+/**
+ * Keeps the best {@code capacity} candidates seen so far in a bounded heap
+ * whose head is the worst retained one, so each offer is O(log k) and a
+ * candidate that cannot make the cut is rejected with a single comparison.
+ */
+public final class TopKSelector {
+
+    private final int capacity;
+    private final Comparator<ScoredCandidate> order;
+    private final PriorityQueue<ScoredCandidate> heap;
+
+    public TopKSelector(int capacity, Comparator<ScoredCandidate> order) {
+        this.capacity = Math.max(capacity, 0);
+        this.order = order;
+        this.heap = new PriorityQueue<>(Math.min(this.capacity, 64) + 1, order.reversed());
+    }
+
+    public boolean offer(ScoredCandidate candidate) {
+        if (capacity == 0) {
+            return false;
+        }
+        if (heap.size() < capacity) {
+            heap.add(candidate);
+            return true;
+        }
+        if (order.compare(candidate, heap.peek()) < 0) {
+            heap.poll();
+            heap.add(candidate);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Whether a candidate with this score and row would be kept, for selectors
+     * ordered by {@link ScoredCandidate#RANK}. Lets callers skip allocating
+     * candidates that would be rejected anyway.
+     */
+    public boolean wouldAccept(int score, int row) {
+        if (heap.size() < capacity) {
+            return true;
+        }
+        if (capacity == 0) {
+            return false;
+        }
+        ScoredCandidate worst = heap.peek();
+        return score > worst.score() || (score == worst.score() && row < worst.row());
+    }
+
+    public int size() {
+        return heap.size();
+    }
+
+    public void addTo(List<ScoredCandidate> target) {
+        target.addAll(heap);
+    }
+
+    /** Retained candidates, best first. */
+    public List<ScoredCandidate> toSortedList() {
+        List<ScoredCandidate> sorted = new ArrayList<>(heap);
+        sorted.sort(order);
+        return sorted;
+    }
+
+    /**
+     * Retained candidates, best first, taken out of the selector: it is empty
+     * afterwards, and each candidate is let go once the iterator has passed it.
+     */
+    public Iterator<ScoredCandidate> drain() {
+        ScoredCandidate[] sorted = new ScoredCandidate[heap.size()];
+        // The head is the worst retained candidate, so fill from the back
+        for (int i = sorted.length - 1; i >= 0; i--) {
+            sorted[i] = heap.poll();
+        }
+        return new Iterator<>() {
+            private int next;
+
+            @Override
+            public boolean hasNext() {
+                return next < sorted.length;
+            }
+
+            @Override
+            public ScoredCandidate next() {
+                if (next >= sorted.length) {
+                    throw new NoSuchElementException();
+                }
+                ScoredCandidate candidate = sorted[next];
+                sorted[next++] = null;
+                return candidate;
+            }
+        };
+    }
+}
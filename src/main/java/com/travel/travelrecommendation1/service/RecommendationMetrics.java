@@ -0,0 +1,163 @@
+package com.travel.travelrecommendation1.service;
+
+import com.travel.travelrecommendation1.catalog.CatalogUpdatedEvent;
+import com.travel.travelrecommendation1.dto.RecommendationRequest;
+import com.travel.travelrecommendation1.scoring.ScanStats;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Meters for the recommendation pipeline, all under /actuator/metrics:
+ * <ul>
+ * <li>{@code recommendation.stage} timer per stage (score, rank, render) and
+ * {@code recommendation.catalog.load} for snapshot loads;</li>
+ * <li>{@code recommendation.request} timer tagged with the request shape, and
+ * {@code recommendation.batch} for whole batches with their
+ * {@code recommendation.batch.size};</li>
+ * <li>{@code recommendation.request.candidates} per-request distribution of
+ * loaded, rejected (by duration, budget, interest, score), deadline-skipped
+ * and returned rows;</li>
+ * <li>{@code recommendation.candidates} running totals of pruned, scored and
+ * deadline-skipped rows;</li>
+ * <li>{@code recommendation.partial} responses cut short by their deadline.</li>
+ * </ul>
+ * Timers publish percentile histograms so p99 can be read per stage. In
+ * sharded mode the rows are those the shards scanned, counted once; the
+ * coordinator's re-score of the gathered candidates is not counted again.
+ * Remote shards count their rows on their own instance.
+ */
+@Component
+public class RecommendationMetrics {
+
+    public enum Stage {
+        SCORE, RANK, RENDER
+    }
+
+    private final MeterRegistry registry;
+    private final Map<Stage, Timer> stageTimers = new EnumMap<>(Stage.class);
+    private final Map<String, Timer> requestTimers = new ConcurrentHashMap<>();
+    private final Timer batchTimer;
+    private final DistributionSummary batchSize;
+    private final Timer catalogLoad;
+    private final AtomicLong catalogSize = new AtomicLong();
+    private final AtomicLong catalogVersion = new AtomicLong();
+    private final Counter prunedCandidates;
+    private final Counter scoredCandidates;
+    private final Counter skippedCandidates;
+    private final Counter partialResponses;
+    private final DistributionSummary loaded;
+    private final DistributionSummary rejectedDuration;
+    private final DistributionSummary rejectedBudget;
+    private final DistributionSummary rejectedInterest;
+    private final DistributionSummary rejectedScore;
+    private final DistributionSummary skippedDeadline;
+    private final DistributionSummary returned;
+
+    @Autowired
+    public RecommendationMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        for (Stage stage : Stage.values()) {
+            stageTimers.put(stage, Timer.builder("recommendation.stage")
+                    .tag("stage", stage.name().toLowerCase())
+                    .publishPercentileHistogram()
+                    .register(registry));
+        }
+        this.batchTimer = Timer.builder("recommendation.batch").publishPercentileHistogram().register(registry);
+        this.batchSize = DistributionSummary.builder("recommendation.batch.size").register(registry);
+        this.catalogLoad = Timer.builder("recommendation.catalog.load").register(registry);
+        Gauge.builder("recommendation.catalog.size", catalogSize, AtomicLong::get).register(registry);
+        Gauge.builder("recommendation.catalog.version", catalogVersion, AtomicLong::get).register(registry);
+        // Rows skipped by the range index vs rows handed to the scorer vs
+        // feasible rows the deadline left unscored
+        this.prunedCandidates = Counter.builder("recommendation.candidates").tag("outcome", "pruned")
+                .register(registry);
+        this.scoredCandidates = Counter.builder("recommendation.candidates").tag("outcome", "scored")
+                .register(registry);
+        this.skippedCandidates = Counter.builder("recommendation.candidates").tag("outcome", "deadline_skipped")
+                .register(registry);
+        this.partialResponses = Counter.builder("recommendation.partial").register(registry);
+        this.loaded = candidates("loaded");
+        this.rejectedDuration = candidates("rejected_duration");
+        this.rejectedBudget = candidates("rejected_budget");
+        this.rejectedInterest = candidates("rejected_interest");
+        this.rejectedScore = candidates("rejected_score");
+        this.skippedDeadline = candidates("skipped_deadline");
+        this.returned = candidates("returned");
+    }
+
+    private DistributionSummary candidates(String outcome) {
+        return DistributionSummary.builder("recommendation.request.candidates")
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+
+    public void recordStage(Stage stage, long nanos) {
+        stageTimers.get(stage).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordRequest(RecommendationRequest request, long nanos) {
+        String shape = shape(request);
+        requestTimers.computeIfAbsent(shape, this::requestTimer).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordBatch(int requests, long nanos) {
+        batchTimer.record(nanos, TimeUnit.NANOSECONDS);
+        batchSize.record(requests);
+    }
+
+    public void recordCandidates(int catalogRows, ScanStats stats, int returnedRows) {
+        prunedCandidates.increment(catalogRows - stats.scanned() - stats.skippedDeadline());
+        scoredCandidates.increment(stats.scanned());
+        skippedCandidates.increment(stats.skippedDeadline());
+        loaded.record(catalogRows);
+        rejectedDuration.record(stats.rejectedDuration());
+        rejectedBudget.record(stats.rejectedBudget());
+        rejectedInterest.record(stats.rejectedInterest());
+        rejectedScore.record(stats.rejectedScore());
+        skippedDeadline.record(stats.skippedDeadline());
+        returned.record(returnedRows);
+    }
+
+    public void recordPartial() {
+        partialResponses.increment();
+    }
+
+    @EventListener
+    public void onCatalogUpdated(CatalogUpdatedEvent event) {
+        catalogLoad.record(event.getLoadNanos(), TimeUnit.NANOSECONDS);
+        catalogSize.set(event.getSnapshot().size());
+        catalogVersion.set(event.getVersion());
+    }
+
+    // Low-cardinality request shape: country filter, one vs several
+    // interests, default vs large limit
+    private static String shape(RecommendationRequest request) {
+        boolean country = request.getCountry() != null && !request.getCountry().isEmpty();
+        boolean multiInterest = request.getInterests() != null && request.getInterests().size() > 1;
+        boolean largeLimit = request.getLimit() != null && request.getLimit() > 10;
+        return (country ? "country" : "any") + "|" + (multiInterest ? "multi" : "single") + "|"
+                + (largeLimit ? "large" : "default");
+    }
+
+    private Timer requestTimer(String shape) {
+        String[] parts = shape.split("\\|");
+        return Timer.builder("recommendation.request")
+                .tag("country", parts[0])
+                .tag("interests", parts[1])
+                .tag("limit", parts[2])
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+}
@@ -1,13 +1,27 @@
 package com.travel.travelrecommendation1.service;
 
+import com.travel.travelrecommendation1.cache.EncodedJson;
+import com.travel.travelrecommendation1.dto.DestinationPage;
+import com.travel.travelrecommendation1.dto.DestinationSummary;
 import com.travel.travelrecommendation1.dto.RecommendationRequest;
 import com.travel.travelrecommendation1.dto.RecommendationResponse;
 import com.travel.travelrecommendation1.model.Destination;
+import com.travel.travelrecommendation1.scoring.Deadline;
 
+import java.io.IOException;
 import java.util.List;
 
 public interface RecommendationService {
     RecommendationResponse getRecommendations(RecommendationRequest request);
-    List<Destination> getAllDestinations();
-    Destination getDestinationById(Long id);
+    RecommendationResponse getRecommendations(RecommendationRequest request, Deadline deadline);
+    // Streaming variant for large limits: the ranking is computed in full, then
+    // rendered and handed to the sink one result at a time, best first
+    void streamRecommendations(RecommendationRequest request, Deadline deadline, RecommendationSink sink)
+            throws IOException;
+    List<RecommendationResponse> getBatchRecommendations(List<RecommendationRequest> requests);
+    List<RecommendationResponse> getBatchRecommendations(List<RecommendationRequest> requests, Deadline deadline);
+    // Read endpoints: the value with its JSON, pre-encoded once per cached entry
+    EncodedJson<DestinationPage> getDestinations(Long after, int size);
+    EncodedJson<Destination> getDestinationById(Long id);
+    List<DestinationSummary> getTopRatedDestinations(int size);
 }
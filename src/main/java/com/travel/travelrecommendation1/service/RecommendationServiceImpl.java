@@ -1,251 +1,356 @@
 package com.travel.travelrecommendation1.service;
 
+import com.travel.travelrecommendation1.cache.DestinationCache;
+import com.travel.travelrecommendation1.cache.EncodedJson;
+import com.travel.travelrecommendation1.cache.RecommendationCache;
+import com.travel.travelrecommendation1.cache.RecommendationCacheKey;
+import com.travel.travelrecommendation1.cache.RequestCoalescer;
+import com.travel.travelrecommendation1.catalog.CatalogSnapshot;
+import com.travel.travelrecommendation1.catalog.DestinationCatalog;
+import com.travel.travelrecommendation1.dto.DestinationPage;
+import com.travel.travelrecommendation1.dto.DestinationSummary;
 import com.travel.travelrecommendation1.dto.RecommendationRequest;
 import com.travel.travelrecommendation1.dto.RecommendationResponse;
 import com.travel.travelrecommendation1.dto.RecommendationWithReason;
+import com.travel.travelrecommendation1.dto.RecommendedDestination;
 import com.travel.travelrecommendation1.model.Destination;
 import com.travel.travelrecommendation1.repository.DestinationRepository;
+import com.travel.travelrecommendation1.scoring.CandidateCollector;
+import com.travel.travelrecommendation1.scoring.Deadline;
+import com.travel.travelrecommendation1.scoring.ScoredCandidate;
+import com.travel.travelrecommendation1.scoring.ScoringEngine;
+import com.travel.travelrecommendation1.scoring.ScoringQuery;
+import com.travel.travelrecommendation1.scoring.ScoringRules;
+import com.travel.travelrecommendation1.shard.ShardCoordinator;
+import com.travel.travelrecommendation1.shard.ShardResult;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Comparator;
-import java.util.HashMap;
-import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
 import java.util.Set;
 
 @Service
 public class RecommendationServiceImpl implements RecommendationService {
 
     private final DestinationRepository destinationRepository;
+    private final DestinationCatalog destinationCatalog;
+    private final RecommendationCache recommendationCache;
+    private final RequestCoalescer requestCoalescer;
+    private final DestinationCache destinationCache;
+    private final ScoringEngine scoringEngine;
+    private final RecommendationMetrics metrics;
+    private final ShardCoordinator shardCoordinator;
+    // "database": the hard filters run in SQL and only feasible rows are
+    // scored, for catalogs too big to hold in the JVM
+    private final boolean databaseFiltering;
 
     @Autowired
-    public RecommendationServiceImpl(DestinationRepository destinationRepository) {
+    public RecommendationServiceImpl(DestinationRepository destinationRepository,
+            DestinationCatalog destinationCatalog, RecommendationCache recommendationCache,
+            RequestCoalescer requestCoalescer, DestinationCache destinationCache, ScoringEngine scoringEngine,
+            RecommendationMetrics metrics, ShardCoordinator shardCoordinator,
+            @Value("${recommendation.scoring.mode:memory}") String scoringMode) {
         this.destinationRepository = destinationRepository;
+        this.destinationCatalog = destinationCatalog;
+        this.recommendationCache = recommendationCache;
+        this.requestCoalescer = requestCoalescer;
+        this.destinationCache = destinationCache;
+        this.scoringEngine = scoringEngine;
+        this.metrics = metrics;
+        this.shardCoordinator = shardCoordinator;
+        this.databaseFiltering = "database".equalsIgnoreCase(scoringMode.trim());
+    }
+
+    // The in-memory catalog is only loaded up front when scoring runs against it
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (!databaseFiltering && !shardCoordinator.isRemote()) {
+            destinationCatalog.snapshot();
+        }
     }
 
     @Override
     public RecommendationResponse getRecommendations(RecommendationRequest request) {
-        List<Destination> allDestinations = destinationRepository.findAll();
-        List<String> userInterests = request.getInterests();
-        Integer budget = request.getBudget();
-        Integer duration = request.getDuration();
-        String country = request.getCountry();
-        Integer minBudget = request.getMinBudget();
-        Integer maxBudget = request.getMaxBudget();
-        Integer minDuration = request.getMinDuration();
-        Integer maxDuration = request.getMaxDuration();
-        Integer limit = request.getLimit() != null ? request.getLimit() : 10;
-
-        // Count interest priorities (repeats = higher priority)
-        // Interest priority logic removed - User interface only supports single
-        // selection.
-
-        class ScoredDestination {
-            Destination destination;
-            int score;
-            String reason;
-            String country;
-
-            ScoredDestination(Destination d, int s, String r) {
-                destination = d;
-                score = s;
-                reason = r;
-                country = d.getCountry();
-            }
+        return getRecommendations(request, Deadline.NONE);
+    }
+
+    // Past the deadline scoring stops early; such partial responses are not cached
+    @Override
+    public RecommendationResponse getRecommendations(RecommendationRequest request, Deadline deadline) {
+        long start = System.nanoTime();
+        // One rule set for the whole request, even if the rules are swapped meanwhile
+        ScoringRules rules = scoringEngine.rules();
+        RecommendationResponse response;
+        if (databaseFiltering) {
+            // No snapshot; keyed on the polled table version instead
+            RecommendationCacheKey key = RecommendationCacheKey.of(request, destinationCatalog.tableVersion(), rules);
+            response = recommendationCache.get(key,
+                    () -> requestCoalescer.get(key, deadline, () -> computeFromDatabase(request, rules, deadline)));
+        } else if (shardCoordinator.isEnabled()) {
+            RecommendationCacheKey key = RecommendationCacheKey.of(request, shardCoordinator.version(), rules);
+            response = recommendationCache.get(key,
+                    () -> requestCoalescer.get(key, deadline, () -> computeSharded(request, rules, deadline)));
+        } else {
+            // Score against the in-memory snapshot instead of hitting the database
+            CatalogSnapshot catalog = destinationCatalog.snapshot();
+            RecommendationCacheKey key = RecommendationCacheKey.of(request, catalog.version(), rules);
+            // On a miss, identical requests already being scored are joined
+            response = recommendationCache.get(key,
+                    () -> requestCoalescer.get(key, deadline,
+                            () -> computeRecommendations(catalog, request, rules, deadline)));
         }
-        List<ScoredDestination> scoredList = new ArrayList<>();
-        for (Destination dest : allDestinations) {
-            int score = 0;
-            StringBuilder reason = new StringBuilder();
-            // Old budget match logic removed - moving to post-calculation
-
-            // Duration match: User's max duration must be enough for at least the min
-            // duration of the trip
-            if (duration >= dest.getMinDuration()) {
-                score += 2;
-                reason.append("Fits your duration. ");
-            } else {
-                // Penalty only if duration is too short
-                int penalty = (dest.getMinDuration() - duration);
-                score -= penalty;
-                if (penalty > 0)
-                    reason.append("Not enough time. ");
+        metrics.recordRequest(request, System.nanoTime() - start);
+        return response;
+    }
+
+    // Same ranking as getRecommendations, handed to the sink one result at a
+    // time instead of as a response. A cached response is replayed, but what
+    // is scored here is not cached or coalesced: streams are meant for large
+    // limits, and holding those rendered would defeat the point.
+    @Override
+    public void streamRecommendations(RecommendationRequest request, Deadline deadline, RecommendationSink sink)
+            throws IOException {
+        long start = System.nanoTime();
+        ScoringRules rules = scoringEngine.rules();
+        CatalogSnapshot catalog = databaseFiltering || shardCoordinator.isEnabled() ? null
+                : destinationCatalog.snapshot();
+        long version = catalog != null ? catalog.version()
+                : databaseFiltering ? destinationCatalog.tableVersion() : shardCoordinator.version();
+        RecommendationResponse cached = recommendationCache.getIfPresent(
+                RecommendationCacheKey.of(request, version, rules));
+        if (cached != null) {
+            sink.start(cached.isPartial());
+            for (RecommendationWithReason recommendation : cached.getRecommendations()) {
+                sink.accept(recommendation);
+            }
+        } else {
+            ShardResult gathered = null;
+            if (databaseFiltering) {
+                catalog = feasibleRows(request);
+            } else if (catalog == null) {
+                gathered = shardCoordinator.search(request, rules, deadline);
+                catalog = CatalogSnapshot.of(0L, gathered.getCandidates());
+                deadline = Deadline.NONE;
             }
-            // Country match
-            if (country != null && !country.isEmpty() && dest.getCountry().equalsIgnoreCase(country)) {
-                score += 100;
-                reason.append("In your preferred country. ");
+            long scoreStart = System.nanoTime();
+            CandidateCollector collector = scoringEngine.score(catalog, ScoringQuery.of(request, catalog, rules),
+                    deadline);
+            long scored = System.nanoTime();
+            metrics.recordStage(RecommendationMetrics.Stage.SCORE, scored - scoreStart);
+            boolean partial = (gathered != null && gathered.isPartial()) || collector.partial();
+            if (partial) {
+                metrics.recordPartial();
             }
-            // Dynamic Pricing & Duration Logic
-            // Calculate daily rate (MinBudget / MinDuration)
-            double dailyRate = (double) dest.getMinBudget() / (dest.getMinDuration() > 0 ? dest.getMinDuration() : 1);
 
-            // Determine valid duration overlap between User Request and Destination
-            // Availability
-            int userMinDur = (minDuration != null) ? minDuration : 0;
-            int userMaxDur = (maxDuration != null) ? maxDuration : Integer.MAX_VALUE;
+            // Results are taken from the collector in rank order and each is
+            // rendered as it is written, so no ranked list or response is built
+            Iterator<ScoredCandidate> ranked = collector.drainRanked();
+            metrics.recordStage(RecommendationMetrics.Stage.RANK, System.nanoTime() - scored);
+            sink.start(partial);
+            int returned = 0;
+            while (ranked.hasNext()) {
+                sink.accept(render(catalog, ranked.next()));
+                returned++;
+            }
+            if (gathered != null) {
+                recordShardCandidates(gathered, returned);
+            } else {
+                metrics.recordCandidates(catalog.size(), collector.stats(), returned);
+            }
+        }
+        metrics.recordRequest(request, System.nanoTime() - start);
+    }
 
-            // Intersection of [userMin, userMax] and [destMin, destMax]
+    // Let the database prune to the feasible rows, then score those as a
+    // throwaway snapshot. Rows come back ordered by id, so ties break the
+    // same way as against the full catalog.
+    private RecommendationResponse computeFromDatabase(RecommendationRequest request, ScoringRules rules,
+            Deadline deadline) {
+        return computeRecommendations(feasibleRows(request), request, rules, deadline);
+    }
 
-            // FIX: If specific duration requested, prioritize it
-            int targetDuration = (duration != null) ? duration : dest.getMinDuration();
+    private CatalogSnapshot feasibleRows(RecommendationRequest request) {
+        Set<String> interests = Destination.parseInterests(
+                request.getInterests() != null ? String.join(",", request.getInterests()) : null);
+        List<Destination> rows = interests.isEmpty() ? List.of()
+                : destinationRepository.findFeasible(request.getDuration(),
+                        request.getMaxDuration() != null ? request.getMaxDuration() : Integer.MAX_VALUE,
+                        request.getMaxBudget() != null ? request.getMaxBudget() : Integer.MAX_VALUE,
+                        interests);
+        return CatalogSnapshot.of(0L, rows);
+    }
 
-            // Use targetDuration as the starting point
-            // Logic Update: We CAP the duration at the destination's Max.
-            // e.g. Request 7 days. Dest Max 5 days -> We set validStart = 5.
-            int validStart = Math.max(targetDuration, dest.getMinDuration());
-            validStart = Math.min(validStart, dest.getMaxDuration()); // Apply Cap
-            int validEnd = Math.min(userMaxDur, dest.getMaxDuration());
+    // Gather every shard's local top-K and rank their union as a throwaway
+    // snapshot, which gives the same ranking as the whole catalog would
+    private RecommendationResponse computeSharded(RecommendationRequest request, ScoringRules rules,
+            Deadline deadline) {
+        ShardResult gathered = shardCoordinator.search(request, rules, deadline);
+        CatalogSnapshot union = CatalogSnapshot.of(0L, gathered.getCandidates());
+        long start = System.nanoTime();
+        CandidateCollector collector = scoringEngine.score(union, ScoringQuery.of(request, union, rules));
+        long scored = System.nanoTime();
+        metrics.recordStage(RecommendationMetrics.Stage.SCORE, scored - start);
+        RecommendationResponse response = toResponse(union, collector, scored);
+        recordShardCandidates(gathered, response.getRecommendations().size());
+        if (gathered.isPartial()) {
+            response.setPartial(true);
+            metrics.recordPartial();
+        }
+        return response;
+    }
 
-            if (validStart > validEnd) {
-                continue; // No duration overlap
-            }
+    // The rows the shards scanned, counted once; re-scoring what they
+    // gathered is not counted again. Remote shards count their own.
+    private void recordShardCandidates(ShardResult gathered, int returnedRows) {
+        if (gathered.getStats() != null) {
+            metrics.recordCandidates(gathered.getLoaded(), gathered.getStats(), returnedRows);
+        }
+    }
 
-            // Exact Duration Match Bonus
-            // If we can provide exactly what the user asked for (didn't have to cap it),
-            // give a bonus.
-            if (duration != null && validStart == duration) {
-                score += 1;
-                reason.append("Exact duration match. ");
-            }
+    private RecommendationResponse computeRecommendations(CatalogSnapshot catalog, RecommendationRequest request,
+            ScoringRules rules, Deadline deadline) {
+        ScoringQuery query = ScoringQuery.of(request, catalog, rules);
 
-            // Calculate Projected Cost for the valid duration
-            int projectedCost = (int) (dailyRate * validStart);
+        // Bounded top-K per request: only the candidates that can still reach
+        // the final ranking are retained. The range index skips rows that fail
+        // the duration-overlap or budget filter, so scoring cost follows the
+        // number of feasible rows; large scans are split across cores.
+        long start = System.nanoTime();
+        CandidateCollector collector = scoringEngine.score(catalog, query, deadline);
+        long scored = System.nanoTime();
+        metrics.recordStage(RecommendationMetrics.Stage.SCORE, scored - start);
+        RecommendationResponse response = toResponse(catalog, collector, scored);
+        metrics.recordCandidates(catalog.size(), collector.stats(), response.getRecommendations().size());
+        return response;
+    }
 
-            // Strict Budget Filtering on the Projected Cost
-            int userMinBud = (minBudget != null) ? minBudget : 0;
-            int userMaxBud = (maxBudget != null) ? maxBudget : Integer.MAX_VALUE;
+    @Override
+    public List<RecommendationResponse> getBatchRecommendations(List<RecommendationRequest> requests) {
+        return getBatchRecommendations(requests, Deadline.NONE);
+    }
 
-            if (projectedCost > userMaxBud) {
-                continue; // Too expensive
+    // The deadline covers the whole batch; past it the remaining responses are partial
+    @Override
+    public List<RecommendationResponse> getBatchRecommendations(List<RecommendationRequest> requests,
+            Deadline deadline) {
+        long start = System.nanoTime();
+        List<RecommendationResponse> responses;
+        if (databaseFiltering || shardCoordinator.isEnabled()) {
+            // Each request has its own feasible set or scatter, so there is no shared scan
+            responses = new ArrayList<>(requests.size());
+            for (RecommendationRequest request : requests) {
+                responses.add(getRecommendations(request, deadline));
             }
+        } else {
+            responses = scoreBatch(requests, deadline);
+        }
+        metrics.recordBatch(requests.size(), System.nanoTime() - start);
+        return responses;
+    }
 
-            int maxProjectedCost = (int) (dailyRate * validEnd);
-            // If even max duration cost is less than min budget, it's too cheap?
-            // Maybe not strict here. Let's allow cheap trips.
-            // But if projectedCost (min valid cost) is significantly below userMinBud?
-            // User: 500-1000. Project: 200.
-            // Let's assume user accepts cheaper options. But usually filters are ranges.
-            // If I say "Budget 500-1000", I assume min 500.
-            // Strict filter for 'too cheap' removed to allow +1 scoring logic to work.
-
-            // Valid!
-            int displayPrice = projectedCost;
-            // Best Match Price Adjustment
-            // If projectedCost < userMinBud, it means min duration is too cheap.
-            // We can check if a longer duration fits the budget?
-            // e.g. 5 days = 200. Rate=40. User Min=500.
-            // Need 500/40 = 12.5 days.
-            // Can we stay 13 days?
-            // If validEnd >= 13, then we can suggest a trip of 13 days costing 520.
-            // Then effective price = 520.
-            // Let's check this "Upsell" logic?
-            // Upsell logic removed. We now strictly respect the requested duration.
-            // If the price is below User's Min Budget, it will be caught by the +1 Scoring
-            // Logic below.
-
-            // New Budget Scoring Logic (Range-Aware)
-            // userMinBud and userMaxBud are already defined above (lines 116-117)
-            if (displayPrice > userMaxBud) {
-                score -= 2;
-                reason.append("Over budget. ");
-            } else if (displayPrice >= userMinBud) {
-                // In range [min, max] -> Perfect match
-                score += 3;
-                reason.append("Fits your budget range. ");
+    private List<RecommendationResponse> scoreBatch(List<RecommendationRequest> requests, Deadline deadline) {
+        CatalogSnapshot catalog = destinationCatalog.snapshot();
+        ScoringRules rules = scoringEngine.rules();
+        RecommendationResponse[] responses = new RecommendationResponse[requests.size()];
+
+        // Answer what we can from the cache and fold duplicates within the batch
+        // onto one query each
+        Map<RecommendationCacheKey, List<Integer>> pending = new LinkedHashMap<>();
+        for (int r = 0; r < requests.size(); r++) {
+            RecommendationCacheKey key = RecommendationCacheKey.of(requests.get(r), catalog.version(), rules);
+            RecommendationResponse cached = recommendationCache.getIfPresent(key);
+            if (cached != null) {
+                responses[r] = cached;
             } else {
-                // Below min -> Acceptable but maybe too cheap
-                score += 1;
-                reason.append("Under budget. ");
+                pending.computeIfAbsent(key, k -> new ArrayList<>()).add(r);
             }
+        }
+        if (pending.isEmpty()) {
+            return Arrays.asList(responses);
+        }
 
-            // Create a COPY of the destination to modify displayed values
-            Destination modifiedDest = new Destination();
-            modifiedDest.setId(dest.getId());
-            modifiedDest.setName(dest.getName());
-            modifiedDest.setCountry(dest.getCountry());
-            modifiedDest.setDescription(dest.getDescription());
-            modifiedDest.setImage(dest.getImage());
-            modifiedDest.setRating(dest.getRating());
-            modifiedDest.setReviews(dest.getReviews());
-            modifiedDest.setInterests(dest.getInterests());
-            modifiedDest.setHighlights(dest.getHighlights());
-            modifiedDest.setBestTime(dest.getBestTime());
-
-            // Set dynamic values
-            modifiedDest.setMinBudget(displayPrice);
-            modifiedDest.setMaxBudget(displayPrice); // Single value: Min == Max implies single price
-            modifiedDest.setMinDuration(validStart);
-            modifiedDest.setMaxDuration(validStart); // Single value matching the price
-
-            // Use modifiedDest for the rest of processing
-            dest = modifiedDest;
-            // Interest overlap with priority
-            List<String> destInterests = Arrays.asList(dest.getInterests().split(","));
-            int interestMatches = 0;
-            int interestScore = 0;
-            for (String interest : userInterests) {
-                if (destInterests.contains(interest)) {
-                    // Simple Match: +2 Points
-                    interestScore += 2;
-                    interestMatches++;
-                }
-            }
-            score += interestScore;
-            if (interestMatches > 0) {
-                reason.append("Matches ").append(interestMatches).append(" of your interests. ");
-            }
-            // Only add if at least one interest matches and score > 0
-            Set<String> intersection = new HashSet<>(userInterests);
-            intersection.retainAll(destInterests);
-            if (!intersection.isEmpty() && score > 0) {
-                scoredList.add(new ScoredDestination(dest, score, reason.toString().trim()));
-            }
+        ScoringQuery[] queries = new ScoringQuery[pending.size()];
+        CandidateCollector[] collectors = new CandidateCollector[pending.size()];
+        int q = 0;
+        for (List<Integer> positions : pending.values()) {
+            queries[q] = ScoringQuery.of(requests.get(positions.get(0)), catalog, rules);
+            collectors[q] = queries[q].newCollector(catalog);
+            q++;
         }
-        // Sort by score descending
-        scoredList.sort((a, b) -> Integer.compare(b.score, a.score));
-        // Diversity bonus: encourage other countries in top results (ONLY if no
-        // specific country requested)
-        if (country == null || country.isEmpty()) {
-            java.util.Map<String, Integer> countryCount = new java.util.HashMap<>();
-            for (int i = 0; i < Math.min(limit, scoredList.size()); i++) {
-                String c = scoredList.get(i).country;
-                countryCount.put(c, countryCount.getOrDefault(c, 0) + 1);
-            }
-            for (ScoredDestination sd : scoredList) {
-                if (countryCount.getOrDefault(sd.country, 0) > limit / 2) {
-                    // If overrepresented, small bonus to others
-                    for (ScoredDestination other : scoredList) {
-                        if (!other.country.equals(sd.country)) {
-                            other.score += 1;
-                            other.reason += " Diversity bonus.";
-                        }
-                    }
-                    break;
-                }
+
+        // One pass over the catalog: each row is scored against every query
+        // while it is hot, each query keeping its own bounded top-K. The pass
+        // is timed once, as it is shared.
+        long start = System.nanoTime();
+        scoringEngine.scorer().scoreAll(catalog, queries, collectors, deadline);
+        long scored = System.nanoTime();
+        metrics.recordStage(RecommendationMetrics.Stage.SCORE, scored - start);
+
+        q = 0;
+        for (Map.Entry<RecommendationCacheKey, List<Integer>> entry : pending.entrySet()) {
+            CandidateCollector collector = collectors[q++];
+            RecommendationResponse response = toResponse(catalog, collector, scored);
+            metrics.recordCandidates(catalog.size(), collector.stats(), response.getRecommendations().size());
+            recommendationCache.put(entry.getKey(), response);
+            for (int position : entry.getValue()) {
+                responses[position] = response;
             }
         }
-        // Resort after diversity bonus
-        scoredList.sort((a, b) -> Integer.compare(b.score, a.score));
-        // Limit results and build RecommendationWithReason
+        return Arrays.asList(responses);
+    }
+
+    // Rank by score descending; the diversity bonus (ONLY if no specific
+    // country requested) is applied as a re-rank of the retained candidates
+    private RecommendationResponse toResponse(CatalogSnapshot catalog, CandidateCollector collector, long scored) {
+        List<ScoredCandidate> ranked = collector.ranked();
+        long rankedAt = System.nanoTime();
+        metrics.recordStage(RecommendationMetrics.Stage.RANK, rankedAt - scored);
+
         List<RecommendationWithReason> topResults = new ArrayList<>();
-        for (int i = 0; i < Math.min(limit, scoredList.size()); i++) {
-            ScoredDestination sd = scoredList.get(i);
-            topResults.add(new RecommendationWithReason(sd.destination, sd.reason.trim()));
+        for (ScoredCandidate candidate : ranked) {
+            topResults.add(render(catalog, candidate));
         }
-        return new RecommendationResponse(topResults);
+        metrics.recordStage(RecommendationMetrics.Stage.RENDER, System.nanoTime() - rankedAt);
+        if (collector.partial()) {
+            metrics.recordPartial();
+        }
+        return new RecommendationResponse(topResults, collector.partial());
+    }
+
+    private static RecommendationWithReason render(CatalogSnapshot catalog, ScoredCandidate candidate) {
+        RecommendedDestination view = new RecommendedDestination(catalog.destination(candidate.row()),
+                candidate.price(), candidate.duration());
+        return new RecommendationWithReason(view, candidate.reason());
+    }
+
+    // One row past the page tells whether there is a next one
+    public EncodedJson<DestinationPage> getDestinations(Long after, int size) {
+        long cursor = after != null ? after : 0L;
+        return destinationCache.page(cursor, size, () -> {
+            List<DestinationSummary> rows = destinationRepository.findSummariesAfter(cursor, Limit.of(size + 1));
+            if (rows.size() <= size) {
+                return new DestinationPage(rows, null);
+            }
+            List<DestinationSummary> page = List.copyOf(rows.subList(0, size));
+            return new DestinationPage(page, page.get(size - 1).getId());
+        });
     }
 
-    public List<Destination> getAllDestinations() {
-        return destinationRepository.findAll();
+    public List<DestinationSummary> getTopRatedDestinations(int size) {
+        return destinationRepository.findTopRated(Limit.of(size));
     }
 
-    public Destination getDestinationById(Long id) {
-        Optional<Destination> dest = destinationRepository.findById(id);
-        return dest.orElse(null);
+    public EncodedJson<Destination> getDestinationById(Long id) {
+        return destinationCache.get(id, () -> destinationRepository.findById(id).orElse(null));
     }
 }
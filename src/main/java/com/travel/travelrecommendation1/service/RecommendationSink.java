@@ -0,0 +1,14 @@
+package com.travel.travelrecommendation1.service;
+
+import com.travel.travelrecommendation1.dto.RecommendationWithReason;
+
+import java.io.IOException;
+
+/** Receives a streamed ranking, see {@link RecommendationService#streamRecommendations}. */
+public interface RecommendationSink {
+
+    /** Called once, after scoring and before the first result, with whether the ranking is partial. */
+    void start(boolean partial) throws IOException;
+
+    void accept(RecommendationWithReason recommendation) throws IOException;
+}
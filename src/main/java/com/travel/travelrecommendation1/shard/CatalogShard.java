@@ -0,0 +1,18 @@
+package com.travel.travelrecommendation1.shard;
+
+import com.travel.travelrecommendation1.dto.RecommendationRequest;
+import com.travel.travelrecommendation1.scoring.Deadline;
+import com.travel.travelrecommendation1.scoring.ScoringRules;
+
+/**
+ * One part of a catalog split across shards, in this JVM
+ * ({@link LocalCatalogShard}) or on another instance ({@link HttpCatalogShard}).
+ */
+public interface CatalogShard {
+
+    /**
+     * Scores the shard's rows and returns the candidates its bounded top-K
+     * kept. Shards of one catalog must hold disjoint rows.
+     */
+    ShardResult search(RecommendationRequest request, ScoringRules rules, Deadline deadline);
+}
@@ -0,0 +1,68 @@
+package com.travel.travelrecommendation1.shard;
+
+import com.travel.travelrecommendation1.dto.RecommendationRequest;
+import com.travel.travelrecommendation1.scoring.Deadline;
+import com.travel.travelrecommendation1.scoring.ScoringRules;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+/**
+ * A shard served by another instance of this application, which scores its
+ * own catalog on {@code POST /api/recommendations/shard}. The remote instance
+ * applies its own scoring rules, so every shard must be configured with the
+ * same rules file as the coordinator. What remains of the deadline is sent in
+ * {@link #TIME_BUDGET_HEADER}.
+ */
+public class HttpCatalogShard implements CatalogShard {
+
+    public static final String PATH = "/api/recommendations/shard";
+    public static final String TIME_BUDGET_HEADER = "X-Time-Budget-Millis";
+
+    private final URI uri;
+    private final HttpClient client;
+    private final JsonMapper jsonMapper;
+    private final Duration timeout;
+
+    public HttpCatalogShard(String baseUrl, HttpClient client, JsonMapper jsonMapper, Duration timeout) {
+        this.uri = URI.create(baseUrl.replaceAll("/+$", "") + PATH);
+        this.client = client;
+        this.jsonMapper = jsonMapper;
+        this.timeout = timeout;
+    }
+
+    @Override
+    public ShardResult search(RecommendationRequest request, ScoringRules rules, Deadline deadline) {
+        HttpRequest.Builder http = HttpRequest.newBuilder(uri)
+                .timeout(timeout)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(jsonMapper.writeValueAsBytes(request)));
+        if (deadline.isBounded()) {
+            http.header(TIME_BUDGET_HEADER, Long.toString(Math.max(deadline.remaining().toMillis(), 1)));
+        }
+        HttpResponse<byte[]> response;
+        try {
+            response = client.send(http.build(), HttpResponse.BodyHandlers.ofByteArray());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Shard " + uri + " failed", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for shard " + uri, e);
+        }
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Shard " + uri + " answered " + response.statusCode());
+        }
+        return jsonMapper.readValue(response.body(), ShardResult.class);
+    }
+
+    @Override
+    public String toString() {
+        return uri.toString();
+    }
+}
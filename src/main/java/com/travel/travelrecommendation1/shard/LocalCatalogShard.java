@@ -0,0 +1,42 @@
+package com.travel.travelrecommendation1.shard;
+
+import com.travel.travelrecommendation1.catalog.CatalogSnapshot;
+import com.travel.travelrecommendation1.dto.RecommendationRequest;
+import com.travel.travelrecommendation1.model.Destination;
+import com.travel.travelrecommendation1.scoring.CandidateCollector;
+import com.travel.travelrecommendation1.scoring.Deadline;
+import com.travel.travelrecommendation1.scoring.ScoredCandidate;
+import com.travel.travelrecommendation1.scoring.ScoringEngine;
+import com.travel.travelrecommendation1.scoring.ScoringQuery;
+import com.travel.travelrecommendation1.scoring.ScoringRules;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Supplier;
+
+/** A shard held in this JVM: a catalog snapshot scored by the local engine. */
+public class LocalCatalogShard implements CatalogShard {
+
+    private final Supplier<CatalogSnapshot> catalog;
+    private final ScoringEngine scoringEngine;
+
+    public LocalCatalogShard(Supplier<CatalogSnapshot> catalog, ScoringEngine scoringEngine) {
+        this.catalog = catalog;
+        this.scoringEngine = scoringEngine;
+    }
+
+    @Override
+    public ShardResult search(RecommendationRequest request, ScoringRules rules, Deadline deadline) {
+        CatalogSnapshot snapshot = catalog.get();
+        CandidateCollector collector = scoringEngine.score(snapshot, ScoringQuery.of(request, snapshot, rules),
+                deadline);
+        List<ScoredCandidate> retained = collector.retained();
+        retained.sort(Comparator.comparingInt(ScoredCandidate::row));
+        List<Destination> candidates = new ArrayList<>(retained.size());
+        for (ScoredCandidate candidate : retained) {
+            candidates.add(snapshot.destination(candidate.row()));
+        }
+        return new ShardResult(candidates, collector.partial(), snapshot.size(), collector.stats());
+    }
+}
@@ -0,0 +1,242 @@
+package com.travel.travelrecommendation1.shard;
+
+import com.travel.travelrecommendation1.catalog.CatalogSnapshot;
+import com.travel.travelrecommendation1.catalog.DestinationCatalog;
+import com.travel.travelrecommendation1.dto.RecommendationRequest;
+import com.travel.travelrecommendation1.model.Destination;
+import com.travel.travelrecommendation1.scoring.Deadline;
+import com.travel.travelrecommendation1.scoring.ScanStats;
+import com.travel.travelrecommendation1.scoring.ScoringEngine;
+import com.travel.travelrecommendation1.scoring.ScoringRules;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Scatter-gather over a catalog split into shards, used when
+ * {@code recommendation.scoring.mode=sharded}. Every shard is asked for the
+ * candidates its own bounded top-K keeps and the union is returned, in id
+ * order. Each shard keeps at least its part of the global top {@code limit}
+ * (of every country, with diversity), so re-scoring the union as a small
+ * catalog gives exactly the single-node ranking, ties and diversity re-rank
+ * included.
+ * <p>
+ * With {@code recommendation.sharding.urls} set, the shards are those
+ * instances, each serving a disjoint part of the destinations from its own
+ * database; ids must be unique across them. Otherwise the local catalog is
+ * partitioned into {@code recommendation.sharding.shards} in-process shards by
+ * {@code recommendation.sharding.key} ({@code id} or {@code country}), which
+ * is re-done whenever the catalog version changes.
+ * <p>
+ * Local shards are scored on the common pool, the first one on the calling
+ * thread. Remote shards are called from a pool with a thread per shard for
+ * every request admission control lets in at once, so concurrent requests do
+ * not queue behind each other's calls.
+ * <p>
+ * A shard that fails, or has not answered when the request's deadline
+ * passes, leaves its rows out and the result is marked partial, like one that
+ * ran out of time budget.
+ */
+@Component
+public class ShardCoordinator implements CatalogShard {
+
+    private static final Logger log = LoggerFactory.getLogger(ShardCoordinator.class);
+
+    private final boolean enabled;
+    private final DestinationCatalog destinationCatalog;
+    private final ScoringEngine scoringEngine;
+    private final ShardKey key;
+    private final int shardCount;
+    private final List<CatalogShard> remoteShards = new ArrayList<>();
+    private final ExecutorService scatter;
+    private final AtomicReference<Partitions> partitions = new AtomicReference<>();
+
+    @Autowired
+    public ShardCoordinator(@Value("${recommendation.scoring.mode:memory}") String scoringMode,
+            @Value("${recommendation.sharding.shards:4}") int shards,
+            @Value("${recommendation.sharding.key:id}") String key,
+            @Value("${recommendation.sharding.urls:}") String[] urls,
+            @Value("${recommendation.sharding.timeout:2s}") Duration timeout,
+            @Value("${recommendation.admission.max-concurrent:64}") int maxConcurrent,
+            DestinationCatalog destinationCatalog, ScoringEngine scoringEngine, JsonMapper jsonMapper) {
+        this.enabled = "sharded".equalsIgnoreCase(scoringMode.trim());
+        this.destinationCatalog = destinationCatalog;
+        this.scoringEngine = scoringEngine;
+        this.key = ShardKey.valueOf(key.trim().toUpperCase(Locale.ROOT));
+        if (enabled) {
+            HttpClient client = HttpClient.newBuilder().connectTimeout(timeout).build();
+            for (String url : urls) {
+                if (!url.isBlank()) {
+                    remoteShards.add(new HttpCatalogShard(url.trim(), client, jsonMapper, timeout));
+                }
+            }
+        }
+        this.shardCount = isRemote() ? remoteShards.size() : Math.max(shards, 1);
+        this.scatter = isRemote()
+                ? Executors.newFixedThreadPool(shardCount * Math.max(maxConcurrent, 1), daemonThreads())
+                : null;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /** Whether the shards are other instances, so this one needs no catalog of its own. */
+    public boolean isRemote() {
+        return !remoteShards.isEmpty();
+    }
+
+    /**
+     * Version of the partitioned catalog, for cache keys; 0 with remote
+     * shards, whose data this instance cannot see change, so their cached
+     * rankings only go once recommendation.cache.ttl expires.
+     */
+    public long version() {
+        return isRemote() ? 0L : destinationCatalog.snapshot().version();
+    }
+
+    @Override
+    public ShardResult search(RecommendationRequest request, ScoringRules rules, Deadline deadline) {
+        List<CatalogShard> shards = isRemote() ? remoteShards : localShards();
+        List<Future<ShardResult>> results = new ArrayList<>(shards.size());
+        FutureTask<ShardResult> own = null;
+        for (CatalogShard shard : shards) {
+            if (isRemote()) {
+                results.add(scatter.submit(() -> shard.search(request, rules, deadline)));
+            } else if (own == null) {
+                own = new FutureTask<>(() -> shard.search(request, rules, deadline));
+                results.add(own);
+            } else {
+                results.add(ForkJoinPool.commonPool().submit(() -> shard.search(request, rules, deadline)));
+            }
+        }
+        if (own != null) {
+            own.run();
+        }
+
+        List<Destination> candidates = new ArrayList<>();
+        boolean partial = false;
+        // Totals over the shards that report them, i.e. the local ones
+        int loaded = 0;
+        ScanStats stats = isRemote() ? null : new ScanStats();
+        for (int s = 0; s < results.size(); s++) {
+            try {
+                ShardResult result = deadline.isBounded()
+                        ? results.get(s).get(deadline.remaining().toNanos(), TimeUnit.NANOSECONDS)
+                        : results.get(s).get();
+                candidates.addAll(result.getCandidates());
+                partial |= result.isPartial();
+                if (stats != null && result.getStats() != null) {
+                    loaded += result.getLoaded();
+                    stats.merge(result.getStats());
+                }
+            } catch (ExecutionException e) {
+                log.warn("Leaving out shard {}: {}", shards.get(s), e.getCause().toString());
+                partial = true;
+            } catch (TimeoutException e) {
+                results.get(s).cancel(true);
+                log.warn("Leaving out shard {}: no answer within the time budget", shards.get(s));
+                partial = true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                partial = true;
+                break;
+            }
+        }
+        candidates.sort(Comparator.comparing(Destination::getId));
+        // A row seen twice (moving between shards mid-request) is kept once
+        List<Destination> distinct = new ArrayList<>(candidates.size());
+        for (Destination d : candidates) {
+            if (distinct.isEmpty() || !distinct.get(distinct.size() - 1).getId().equals(d.getId())) {
+                distinct.add(d);
+            }
+        }
+        return new ShardResult(distinct, partial, loaded, stats);
+    }
+
+    // One request works against one partitioning of one catalog version
+    private List<CatalogShard> localShards() {
+        CatalogSnapshot[] parts = partitions().parts;
+        List<CatalogShard> shards = new ArrayList<>(parts.length);
+        for (CatalogSnapshot part : parts) {
+            shards.add(new LocalCatalogShard(() -> part, scoringEngine));
+        }
+        return shards;
+    }
+
+    private Partitions partitions() {
+        CatalogSnapshot snapshot = destinationCatalog.snapshot();
+        Partitions current = partitions.get();
+        if (current != null && current.version == snapshot.version()) {
+            return current;
+        }
+        synchronized (this) {
+            current = partitions.get();
+            if (current == null || current.version != snapshot.version()) {
+                current = new Partitions(snapshot, key, shardCount);
+                partitions.set(current);
+            }
+            return current;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (scatter != null) {
+            scatter.shutdown();
+        }
+    }
+
+    private static ThreadFactory daemonThreads() {
+        AtomicInteger threads = new AtomicInteger();
+        return task -> {
+            Thread thread = new Thread(task, "shard-scatter-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static final class Partitions {
+        private final long version;
+        private final CatalogSnapshot[] parts;
+
+        Partitions(CatalogSnapshot snapshot, ShardKey key, int shards) {
+            List<List<Destination>> rows = new ArrayList<>(shards);
+            for (int s = 0; s < shards; s++) {
+                rows.add(new ArrayList<>(snapshot.size() / shards + 1));
+            }
+            // Walking the snapshot keeps each part in id order
+            for (int i = 0; i < snapshot.size(); i++) {
+                Destination d = snapshot.destination(i);
+                rows.get(key.shardOf(d, shards)).add(d);
+            }
+            this.version = snapshot.version();
+            this.parts = new CatalogSnapshot[shards];
+            for (int s = 0; s < shards; s++) {
+                parts[s] = CatalogSnapshot.of(version, rows.get(s));
+            }
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.travel.travelrecommendation1.shard;
+
+import com.travel.travelrecommendation1.model.Destination;
+
+import java.util.Objects;
+
+/**
+ * How destinations are assigned to shards: by id, which spreads rows evenly,
+ * or by country, which keeps a country's rows on one shard.
+ */
+public enum ShardKey {
+
+    ID {
+        @Override
+        int hash(Destination destination) {
+            return Long.hashCode(destination.getId());
+        }
+    },
+    COUNTRY {
+        @Override
+        int hash(Destination destination) {
+            return Objects.hashCode(destination.getCountry());
+        }
+    };
+
+    abstract int hash(Destination destination);
+
+    /** The shard, in [0, shards), that holds {@code destination}. */
+    public int shardOf(Destination destination, int shards) {
+        return Math.floorMod(hash(destination), shards);
+    }
+}
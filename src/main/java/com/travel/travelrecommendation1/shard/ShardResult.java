@@ -0,0 +1,66 @@
+package com.travel.travelrecommendation1.shard;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.travel.travelrecommendation1.model.Destination;
+import com.travel.travelrecommendation1.scoring.ScanStats;
+
+import java.util.List;
+
+/**
+ * What one shard contributes to a request: the destinations its local
+ * top-K kept (see {@link com.travel.travelrecommendation1.scoring.CandidateCollector#retained()}),
+ * in id order, and whether it stopped at the deadline. Scores are not sent;
+ * the coordinator re-scores the few rows it receives. Shards scored in this
+ * JVM also report the rows they held and what became of them, for metrics;
+ * that is not sent over HTTP.
+ */
+public class ShardResult {
+    private List<Destination> candidates;
+    private boolean partial;
+    @JsonIgnore
+    private int loaded;
+    @JsonIgnore
+    private ScanStats stats;
+
+    public ShardResult() {
+    }
+
+    public ShardResult(List<Destination> candidates, boolean partial) {
+        this.candidates = candidates;
+        this.partial = partial;
+    }
+
+    public ShardResult(List<Destination> candidates, boolean partial, int loaded, ScanStats stats) {
+        this(candidates, partial);
+        this.loaded = loaded;
+        this.stats = stats;
+    }
+
+    public List<Destination> getCandidates() {
+        return candidates;
+    }
+
+    public void setCandidates(List<Destination> candidates) {
+        this.candidates = candidates;
+    }
+
+    public boolean isPartial() {
+        return partial;
+    }
+
+    public void setPartial(boolean partial) {
+        this.partial = partial;
+    }
+
+    /** Rows the shards held; only set with {@link #getStats()}. */
+    @JsonIgnore
+    public int getLoaded() {
+        return loaded;
+    }
+
+    /** What the shards' scans did with their rows, or null if not known here. */
+    @JsonIgnore
+    public ScanStats getStats() {
+        return stats;
+    }
+}
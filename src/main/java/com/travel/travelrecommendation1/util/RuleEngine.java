@@ -1,15 +1,78 @@
 package com.travel.travelrecommendation1.util;
 
-import com.travel.travelrecommendation1.model.Destination;
-import java.util.List;
+import com.travel.travelrecommendation1.scoring.ScoringEngine;
+import com.travel.travelrecommendation1.scoring.ScoringRules;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Loads the declarative scoring rule table ({@code recommendation.scoring.rules},
+ * rule name = points) and installs it on the {@link ScoringEngine}. The table
+ * is compiled into a {@link ScoringRules} once per load; requests already
+ * running keep the rules they started with.
+ *
+ * The source is checked for changes every
+ * {@code recommendation.scoring.rules-refresh-interval}, so weights can be
+ * tuned by editing the file, without a restart. A table that fails to compile
+ * is rejected at startup and ignored (keeping the current rules) afterwards.
+ */
+@Component
 public class RuleEngine {
-    // Placeholder for more complex rule logic if needed in the future
-    public static boolean matches(Destination destination, Integer budget, Integer duration, List<String> interests) {
-        boolean budgetMatch = (budget >= destination.getMinBudget() && budget <= destination.getMaxBudget());
-        boolean durationMatch = (duration >= destination.getMinDuration() && duration <= destination.getMaxDuration());
-        List<String> destInterests = List.of(destination.getInterests().split(","));
-        boolean interestMatch = interests.stream().anyMatch(destInterests::contains);
-        return budgetMatch && durationMatch && interestMatch;
+
+    private static final Logger log = LoggerFactory.getLogger(RuleEngine.class);
+
+    private final Resource source;
+    private final ScoringEngine scoringEngine;
+    private final AtomicLong versions = new AtomicLong();
+    private long lastModified = -1;
+
+    @Autowired
+    public RuleEngine(@Value("${recommendation.scoring.rules:classpath:scoring-rules.properties}") String location,
+            ResourceLoader resourceLoader, ScoringEngine scoringEngine) {
+        this.source = resourceLoader.getResource(location);
+        this.scoringEngine = scoringEngine;
+    }
+
+    @PostConstruct
+    public void load() throws IOException {
+        reload();
+    }
+
+    @Scheduled(fixedDelayString = "${recommendation.scoring.rules-refresh-interval:5s}",
+            initialDelayString = "${recommendation.scoring.rules-refresh-interval:5s}")
+    public void pollForChanges() {
+        try {
+            if (source.lastModified() != lastModified) {
+                reload();
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            log.warn("Keeping scoring rules v{}: {}", scoringEngine.rules().version(), e.getMessage());
+        }
+    }
+
+    /** Re-reads and compiles the rule table and makes it current. */
+    public synchronized ScoringRules reload() throws IOException {
+        long modified = source.lastModified();
+        Properties table = new Properties();
+        try (InputStream in = source.getInputStream()) {
+            table.load(in);
+        }
+        ScoringRules rules = ScoringRules.compile(versions.incrementAndGet(), table);
+        scoringEngine.setRules(rules);
+        lastModified = modified;
+        log.info("Scoring rules v{} loaded from {}: {}", rules.version(), source.getDescription(), rules.weights());
+        return rules;
     }
 }
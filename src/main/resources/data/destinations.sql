@@ -1,6 +1,7 @@
--- Sample data for destinations table
+-- Sample data for destinations table, only loaded into an empty table so
+-- restarts keep the existing catalog
 INSERT INTO destinations (name, country, description, min_budget, max_budget, min_duration, max_duration, interests, rating, reviews, image, highlights, best_time)
-VALUES
+SELECT * FROM (VALUES
 ('Bali', 'Indonesia', 'Tropical paradise with stunning beaches, ancient temples, and vibrant culture.', 800, 2500, 5, 11, 'beach,culture,food,nature', 4.8, 2543, 'https://images.unsplash.com/photo-1555400038-63f5ba517a47?w=400&h=300&fit=crop', 'Ubud Rice Terraces,Seminyak Beach,Ancient Temples,Volcanic Landscapes', 'April to October'),
 ('Tokyo', 'Japan', 'Futuristic metropolis blending ancient traditions with modern technology.', 1500, 4000, 7, 14, 'culture,food,adventure', 4.7, 3124, 'https://images.unsplash.com/photo-1503899036084-c55cdd92da26?w=400&h=300&fit=crop', 'Senso-ji Temple,Shibuya Crossing,Mount Fuji,Tsukiji Market', 'March to May, September to November'),
 ('Barcelona', 'Spain', 'Vibrant Mediterranean city known for its architecture, beaches, and lively nightlife.', 1000, 3000, 4, 10, 'culture,beach,food', 4.6, 2891, 'https://images.unsplash.com/photo-1583422409516-2895a77efded?w=400&h=300&fit=crop', 'Sagrada Familia,Park Güell,Las Ramblas,Gothic Quarter', 'April to May, September to October'),
@@ -25,4 +26,6 @@ VALUES
 ('Hokkaido', 'Japan', 'Volcanoes, natural hot springs (onsen) and ski areas.', 1500, 3500, 5, 10, 'nature,adventure,mountain', 4.8, 1200, 'https://images.unsplash.com/photo-1542051841857-5f90071e7989?w=400&h=300&fit=crop', 'Niseko,Sapporo Snow Festival,Otaru Canal,Farm Tomita', 'December to February, July to August'),
 ('Okinawa', 'Japan', 'Japan''s tropical prefecture, known for its beaches and coral reefs.', 1000, 2500, 4, 8, 'beach,nature,culture', 4.6, 1500, 'https://images.unsplash.com/photo-1619543666504-22b640825920?w=400&h=300&fit=crop', 'Churaumi Aquarium,Manza Beach,Shurijo Castle,Ishigaki', 'May to October'),
 ('Venice', 'Italy', 'City of canals, known for its romantic setting and architecture.', 1300, 3500, 3, 6, 'romance,culture,history', 4.7, 3100, 'https://images.unsplash.com/photo-1514890547357-a9ee288728e0?w=400&h=300&fit=crop', 'St. Mark''s Basilica,Grand Canal,Rialto Bridge,Doge''s Palace', 'April to June, September to November'),
-('Florence', 'Italy', 'Cradle of the Renaissance, known for its art and architecture.', 1100, 3000, 3, 7, 'culture,history,art', 4.8, 2800, 'https://images.unsplash.com/photo-1543429307-c5ef5b89a804?w=400&h=300&fit=crop', 'Duomo,Uffizi Gallery,Ponte Vecchio,Michelangelo''s David', 'April to June, September to October');
+('Florence', 'Italy', 'Cradle of the Renaissance, known for its art and architecture.', 1100, 3000, 3, 7, 'culture,history,art', 4.8, 2800, 'https://images.unsplash.com/photo-1543429307-c5ef5b89a804?w=400&h=300&fit=crop', 'Duomo,Uffizi Gallery,Ponte Vecchio,Michelangelo''s David', 'April to June, September to October')
+) AS seed (name, country, description, min_budget, max_budget, min_duration, max_duration, interests, rating, reviews, image, highlights, best_time)
+WHERE NOT EXISTS (SELECT 1 FROM destinations);
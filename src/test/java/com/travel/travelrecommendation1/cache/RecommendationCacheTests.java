@@ -0,0 +1,126 @@
+package com.travel.travelrecommendation1.cache;
+
+import com.travel.travelrecommendation1.catalog.CatalogSnapshot;
+import com.travel.travelrecommendation1.catalog.CatalogUpdatedEvent;
+import com.travel.travelrecommendation1.dto.RecommendationRequest;
+import com.travel.travelrecommendation1.dto.RecommendationResponse;
+import com.travel.travelrecommendation1.model.Destination;
+import com.travel.travelrecommendation1.scoring.ScoringRules;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class RecommendationCacheTests {
+
+    private final RecommendationCache cache = new RecommendationCache(true, 100, Duration.ofMinutes(1),
+            new SimpleMeterRegistry());
+
+    @Test
+    void equivalentRequestsShareAKey() {
+        RecommendationRequest plain = request(3000, "Japan", null, "beach", "food");
+        RecommendationRequest spelledOut = request(3000, "JAPAN", 10, " Food", "BEACH", "food");
+        assertEquals(key(plain, 1), key(spelledOut, 1));
+        assertEquals(key(plain, 1).hashCode(), key(spelledOut, 1).hashCode());
+        assertEquals(key(request(3000, null, null, "beach")), key(request(3000, "", null, "beach")));
+
+        assertNotEquals(key(plain, 1), key(plain, 2));
+        assertNotEquals(key(plain, 1), key(request(3001, "Japan", null, "beach", "food"), 1));
+        assertNotEquals(key(plain, 1), key(request(3000, "Japan", 11, "beach", "food"), 1));
+        assertNotEquals(key(plain, 1), key(request(3000, "Japan", null, "beach"), 1));
+    }
+
+    @Test
+    void identicalRequestsAreScoredOnce() {
+        AtomicInteger computations = new AtomicInteger();
+        RecommendationResponse response = new RecommendationResponse(List.of());
+        for (int i = 0; i < 3; i++) {
+            assertSame(response, cache.get(key(request(3000, null, null, "beach")), () -> {
+                computations.incrementAndGet();
+                return response;
+            }));
+        }
+        assertEquals(1, computations.get());
+    }
+
+    @Test
+    void partialResponsesAreNotCached() {
+        RecommendationCacheKey key = key(request(3000, null, null, "beach"));
+        cache.get(key, () -> new RecommendationResponse(List.of(), true));
+        assertNull(cache.getIfPresent(key));
+    }
+
+    @Test
+    void newCatalogVersionsDropEntriesTheChangeCouldReach() {
+        CatalogSnapshot previous = CatalogSnapshot.of(1, List.of(destination(1, "beach"), destination(2, "food")));
+        RecommendationCacheKey beach = key(request(3000, null, null, "beach"), 1);
+        RecommendationCacheKey food = key(request(3000, null, null, "food"), 1);
+        RecommendationResponse response = new RecommendationResponse(List.of());
+        cache.put(beach, response);
+        cache.put(food, response);
+
+        // Only beach requests can see destination 1
+        Destination edited = destination(1, "beach");
+        edited.setName("Edited");
+        CatalogSnapshot delta = previous.withChanges(2, List.of(edited));
+        cache.onCatalogUpdated(new CatalogUpdatedEvent(delta, previous, new long[] { 1 }, 0));
+        assertNull(cache.getIfPresent(beach.withCatalogVersion(2)));
+        assertSame(response, cache.getIfPresent(food.withCatalogVersion(2)));
+        assertNull(cache.getIfPresent(food));
+
+        cache.onCatalogUpdated(new CatalogUpdatedEvent(CatalogSnapshot.of(3, List.of()), 0));
+        assertNull(cache.getIfPresent(food.withCatalogVersion(2)));
+        assertNull(cache.getIfPresent(food.withCatalogVersion(3)));
+    }
+
+    @Test
+    void disabledCacheAlwaysComputes() {
+        RecommendationCache disabled = new RecommendationCache(false, 100, Duration.ofMinutes(1),
+                new SimpleMeterRegistry());
+        RecommendationCacheKey key = key(request(3000, null, null, "beach"));
+        disabled.put(key, new RecommendationResponse(List.of()));
+        assertNull(disabled.getIfPresent(key));
+        assertNotNull(disabled.get(key, () -> new RecommendationResponse(List.of())));
+    }
+
+    private static RecommendationCacheKey key(RecommendationRequest request) {
+        return key(request, 1);
+    }
+
+    private static RecommendationCacheKey key(RecommendationRequest request, long version) {
+        return RecommendationCacheKey.of(request, version, ScoringRules.DEFAULT);
+    }
+
+    private static RecommendationRequest request(int budget, String country, Integer limit, String... interests) {
+        RecommendationRequest request = new RecommendationRequest();
+        request.setBudget(budget);
+        request.setDuration(5);
+        request.setCountry(country);
+        request.setLimit(limit);
+        request.setInterests(Arrays.asList(interests));
+        return request;
+    }
+
+    private static Destination destination(long id, String interests) {
+        Destination d = new Destination();
+        d.setId(id);
+        d.setName("Destination " + id);
+        d.setCountry("Japan");
+        d.setMinBudget(500);
+        d.setMaxBudget(2000);
+        d.setMinDuration(3);
+        d.setMaxDuration(7);
+        d.setInterests(interests);
+        d.setRating(4.0);
+        return d;
+    }
+}
@@ -0,0 +1,181 @@
+package com.travel.travelrecommendation1.cache;
+
+import com.travel.travelrecommendation1.dto.RecommendationRequest;
+import com.travel.travelrecommendation1.dto.RecommendationResponse;
+import com.travel.travelrecommendation1.scoring.Deadline;
+import com.travel.travelrecommendation1.scoring.ScoringRules;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RequestCoalescerTests {
+
+    private static final int CALLERS = 8;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final RequestCoalescer coalescer = new RequestCoalescer(true, registry);
+
+    @Test
+    void concurrentIdenticalRequestsShareOneComputation() throws Exception {
+        RecommendationCacheKey key = key("beach");
+        RecommendationResponse response = new RecommendationResponse(List.of());
+        AtomicInteger computations = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        List<Future<RecommendationResponse>> results = callConcurrently(() -> coalescer.get(key, () -> {
+            computations.incrementAndGet();
+            await(release);
+            return response;
+        }));
+        awaitWaiting(CALLERS - 1);
+        release.countDown();
+        for (Future<RecommendationResponse> result : results) {
+            assertSame(response, result.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, computations.get());
+        assertEquals(1, count("led"));
+        assertEquals(CALLERS - 1, count("joined"));
+        assertEquals(0, count("fallback"));
+
+        // Nothing is kept once the flight has landed
+        RecommendationResponse next = new RecommendationResponse(List.of());
+        assertSame(next, coalescer.get(key, () -> next));
+        assertEquals(2, count("led"));
+    }
+
+    @Test
+    void everyWaitingCallerSeesTheFailure() throws Exception {
+        RecommendationCacheKey key = key("food");
+        CountDownLatch release = new CountDownLatch(1);
+
+        List<Future<RecommendationResponse>> results = callConcurrently(() -> coalescer.get(key, () -> {
+            await(release);
+            throw new IllegalStateException("scoring failed");
+        }));
+        awaitWaiting(CALLERS - 1);
+        release.countDown();
+        for (Future<RecommendationResponse> result : results) {
+            Exception e = assertThrows(Exception.class, () -> result.get(5, TimeUnit.SECONDS));
+            assertEquals(IllegalStateException.class, e.getCause().getClass());
+        }
+    }
+
+    @Test
+    void aWaitingCallerGivesUpAtItsOwnDeadline() throws Exception {
+        RecommendationCacheKey key = key("hiking");
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger computations = new AtomicInteger();
+
+        Future<RecommendationResponse> leader = callConcurrently(1, () -> coalescer.get(key, () -> {
+            await(release);
+            return new RecommendationResponse(List.of());
+        })).get(0);
+        awaitLed(1);
+        long start = System.nanoTime();
+        RecommendationResponse response = coalescer.get(key, Deadline.after(Duration.ofMillis(50)), () -> {
+            computations.incrementAndGet();
+            return new RecommendationResponse(List.of());
+        });
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5));
+        // Past its deadline the caller does not compute, it answers partial
+        assertTrue(response.isPartial());
+        assertTrue(response.getRecommendations().isEmpty());
+        assertEquals(0, computations.get());
+        assertEquals(1, count("expired"));
+        assertEquals(0, count("joined"));
+        assertEquals(0, count("fallback"));
+        release.countDown();
+        leader.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void partialResultsAreNotShared() throws Exception {
+        RecommendationCacheKey key = key("museums");
+        CountDownLatch release = new CountDownLatch(1);
+        RecommendationResponse partial = new RecommendationResponse(List.of(), true);
+        RecommendationResponse full = new RecommendationResponse(List.of());
+
+        Future<RecommendationResponse> leader = callConcurrently(1, () -> coalescer.get(key, () -> {
+            await(release);
+            return partial;
+        })).get(0);
+        awaitLed(1);
+        Future<RecommendationResponse> follower = callConcurrently(1, () -> coalescer.get(key, () -> full)).get(0);
+        awaitWaiting(1);
+        release.countDown();
+        assertSame(partial, leader.get(5, TimeUnit.SECONDS));
+        assertSame(full, follower.get(5, TimeUnit.SECONDS));
+        assertEquals(1, count("fallback"));
+        assertEquals(0, count("joined"));
+    }
+
+    private List<Future<RecommendationResponse>> callConcurrently(Callable<RecommendationResponse> call) {
+        return callConcurrently(CALLERS, call);
+    }
+
+    private List<Future<RecommendationResponse>> callConcurrently(int callers,
+            Callable<RecommendationResponse> call) {
+        ExecutorService pool = Executors.newFixedThreadPool(callers);
+        List<Future<RecommendationResponse>> results = new ArrayList<>();
+        for (int i = 0; i < callers; i++) {
+            results.add(pool.submit(call));
+        }
+        pool.shutdown();
+        return results;
+    }
+
+    // The leader is parked in its loader until every other caller is waiting for it
+    private void awaitWaiting(int callers) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (waiting() < callers && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(callers, waiting());
+    }
+
+    private void awaitLed(int callers) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (count("led") < callers && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(callers, count("led"));
+    }
+
+    private double waiting() {
+        return registry.get("recommendation.coalescing.waiting").gauge().value();
+    }
+
+    private double count(String outcome) {
+        return registry.get("recommendation.coalescing").tag("outcome", outcome).counter().count();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static RecommendationCacheKey key(String interest) {
+        RecommendationRequest request = new RecommendationRequest();
+        request.setDuration(7);
+        request.setInterests(List.of(interest));
+        return RecommendationCacheKey.of(request, 1, ScoringRules.DEFAULT);
+    }
+}
@@ -0,0 +1,165 @@
+package com.travel.travelrecommendation1.catalog;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class BudgetDurationIndexTests {
+
+    @Test
+    void affordablePrefixStopsAtTheBudget() {
+        // One bucket, 3 to 10 days, at 100..500 a day
+        int[] min = { 3, 3, 3, 3, 3 };
+        int[] max = { 10, 10, 10, 10, 10 };
+        double[] rates = { 300, 100, 500, 200, 400 };
+        BudgetDurationIndex index = BudgetDurationIndex.build(min, max, rates);
+        assertEquals(1, index.bucketCount());
+
+        // 5 days: costs 500, 1000, 1500, 2000, 2500 for rows 1, 3, 0, 4, 2
+        assertRows(index, 5, 10, 499);
+        assertRows(index, 5, 10, 500, 1);
+        assertRows(index, 5, 10, 1499, 1, 3);
+        assertRows(index, 5, 10, 1500, 0, 1, 3);
+        assertRows(index, 5, 10, 2500, 0, 1, 2, 3, 4);
+        assertRows(index, 5, 10, Integer.MAX_VALUE, 0, 1, 2, 3, 4);
+        // Shorter requests are priced at the minimum stay, longer ones at the maximum
+        assertRows(index, 1, 10, 300, 1);
+        assertRows(index, 20, 10, 2000, 1, 3);
+        // The stay the bucket can offer is longer than the user allows
+        assertRows(index, 1, 2, Integer.MAX_VALUE);
+        assertEquals(0, index.countDurationFeasible(1, 2));
+    }
+
+    @Test
+    void equalRatesAreAllInOrAllOut() {
+        int[] min = { 2, 2, 2, 2 };
+        int[] max = { 4, 4, 4, 4 };
+        double[] rates = { 150, 150, 150, 50 };
+        BudgetDurationIndex index = BudgetDurationIndex.build(min, max, rates);
+        assertRows(index, 2, 4, 299, 3);
+        assertRows(index, 2, 4, 300, 0, 1, 2, 3);
+    }
+
+    @Test
+    void candidatesMatchTheExactFilters() {
+        Random random = new Random(4);
+        int size = 3000;
+        int[] min = new int[size];
+        int[] max = new int[size];
+        double[] rates = new double[size];
+        for (int i = 0; i < size; i++) {
+            min[i] = random.nextInt(8);
+            max[i] = min[i] + random.nextInt(10);
+            int minBudget = random.nextInt(5) == 0 ? 1000 : random.nextInt(4000);
+            rates[i] = min[i] > 0 ? (double) minBudget / min[i] : minBudget;
+        }
+        BudgetDurationIndex index = BudgetDurationIndex.build(min, max, rates);
+
+        for (int q = 0; q < 1000; q++) {
+            int duration = 1 + random.nextInt(20);
+            int userMaxDuration = random.nextBoolean() ? Integer.MAX_VALUE : random.nextInt(20);
+            int userMaxBudget = random.nextBoolean() ? Integer.MAX_VALUE : random.nextInt(10_000);
+
+            List<Integer> expected = new ArrayList<>();
+            int durationFeasible = 0;
+            for (int i = 0; i < size; i++) {
+                // Same checks, in the same arithmetic, as the scorer
+                int length = Math.min(Math.max(duration, min[i]), max[i]);
+                if (length > Math.min(userMaxDuration, max[i])) {
+                    continue;
+                }
+                durationFeasible++;
+                if (length == 0 || (int) (rates[i] * length) <= userMaxBudget) {
+                    expected.add(i);
+                }
+            }
+            int[] rows = index.candidateRows(duration, userMaxDuration, userMaxBudget);
+            Arrays.sort(rows);
+            assertArrayEquals(expected.stream().mapToInt(Integer::intValue).toArray(), rows);
+            assertEquals(expected.size(), index.countCandidates(duration, userMaxDuration, userMaxBudget));
+            assertEquals(durationFeasible, index.countDurationFeasible(duration, userMaxDuration));
+        }
+    }
+
+    @Test
+    void visitingStopsWhenAsked() {
+        BudgetDurationIndex index = BudgetDurationIndex.build(new int[] { 1, 1, 5, 5 }, new int[] { 3, 3, 9, 9 },
+                new double[] { 10, 20, 10, 20 });
+        int[] seen = new int[1];
+        assertEquals(3, index.forEachCandidateWhile(5, 10, 1000, row -> ++seen[0] <= 3));
+        assertEquals(4, seen[0]);
+    }
+
+    @Test
+    void patchedIndexMatchesARebuild() {
+        Random random = new Random(13);
+        for (int round = 0; round < 200; round++) {
+            int size = 1 + random.nextInt(200);
+            int[] min = new int[size];
+            int[] max = new int[size];
+            double[] rates = new double[size];
+            for (int i = 0; i < size; i++) {
+                min[i] = random.nextInt(4);
+                max[i] = min[i] + random.nextInt(4);
+                rates[i] = 50 * random.nextInt(10);
+            }
+            BudgetDurationIndex index = BudgetDurationIndex.build(min, max, rates);
+
+            // Delete some rows, then move some of the survivors to another
+            // range or rate, possibly one no bucket had
+            List<Integer> removed = new ArrayList<>();
+            List<Integer> kept = new ArrayList<>();
+            for (int i = 0; i < size; i++) {
+                (random.nextInt(5) == 0 ? removed : kept).add(i);
+            }
+            int[] newMin = new int[kept.size()];
+            int[] newMax = new int[kept.size()];
+            double[] newRates = new double[kept.size()];
+            List<Integer> moved = new ArrayList<>();
+            for (int i = 0; i < kept.size(); i++) {
+                int old = kept.get(i);
+                newMin[i] = min[old];
+                newMax[i] = max[old];
+                newRates[i] = rates[old];
+                if (random.nextInt(4) == 0) {
+                    moved.add(old);
+                    newMin[i] = random.nextInt(6);
+                    newMax[i] = newMin[i] + random.nextInt(6);
+                    newRates[i] = 50 * random.nextInt(12);
+                }
+            }
+            BudgetDurationIndex patched = index.withChanges(ints(removed), ints(moved), newMin, newMax, newRates);
+            BudgetDurationIndex rebuilt = BudgetDurationIndex.build(newMin, newMax, newRates);
+
+            assertEquals(rebuilt.bucketCount(), patched.bucketCount());
+            for (int q = 0; q < 50; q++) {
+                int duration = 1 + random.nextInt(12);
+                int userMaxDuration = random.nextBoolean() ? Integer.MAX_VALUE : random.nextInt(12);
+                int userMaxBudget = random.nextInt(5000);
+                int[] expected = rebuilt.candidateRows(duration, userMaxDuration, userMaxBudget);
+                int[] actual = patched.candidateRows(duration, userMaxDuration, userMaxBudget);
+                Arrays.sort(expected);
+                Arrays.sort(actual);
+                assertArrayEquals(expected, actual);
+            }
+        }
+    }
+
+    private static int[] ints(List<Integer> values) {
+        return values.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private static void assertRows(BudgetDurationIndex index, int duration, int userMaxDuration, int userMaxBudget,
+            int... expected) {
+        int[] rows = index.candidateRows(duration, userMaxDuration, userMaxBudget);
+        Arrays.sort(rows);
+        assertArrayEquals(expected, rows, "budget " + userMaxBudget);
+        assertEquals(expected.length, index.countCandidates(duration, userMaxDuration, userMaxBudget));
+    }
+}
@@ -0,0 +1,118 @@
+package com.travel.travelrecommendation1.catalog;
+
+import com.travel.travelrecommendation1.dto.RecommendationRequest;
+import com.travel.travelrecommendation1.model.Destination;
+import com.travel.travelrecommendation1.scoring.ScoredCandidate;
+import com.travel.travelrecommendation1.scoring.ScoringEngine;
+import com.travel.travelrecommendation1.scoring.ScoringQuery;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CatalogSnapshotFileTests {
+
+    private static final String[] COUNTRIES = { "Japan", "France", "Spain", "Côte d'Ivoire" };
+    private static final String[] INTERESTS = { "beach", "culture", "food", "nature", "adventure", "Street Art" };
+
+    private final ScoringEngine engine = ScoringEngine.sequential();
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void restoredSnapshotRanksLikeTheOriginal() throws IOException {
+        Random random = new Random(5);
+        List<Destination> rows = new ArrayList<>();
+        for (int i = 0; i < 1500; i++) {
+            rows.add(destination(random, i + 1));
+        }
+        rows.get(0).setRating(null);
+        rows.get(1).setDescription(null);
+        CatalogSnapshot original = CatalogSnapshot.of(4, rows);
+        Path file = dir.resolve("catalog.bin");
+        CatalogSnapshotFile.write(original, file);
+
+        CatalogSnapshot restored = CatalogSnapshotFile.read(file, 9);
+        assertEquals(9, restored.version());
+        assertEquals(original.size(), restored.size());
+        for (int i = 0; i < original.size(); i++) {
+            Destination expected = original.destination(i);
+            Destination actual = restored.destination(i);
+            assertEquals(expected.getId(), actual.getId());
+            assertEquals(expected.getCountry(), actual.getCountry());
+            assertEquals(expected.getDescription(), actual.getDescription());
+            assertEquals(expected.getInterests(), actual.getInterests());
+            assertEquals(expected.getMaxBudget(), actual.getMaxBudget());
+            assertEquals(expected.getRating(), actual.getRating());
+            assertEquals(expected.getVersion(), actual.getVersion());
+            assertEquals(expected.getUpdatedAt(), actual.getUpdatedAt());
+        }
+        assertNull(restored.destination(0).getRating());
+        for (int i = 0; i < 200; i++) {
+            RecommendationRequest request = request(random);
+            assertEquals(rank(original, request), rank(restored, request));
+        }
+    }
+
+    @Test
+    void corruptFileIsRejected() throws IOException {
+        Path file = dir.resolve("catalog.bin");
+        CatalogSnapshotFile.write(CatalogSnapshot.of(1, List.of(destination(new Random(1), 1))), file);
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[bytes.length / 2] ^= 1;
+        Files.write(file, bytes);
+        assertThrows(IOException.class, () -> CatalogSnapshotFile.read(file, 2));
+    }
+
+    private List<String> rank(CatalogSnapshot snapshot, RecommendationRequest request) {
+        List<String> ranked = new ArrayList<>();
+        for (ScoredCandidate candidate : engine.score(snapshot, ScoringQuery.of(request, snapshot)).ranked()) {
+            ranked.add(snapshot.id(candidate.row()) + ":" + candidate.price() + ":" + candidate.reason());
+        }
+        return ranked;
+    }
+
+    private static Destination destination(Random random, long id) {
+        int minDuration = random.nextInt(10);
+        Destination d = new Destination();
+        d.setId(id);
+        d.setName("Destination " + id);
+        d.setCountry(COUNTRIES[random.nextInt(COUNTRIES.length)]);
+        d.setDescription("Description " + random.nextInt(50));
+        d.setMinBudget(random.nextInt(4000));
+        d.setMaxBudget(random.nextBoolean() ? 5000 : null);
+        d.setMinDuration(minDuration);
+        d.setMaxDuration(minDuration + random.nextInt(12));
+        d.setInterests(INTERESTS[random.nextInt(INTERESTS.length)] + ","
+                + INTERESTS[random.nextInt(INTERESTS.length)]);
+        d.setRating(3 + random.nextInt(20) / 10.0);
+        d.setVersion((long) random.nextInt(3));
+        d.setUpdatedAt(Instant.ofEpochSecond(1_700_000_000L + random.nextInt(1000), random.nextInt(1000) * 1000));
+        return d;
+    }
+
+    private static RecommendationRequest request(Random random) {
+        RecommendationRequest request = new RecommendationRequest();
+        request.setDuration(1 + random.nextInt(15));
+        request.setInterests(List.of(INTERESTS[random.nextInt(INTERESTS.length)]));
+        if (random.nextBoolean()) {
+            request.setMaxBudget(500 + random.nextInt(4000));
+        }
+        if (random.nextInt(3) == 0) {
+            request.setCountry(COUNTRIES[random.nextInt(COUNTRIES.length)]);
+        }
+        request.setLimit(1 + random.nextInt(20));
+        return request;
+    }
+}
@@ -0,0 +1,180 @@
+package com.travel.travelrecommendation1.catalog;
+
+import com.travel.travelrecommendation1.cache.RecommendationCache;
+import com.travel.travelrecommendation1.cache.RecommendationCacheKey;
+import com.travel.travelrecommendation1.dto.RecommendationRequest;
+import com.travel.travelrecommendation1.dto.RecommendationResponse;
+import com.travel.travelrecommendation1.model.Destination;
+import com.travel.travelrecommendation1.repository.DestinationRepository;
+import com.travel.travelrecommendation1.scoring.ScoredCandidate;
+import com.travel.travelrecommendation1.scoring.ScoringEngine;
+import com.travel.travelrecommendation1.scoring.ScoringQuery;
+import com.travel.travelrecommendation1.scoring.ScoringRules;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+@SpringBootTest(properties = "recommendation.polling-enabled=false")
+@ActiveProfiles("test")
+class DestinationCatalogTests {
+
+    private static final String[] INTERESTS = { "beach", "culture", "food", "nature", "adventure", "history" };
+
+    @Autowired
+    private DestinationCatalog catalog;
+
+    @Autowired
+    private DestinationRepository repository;
+
+    @Autowired
+    private RecommendationCache cache;
+
+    private final ScoringEngine engine = ScoringEngine.sequential();
+
+    @Test
+    void appliedChangesMatchFullReload() {
+        CatalogSnapshot before = catalog.refresh();
+        List<Destination> rows = repository.findAll(Sort.by("id"));
+
+        // A content-only edit, a price/duration change and a brand new row
+        // with an unseen country and interest
+        Destination edited = rows.get(0);
+        edited.setDescription("Edited");
+        Destination moved = rows.get(1);
+        moved.setMinBudget(moved.getMinBudget() + 300);
+        moved.setMaxDuration(moved.getMaxDuration() + 4);
+        repository.saveAll(List.of(edited, moved));
+        CatalogSnapshot patched = catalog.applyChanges();
+        assertEquals(before.version() + 1, patched.version());
+        assertSame(before.destination(2), patched.destination(2));
+
+        Destination added = new Destination();
+        added.setName("Reykjavik");
+        added.setCountry("Iceland");
+        added.setMinBudget(1500);
+        added.setMaxBudget(4000);
+        added.setMinDuration(3);
+        added.setMaxDuration(9);
+        added.setInterests("nature,aurora");
+        added.setRating(4.7);
+        repository.save(added);
+        CatalogSnapshot merged = catalog.applyChanges();
+        assertSame(merged, catalog.applyChanges());
+
+        CatalogSnapshot reloaded = CatalogSnapshot.of(0, repository.findAll(Sort.by("id")));
+        assertEquals(reloaded.size(), merged.size());
+        Random random = new Random(3);
+        for (int i = 0; i < 300; i++) {
+            RecommendationRequest request = request(random);
+            assertEquals(rank(reloaded, request), rank(merged, request));
+        }
+    }
+
+    @Test
+    void deletesAreAppliedWithoutAFullReload() {
+        Destination first = repository.save(added("Tromso", 3, 9));
+        Destination second = repository.save(added("Bergen", 2, 6));
+        CatalogSnapshot before = catalog.applyChanges();
+        int kept = before.indexOf(second.getId());
+
+        // Delete a row ahead of another and move a third to a new range
+        Destination moved = repository.findAll(Sort.by("id")).get(0);
+        moved.setMinDuration(moved.getMinDuration() + 1);
+        moved.setMaxDuration(moved.getMaxDuration() + 11);
+        repository.save(moved);
+        repository.delete(first);
+        CatalogSnapshot after = catalog.applyChanges();
+
+        assertEquals(before.version() + 1, after.version());
+        assertEquals(before.size() - 1, after.size());
+        assertEquals(-1, after.indexOf(first.getId()));
+        // Patched, not reloaded: untouched rows are the same entities
+        assertSame(before.destination(kept), after.destination(kept - 1));
+        assertSame(after, catalog.reconcile());
+
+        CatalogSnapshot reloaded = CatalogSnapshot.of(0, repository.findAll(Sort.by("id")));
+        Random random = new Random(7);
+        for (int i = 0; i < 300; i++) {
+            RecommendationRequest request = request(random);
+            assertEquals(rank(reloaded, request), rank(after, request));
+        }
+        repository.delete(second);
+        assertEquals(-1, catalog.applyChanges().indexOf(second.getId()));
+    }
+
+    @Test
+    void cacheKeepsEntriesTheChangeCannotReach() {
+        CatalogSnapshot before = catalog.refresh();
+        RecommendationRequest beach = new RecommendationRequest();
+        beach.setDuration(7);
+        beach.setInterests(List.of("beach"));
+        RecommendationRequest skiing = new RecommendationRequest();
+        skiing.setDuration(7);
+        skiing.setInterests(List.of("skiing"));
+        RecommendationResponse response = new RecommendationResponse(List.of());
+        cache.put(RecommendationCacheKey.of(beach, before.version(), ScoringRules.DEFAULT), response);
+        cache.put(RecommendationCacheKey.of(skiing, before.version(), ScoringRules.DEFAULT), response);
+
+        Destination beachDestination = null;
+        for (Destination d : repository.findAll(Sort.by("id"))) {
+            if (d.getInterests().contains("beach") && !d.getInterests().contains("skiing")) {
+                beachDestination = d;
+                break;
+            }
+        }
+        assertNotNull(beachDestination);
+        beachDestination.setRating(1.0);
+        repository.save(beachDestination);
+        CatalogSnapshot after = catalog.applyChanges();
+
+        assertNull(cache.getIfPresent(RecommendationCacheKey.of(beach, after.version(), ScoringRules.DEFAULT)));
+        assertSame(response,
+                cache.getIfPresent(RecommendationCacheKey.of(skiing, after.version(), ScoringRules.DEFAULT)));
+    }
+
+    private List<String> rank(CatalogSnapshot snapshot, RecommendationRequest request) {
+        List<String> ranked = new ArrayList<>();
+        for (ScoredCandidate candidate : engine.score(snapshot, ScoringQuery.of(request, snapshot)).ranked()) {
+            ranked.add(snapshot.id(candidate.row()) + ":" + candidate.price() + ":" + candidate.reason());
+        }
+        return ranked;
+    }
+
+    private static Destination added(String name, int minDuration, int maxDuration) {
+        Destination d = new Destination();
+        d.setName(name);
+        d.setCountry("Norway");
+        d.setMinBudget(1200);
+        d.setMaxBudget(3500);
+        d.setMinDuration(minDuration);
+        d.setMaxDuration(maxDuration);
+        d.setInterests("nature");
+        d.setRating(4.5);
+        return d;
+    }
+
+    private static RecommendationRequest request(Random random) {
+        RecommendationRequest request = new RecommendationRequest();
+        request.setDuration(1 + random.nextInt(15));
+        request.setInterests(List.of(INTERESTS[random.nextInt(INTERESTS.length)], "aurora"));
+        if (random.nextBoolean()) {
+            request.setMaxBudget(500 + random.nextInt(4000));
+        }
+        if (random.nextInt(3) == 0) {
+            request.setCountry(random.nextBoolean() ? "Iceland" : "Japan");
+        }
+        request.setLimit(1 + random.nextInt(20));
+        return request;
+    }
+}
@@ -0,0 +1,125 @@
+package com.travel.travelrecommendation1.catalog;
+
+import com.travel.travelrecommendation1.dto.FacetBucket;
+import com.travel.travelrecommendation1.dto.FacetCounts;
+import com.travel.travelrecommendation1.model.Destination;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class FacetIndexTests {
+
+    private static final String[] COUNTRIES = { "Japan", "France", "Spain", "Peru", "japan" };
+    private static final int[] BUDGET_BOUNDS = { 1000, 2000, 5000 };
+    private static final int[] DURATION_BOUNDS = { 4, 8, 15 };
+
+    @Test
+    void countsMatchAScanOfTheCatalog() {
+        Random random = new Random(25);
+        List<Destination> rows = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            rows.add(destination(random, i + 1));
+        }
+        FacetIndex index = FacetIndex.build(CatalogSnapshot.of(3, rows), BUDGET_BOUNDS, DURATION_BOUNDS);
+
+        for (int q = 0; q < 300; q++) {
+            List<String> interests = random.nextBoolean() ? null
+                    : List.of(tag(random), tag(random).toUpperCase(), "unknown");
+            String country = random.nextInt(3) == 0 ? COUNTRIES[random.nextInt(4)] : null;
+            Integer minBudget = random.nextBoolean() ? random.nextInt(6000) : null;
+            Integer maxBudget = random.nextBoolean() ? random.nextInt(8000) : null;
+            Integer duration = random.nextBoolean() ? random.nextInt(90) : null;
+
+            FacetCounts counts = index.count(interests, country, minBudget, maxBudget, duration);
+
+            Predicate<Destination> byInterest = d -> interests == null
+                    || interests.stream().anyMatch(t -> tags(d).contains(t.toLowerCase()));
+            Predicate<Destination> byCountry = d -> country == null || country.equalsIgnoreCase(d.getCountry());
+            Predicate<Destination> byBudget = d -> (minBudget == null || d.getMinBudget() >= minBudget)
+                    && (maxBudget == null || d.getMinBudget() <= maxBudget);
+            Predicate<Destination> byDuration = d -> duration == null
+                    || (d.getMinDuration() <= duration && duration <= d.getMaxDuration());
+
+            assertEquals(rows.stream().filter(byInterest.and(byCountry).and(byBudget).and(byDuration)).count(),
+                    counts.getTotal());
+            List<Destination> others = rows.stream().filter(byCountry.and(byBudget).and(byDuration)).toList();
+            for (Map.Entry<String, Integer> entry : counts.getInterests().entrySet()) {
+                assertEquals(others.stream().filter(d -> tags(d).contains(entry.getKey())).count(),
+                        (long) entry.getValue(), entry.getKey());
+            }
+            others = rows.stream().filter(byInterest.and(byBudget).and(byDuration)).toList();
+            Map<String, Integer> countries = new TreeMap<>();
+            for (Destination d : others) {
+                countries.merge(d.getCountry(), 1, Integer::sum);
+            }
+            for (String name : COUNTRIES) {
+                countries.putIfAbsent(name, 0);
+            }
+            assertEquals(countries, new TreeMap<>(counts.getCountries()));
+            others = rows.stream().filter(byInterest.and(byCountry).and(byDuration)).toList();
+            for (FacetBucket bucket : counts.getBudgets()) {
+                assertEquals(others.stream().filter(d -> in(d.getMinBudget(), bucket)).count(),
+                        (long) bucket.getCount());
+            }
+            others = rows.stream().filter(byInterest.and(byCountry).and(byBudget)).toList();
+            for (FacetBucket bucket : counts.getDurations()) {
+                int max = bucket.getMax() != null ? bucket.getMax() : Integer.MAX_VALUE;
+                assertEquals(others.stream()
+                        .filter(d -> d.getMinDuration() <= max && d.getMaxDuration() >= bucket.getMin())
+                        .count(), (long) bucket.getCount());
+            }
+        }
+    }
+
+    @Test
+    void bucketsFollowTheConfiguredBounds() {
+        FacetCounts counts = FacetIndex.build(CatalogSnapshot.of(1, List.of()), BUDGET_BOUNDS, DURATION_BOUNDS)
+                .count(null, null, null, null, null);
+        List<FacetBucket> budgets = counts.getBudgets();
+        assertEquals(4, budgets.size());
+        assertEquals(0, budgets.get(0).getMin());
+        assertEquals(999, budgets.get(0).getMax());
+        assertEquals(5000, budgets.get(3).getMin());
+        assertNull(budgets.get(3).getMax());
+        assertEquals(1, counts.getDurations().get(0).getMin());
+        assertEquals(3, counts.getDurations().get(0).getMax());
+        assertEquals(0, counts.getTotal());
+    }
+
+    private static boolean in(int value, FacetBucket bucket) {
+        return (bucket.getMin() == 0 || value >= bucket.getMin())
+                && (bucket.getMax() == null || value <= bucket.getMax());
+    }
+
+    private static Set<String> tags(Destination d) {
+        return Destination.parseInterests(d.getInterests());
+    }
+
+    // Enough distinct tags for interest masks wider than one word
+    private static String tag(Random random) {
+        return "tag" + random.nextInt(80);
+    }
+
+    private static Destination destination(Random random, long id) {
+        int minDuration = 1 + random.nextInt(20);
+        Destination d = new Destination();
+        d.setId(id);
+        d.setName("Faceted " + id);
+        d.setCountry(COUNTRIES[random.nextInt(COUNTRIES.length)]);
+        d.setMinBudget(random.nextInt(7000));
+        d.setMaxBudget(8000);
+        d.setMinDuration(minDuration);
+        d.setMaxDuration(minDuration + random.nextInt(random.nextInt(10) == 0 ? 70 : 10));
+        d.setInterests(tag(random) + "," + tag(random) + "," + tag(random));
+        return d;
+    }
+}
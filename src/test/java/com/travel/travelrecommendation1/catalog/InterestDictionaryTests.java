@@ -0,0 +1,59 @@
+package com.travel.travelrecommendation1.catalog;
+
+import com.travel.travelrecommendation1.model.Destination;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InterestDictionaryTests {
+
+    @Test
+    void tagsMatchIgnoringCaseAndSurroundingSpace() {
+        CatalogSnapshot catalog = CatalogSnapshot.of(1, List.of(destination(1, " Food,HISTORY ,beach")));
+        InterestDictionary interests = catalog.interests();
+        assertEquals(interests.bitOf("food"), interests.bitOf(" FOOD "));
+        assertTrue(interests.bitOf("history") >= 0);
+
+        // The baseline compared tags as they were spelled, so this matched 0
+        assertEquals(3, catalog.interestMatches(0, interests.mask(List.of("food", "History", " BEACH"))));
+    }
+
+    @Test
+    void repeatedInterestsCountOnce() {
+        CatalogSnapshot catalog = CatalogSnapshot.of(1, List.of(destination(1, "food,beach")));
+        InterestDictionary interests = catalog.interests();
+        // The baseline counted every repeat, so this matched 3
+        assertEquals(1, catalog.interestMatches(0, interests.mask(List.of("food", "food", "Food"))));
+        assertEquals(2, catalog.interestMatches(0, interests.mask(Arrays.asList("beach", null, "food", "skiing"))));
+    }
+
+    @Test
+    void masksWiderThanOneWordKeepEveryTag() {
+        StringBuilder csv = new StringBuilder();
+        for (int t = 0; t < 100; t++) {
+            csv.append(csv.length() > 0 ? "," : "").append("tag").append(t);
+        }
+        CatalogSnapshot catalog = CatalogSnapshot.of(1, List.of(destination(1, csv.toString())));
+        InterestDictionary interests = catalog.interests();
+        assertTrue(interests.words() > 1);
+        assertEquals(3, catalog.interestMatches(0, interests.mask(List.of("tag0", "tag63", "TAG99"))));
+    }
+
+    private static Destination destination(long id, String interests) {
+        Destination d = new Destination();
+        d.setId(id);
+        d.setName("Destination " + id);
+        d.setCountry("Japan");
+        d.setMinBudget(500);
+        d.setMaxBudget(2000);
+        d.setMinDuration(3);
+        d.setMaxDuration(7);
+        d.setInterests(interests);
+        d.setRating(4.0);
+        return d;
+    }
+}
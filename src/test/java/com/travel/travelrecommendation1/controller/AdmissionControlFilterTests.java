@@ -0,0 +1,139 @@
+package com.travel.travelrecommendation1.controller;
+
+import com.travel.travelrecommendation1.config.WebConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.Filter;
+import jakarta.servlet.http.HttpServlet;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdmissionControlFilterTests {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void excessRequestsAreShedQuickly() throws Exception {
+        AdmissionControlFilter filter = new AdmissionControlFilter(true, 1, 1, Duration.ofMillis(500), registry);
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService threads = Executors.newFixedThreadPool(2);
+        try {
+            // Holds the only slot
+            Future<MockHttpServletResponse> busy = threads.submit(() -> call(filter, () -> {
+                entered.countDown();
+                release.await();
+            }));
+            assertTrue(entered.await(5, TimeUnit.SECONDS));
+
+            // Takes the only queue place and times out there
+            Future<MockHttpServletResponse> queued = threads.submit(() -> call(filter, () -> {
+            }));
+            awaitQueued(1);
+            MockHttpServletResponse full = call(filter, () -> {
+            });
+            assertEquals(429, full.getStatus());
+            assertEquals(503, queued.get(5, TimeUnit.SECONDS).getStatus());
+            assertEquals("1", full.getHeader("Retry-After"));
+
+            release.countDown();
+            assertEquals(200, busy.get(5, TimeUnit.SECONDS).getStatus());
+            assertEquals(200, call(filter, () -> {
+            }).getStatus());
+        } finally {
+            release.countDown();
+            threads.shutdown();
+        }
+        assertEquals(2, registry.get("recommendation.admission").tag("outcome", "admitted").counter().count());
+    }
+
+    @Test
+    void onlyScoringRequestsAreControlled() throws Exception {
+        AdmissionControlFilter filter = new AdmissionControlFilter(true, 1, 0, Duration.ZERO, registry);
+        assertNull(arrival(filter, "GET", "/actuator/health"));
+        assertNull(arrival(filter, "GET", "/api/recommendations/destinations"));
+        assertNull(arrival(filter, "GET", "/api/recommendations/facets"));
+        assertNull(arrival(filter, "OPTIONS", "/api/recommendations"));
+
+        assertNotNull(arrival(filter, "POST", "/api/recommendations"));
+        assertNotNull(arrival(filter, "POST", "/api/recommendations/batch"));
+        assertNotNull(arrival(filter, "POST", "/api/recommendations/stream"));
+        assertNotNull(arrival(filter, "POST", "/api/recommendations/shard"));
+    }
+
+    @Test
+    void rejectionsCarryCorsHeaders() throws Exception {
+        AdmissionControlFilter filter = new AdmissionControlFilter(true, 1, 0, Duration.ZERO, registry);
+        Filter cors = new WebConfig().corsFilter().getFilter();
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService threads = Executors.newSingleThreadExecutor();
+        try {
+            Future<MockHttpServletResponse> busy = threads.submit(() -> call(filter, () -> {
+                entered.countDown();
+                release.await();
+            }));
+            assertTrue(entered.await(5, TimeUnit.SECONDS));
+
+            MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/recommendations");
+            request.addHeader(HttpHeaders.ORIGIN, "http://localhost:3000");
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            new MockFilterChain(new HttpServlet() {
+            }, cors, filter).doFilter(request, response);
+            assertEquals(429, response.getStatus());
+            assertEquals("http://localhost:3000", response.getHeader(HttpHeaders.ACCESS_CONTROL_ALLOW_ORIGIN));
+
+            release.countDown();
+            assertEquals(200, busy.get(5, TimeUnit.SECONDS).getStatus());
+        } finally {
+            release.countDown();
+            threads.shutdown();
+        }
+    }
+
+    private static Object arrival(AdmissionControlFilter filter, String method, String uri) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, uri);
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+        });
+        return request.getAttribute(AdmissionControlFilter.ARRIVAL_NANOS);
+    }
+
+    private interface Handler {
+        void handle() throws Exception;
+    }
+
+    private static MockHttpServletResponse call(AdmissionControlFilter filter, Handler handler) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/recommendations");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, (req, res) -> {
+            try {
+                handler.handle();
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        return response;
+    }
+
+    private void awaitQueued(int requests) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (registry.get("recommendation.admission.queued").gauge().value() < requests
+                && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+    }
+}
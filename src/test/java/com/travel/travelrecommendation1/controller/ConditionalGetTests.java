@@ -0,0 +1,133 @@
+package com.travel.travelrecommendation1.controller;
+
+import com.travel.travelrecommendation1.cache.DestinationCache;
+import com.travel.travelrecommendation1.catalog.DestinationCatalog;
+import com.travel.travelrecommendation1.model.Destination;
+import com.travel.travelrecommendation1.repository.DestinationRepository;
+import com.travel.travelrecommendation1.service.RecommendationService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.ByteArrayInputStream;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "recommendation.polling-enabled=false")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ConditionalGetTests {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private RecommendationService service;
+
+    @Autowired
+    private DestinationCatalog catalog;
+
+    @Autowired
+    private DestinationRepository repository;
+
+    @Autowired
+    private DestinationCache destinationCache;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void detailIsServedFromCacheAndRevalidatedByETag() throws Exception {
+        catalog.refresh();
+        Destination row = repository.findAll(Sort.by("id")).get(0);
+        String url = "/api/recommendations/destinations/" + row.getId();
+
+        String etag = etag(url);
+        assertSame(service.getDestinationById(row.getId()), service.getDestinationById(row.getId()));
+        mvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        // The edit reaches the cache through the catalog's change polling
+        row.setDescription("Edited " + System.nanoTime());
+        repository.save(row);
+        catalog.applyChanges();
+        MvcResult changed = mvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andReturn();
+        assertNotEquals(etag, changed.getResponse().getHeader(HttpHeaders.ETAG));
+        assertEquals(row.getDescription(), service.getDestinationById(row.getId()).value().getDescription());
+    }
+
+    @Test
+    void editsOutsideJpaChangeTheETag() throws Exception {
+        Destination row = repository.findAll(Sort.by("id")).get(0);
+        String url = "/api/recommendations/destinations/" + row.getId();
+        String page = "/api/recommendations/destinations?size=5";
+        String etag = etag(url);
+        String pageEtag = etag(page);
+
+        // Neither the version nor updated_at moves, so only the bytes tell
+        jdbcTemplate.update("UPDATE destinations SET name = ? WHERE id = ?", "Renamed " + System.nanoTime(),
+                row.getId());
+        destinationCache.invalidateAll();
+        mvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, etag)).andExpect(status().isOk());
+        mvc.perform(get(page).header(HttpHeaders.IF_NONE_MATCH, pageEtag)).andExpect(status().isOk());
+    }
+
+    @Test
+    void listPagesAreRevalidatedByETag() throws Exception {
+        String url = "/api/recommendations/destinations?size=5";
+        String etag = etag(url);
+        mvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, etag)).andExpect(status().isNotModified());
+        mvc.perform(get(url + "&after=1").header(HttpHeaders.IF_NONE_MATCH, etag)).andExpect(status().isOk());
+    }
+
+    @Test
+    void gzipIsServedToClientsThatAcceptIt() throws Exception {
+        String url = "/api/recommendations/destinations?size=20";
+        MvcResult plain = mvc.perform(get(url)).andExpect(status().isOk()).andReturn();
+        MvcResult gzipped = mvc.perform(get(url).header(HttpHeaders.ACCEPT_ENCODING, "br;q=1.0, gzip;q=0.8"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andReturn();
+        assertTrue(gzipped.getResponse().getHeaders(HttpHeaders.VARY).contains(HttpHeaders.ACCEPT_ENCODING));
+        byte[] json = plain.getResponse().getContentAsByteArray();
+        byte[] compressed = gzipped.getResponse().getContentAsByteArray();
+        assertTrue(compressed.length < json.length);
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            assertArrayEquals(json, in.readAllBytes());
+        }
+        // Each encoding has its own strong validator
+        String etag = gzipped.getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(plain.getResponse().getHeader(HttpHeaders.ETAG), etag);
+        mvc.perform(get(url).header(HttpHeaders.ACCEPT_ENCODING, "gzip").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+        mvc.perform(get(url).header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0"))
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING));
+    }
+
+    private String etag(String url) throws Exception {
+        MvcResult result = mvc.perform(get(url)).andExpect(status().isOk()).andReturn();
+        String etag = result.getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(etag);
+        return etag;
+    }
+}
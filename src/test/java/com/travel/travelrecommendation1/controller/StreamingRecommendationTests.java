@@ -0,0 +1,122 @@
+package com.travel.travelrecommendation1.controller;
+
+import com.travel.travelrecommendation1.catalog.DestinationCatalog;
+import com.travel.travelrecommendation1.dto.RecommendationRequest;
+import com.travel.travelrecommendation1.dto.RecommendationWithReason;
+import com.travel.travelrecommendation1.model.Destination;
+import com.travel.travelrecommendation1.repository.DestinationRepository;
+import com.travel.travelrecommendation1.service.RecommendationService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "recommendation.polling-enabled=false")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class StreamingRecommendationTests {
+
+    private static final String URL = "/api/recommendations/stream";
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private RecommendationService service;
+
+    @Autowired
+    private DestinationRepository repository;
+
+    @Autowired
+    private DestinationCatalog catalog;
+
+    @Autowired
+    private JsonMapper jsonMapper;
+
+    @Test
+    void streamsTheSameRankingAsNdjsonAndServerSentEvents() throws Exception {
+        seed();
+        RecommendationRequest request = new RecommendationRequest();
+        request.setBudget(3000);
+        request.setDuration(5);
+        request.setInterests(List.of("culture", "food"));
+        request.setLimit(500);
+        String body = jsonMapper.writeValueAsString(request);
+
+        // Scored for the stream, then replayed from the cache the second time
+        MvcResult ndjson = mvc.perform(post(URL).contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "application/x-ndjson;charset=UTF-8"))
+                .andExpect(header().string(RecommendationController.PARTIAL_HEADER, "false"))
+                .andReturn();
+        List<String> expected = new ArrayList<>();
+        for (RecommendationWithReason r : service.getRecommendations(request).getRecommendations()) {
+            expected.add(jsonMapper.writeValueAsString(r));
+        }
+        assertTrue(expected.size() > 100);
+        assertEquals(expected, List.of(ndjson.getResponse().getContentAsString().split("\n")));
+
+        MvcResult sse = mvc.perform(post(URL).contentType(MediaType.APPLICATION_JSON).content(body)
+                        .header(HttpHeaders.ACCEPT, "application/x-ndjson;q=0.5, text/event-stream"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "text/event-stream;charset=UTF-8"))
+                .andReturn();
+        List<String> events = new ArrayList<>();
+        for (String event : sse.getResponse().getContentAsString().split("\n\n")) {
+            assertTrue(event.startsWith("data: "), event);
+            events.add(event.substring("data: ".length()));
+        }
+        assertEquals(expected, events);
+    }
+
+    @Test
+    void invalidRequestIsRejectedBeforeStreaming() throws Exception {
+        mvc.perform(post(URL).contentType(MediaType.APPLICATION_JSON).content("{\"budget\":0,\"duration\":3}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void onlyResponsesBuiltInFullCapTheLimit() throws Exception {
+        String body = "{\"budget\":3000,\"duration\":3,\"interests\":[\"food\"],\"limit\":5000}";
+        mvc.perform(post(URL).contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isOk());
+        mvc.perform(post("/api/recommendations").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isBadRequest());
+        mvc.perform(post("/api/recommendations/batch").contentType(MediaType.APPLICATION_JSON)
+                        .content("[" + body + "]"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private void seed() {
+        List<Destination> rows = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            Destination d = new Destination();
+            d.setName("Streamed " + i);
+            d.setCountry(i % 3 == 0 ? "Japan" : "Peru");
+            d.setMinBudget(500 + i * 7);
+            d.setMaxBudget(6000);
+            d.setMinDuration(1 + i % 4);
+            d.setMaxDuration(8);
+            d.setInterests(i % 2 == 0 ? "culture,food" : "food,nature");
+            d.setRating(4.0 + (i % 10) / 10.0);
+            rows.add(d);
+        }
+        repository.saveAll(rows);
+        catalog.refresh();
+    }
+}
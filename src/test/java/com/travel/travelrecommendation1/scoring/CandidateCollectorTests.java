@@ -0,0 +1,173 @@
+package com.travel.travelrecommendation1.scoring;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CandidateCollectorTests {
+
+    private static final int COUNTRIES = 4;
+    private static final int BONUS = 1;
+
+    @Test
+    void tiesAreBrokenByRowOrder() {
+        List<ScoredCandidate> candidates = new ArrayList<>();
+        for (int row = 0; row < 200; row++) {
+            candidates.add(candidate(row, row % COUNTRIES, 5));
+        }
+        Collections.shuffle(candidates, new Random(3));
+
+        for (boolean diversify : new boolean[] { false, true }) {
+            CandidateCollector collector = new CandidateCollector(10, diversify, COUNTRIES, BONUS);
+            candidates.forEach(collector::offer);
+            List<Integer> rows = rows(collector.ranked());
+            assertEquals(List.of(0, 1, 2, 3, 4, 5, 6, 7, 8, 9), rows);
+            // A later row with the same score cannot displace what was kept
+            assertFalse(collector.wouldAccept(0, 5, 200));
+            assertTrue(collector.wouldAccept(0, 6, 200));
+        }
+    }
+
+    @Test
+    void mergedPartsRankLikeOneScan() {
+        Random random = new Random(5);
+        for (int i = 0; i < 200; i++) {
+            List<ScoredCandidate> candidates = randomCandidates(random, 300);
+            int limit = 1 + random.nextInt(20);
+            boolean diversify = random.nextBoolean();
+            CandidateCollector whole = new CandidateCollector(limit, diversify, COUNTRIES, BONUS);
+            candidates.forEach(whole::offer);
+
+            // Parts in scan order, merged in reverse
+            List<CandidateCollector> parts = new ArrayList<>();
+            for (int from = 0; from < candidates.size(); from += 37) {
+                CandidateCollector part = new CandidateCollector(limit, diversify, COUNTRIES, BONUS);
+                candidates.subList(from, Math.min(from + 37, candidates.size())).forEach(part::offer);
+                parts.add(part);
+            }
+            CandidateCollector merged = new CandidateCollector(limit, diversify, COUNTRIES, BONUS);
+            for (int p = parts.size() - 1; p >= 0; p--) {
+                merged.merge(parts.get(p));
+            }
+            assertEquals(rows(whole.ranked()), rows(merged.ranked()));
+        }
+    }
+
+    @Test
+    void dominantCountryGivesTheOthersTheBonus() {
+        // Japan fills the top 4 by score; France is one point behind
+        List<ScoredCandidate> candidates = new ArrayList<>();
+        for (int row = 0; row < 6; row++) {
+            candidates.add(candidate(row, 0, 10));
+        }
+        candidates.add(candidate(6, 1, 9));
+        candidates.add(candidate(7, 1, 9));
+        candidates.add(candidate(8, 2, 8));
+
+        CandidateCollector collector = new CandidateCollector(4, true, COUNTRIES, BONUS);
+        candidates.forEach(collector::offer);
+        List<ScoredCandidate> ranked = collector.ranked();
+        // With the bonus France ties Japan at 10 and the original ranking decides
+        assertEquals(List.of(0, 1, 2, 3), rows(ranked));
+
+        collector = new CandidateCollector(4, true, COUNTRIES, 2);
+        candidates.forEach(collector::offer);
+        ranked = collector.ranked();
+        assertEquals(List.of(6, 7, 0, 1), rows(ranked));
+        assertTrue(ranked.get(0).hasDiversityBonus());
+        assertFalse(ranked.get(2).hasDiversityBonus());
+
+        // Exactly half is not dominant
+        collector = new CandidateCollector(4, true, COUNTRIES, 2);
+        for (ScoredCandidate candidate : List.of(candidate(0, 0, 10), candidate(1, 0, 10), candidate(2, 1, 10),
+                candidate(3, 2, 10), candidate(4, 3, 1))) {
+            collector.offer(candidate);
+        }
+        assertEquals(List.of(0, 1, 2, 3), rows(collector.ranked()));
+    }
+
+    @Test
+    void diversityMatchesAFullSortOfEveryCandidate() {
+        Random random = new Random(9);
+        for (int i = 0; i < 500; i++) {
+            List<ScoredCandidate> candidates = randomCandidates(random, 1 + random.nextInt(150));
+            int limit = 1 + random.nextInt(12);
+            int bonus = random.nextInt(4);
+            CandidateCollector collector = new CandidateCollector(limit, true, COUNTRIES, bonus);
+            candidates.forEach(collector::offer);
+            assertEquals(fullSort(candidates, limit, bonus), rows(collector.ranked()));
+        }
+    }
+
+    @Test
+    void drainingHandsOutTheRankingOnce() {
+        Random random = new Random(13);
+        for (int i = 0; i < 200; i++) {
+            List<ScoredCandidate> candidates = randomCandidates(random, 1 + random.nextInt(150));
+            int limit = 1 + random.nextInt(12);
+            boolean diversify = random.nextBoolean();
+            CandidateCollector collector = new CandidateCollector(limit, diversify, COUNTRIES, BONUS);
+            candidates.forEach(collector::offer);
+            List<Integer> expected = rows(collector.ranked());
+
+            List<ScoredCandidate> drained = new ArrayList<>();
+            collector.drainRanked().forEachRemaining(drained::add);
+            assertEquals(expected, rows(drained));
+            assertTrue(collector.ranked().isEmpty());
+        }
+    }
+
+    // Unbounded reference: sort everything, look for a country holding more
+    // than half of the window, then re-sort everything with the bonus
+    private static List<Integer> fullSort(List<ScoredCandidate> candidates, int limit, int bonus) {
+        List<ScoredCandidate> sorted = new ArrayList<>(candidates);
+        sorted.sort(ScoredCandidate.RANK);
+        List<ScoredCandidate> window = sorted.subList(0, Math.min(limit, sorted.size()));
+        int[] counts = new int[COUNTRIES];
+        int dominant = -1;
+        for (ScoredCandidate candidate : window) {
+            if (++counts[candidate.countryId()] > limit / 2) {
+                dominant = candidate.countryId();
+                break;
+            }
+        }
+        if (dominant < 0) {
+            return rows(window);
+        }
+        int country = dominant;
+        sorted.sort(Comparator.<ScoredCandidate>comparingInt(c -> -(c.score() + (c.countryId() != country ? bonus : 0)))
+                .thenComparing(ScoredCandidate.RANK));
+        return rows(sorted.subList(0, Math.min(limit, sorted.size())));
+    }
+
+    // Rows in scan order, few distinct scores so ties are common
+    private static List<ScoredCandidate> randomCandidates(Random random, int size) {
+        List<ScoredCandidate> candidates = new ArrayList<>(size);
+        for (int row = 0; row < size; row++) {
+            // Skewed towards country 0 so it often dominates
+            int country = random.nextInt(3) == 0 ? random.nextInt(COUNTRIES) : 0;
+            candidates.add(candidate(row, country, 1 + random.nextInt(6)));
+        }
+        return candidates;
+    }
+
+    private static List<Integer> rows(List<ScoredCandidate> ranked) {
+        List<Integer> rows = new ArrayList<>(ranked.size());
+        for (ScoredCandidate candidate : ranked) {
+            rows.add(candidate.row());
+        }
+        return rows;
+    }
+
+    private static ScoredCandidate candidate(int row, int country, int score) {
+        return new ScoredCandidate(row, country, score, 0, 1, 100, 5);
+    }
+}
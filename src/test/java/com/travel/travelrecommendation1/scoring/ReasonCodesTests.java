@@ -0,0 +1,62 @@
+package com.travel.travelrecommendation1.scoring;
+
+import com.travel.travelrecommendation1.catalog.CatalogSnapshot;
+import com.travel.travelrecommendation1.dto.RecommendationRequest;
+import com.travel.travelrecommendation1.model.Destination;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ReasonCodesTests {
+
+    @Test
+    void phrasesKeepTheirOriginalOrder() {
+        int all = ReasonCodes.UNDER_BUDGET | ReasonCodes.FITS_BUDGET | ReasonCodes.OVER_BUDGET
+                | ReasonCodes.EXACT_DURATION | ReasonCodes.PREFERRED_COUNTRY | ReasonCodes.NOT_ENOUGH_TIME
+                | ReasonCodes.FITS_DURATION;
+        assertEquals("Fits your duration. Not enough time. In your preferred country. Exact duration match. "
+                + "Over budget. Fits your budget range. Under budget. Matches 3 of your interests. Diversity bonus.",
+                ReasonCodes.render(all, 3, true));
+        assertEquals("Not enough time. Under budget.",
+                ReasonCodes.render(ReasonCodes.UNDER_BUDGET | ReasonCodes.NOT_ENOUGH_TIME, 0, false));
+    }
+
+    @Test
+    void emptyReasonsStayEmpty() {
+        assertEquals("", ReasonCodes.render(0, 0, false));
+        assertEquals("Diversity bonus.", ReasonCodes.render(0, 0, true));
+        assertEquals("Matches 1 of your interests.", ReasonCodes.render(0, 1, false));
+    }
+
+    @Test
+    void scoredCandidatesRenderWhatTheScorerDecided() {
+        Destination d = new Destination();
+        d.setId(1L);
+        d.setName("Kyoto");
+        d.setCountry("Japan");
+        d.setMinBudget(700);
+        d.setMaxBudget(3000);
+        d.setMinDuration(7);
+        d.setMaxDuration(14);
+        d.setInterests("culture,food,temples");
+        d.setRating(4.8);
+        CatalogSnapshot catalog = CatalogSnapshot.of(1, List.of(d));
+
+        RecommendationRequest request = new RecommendationRequest();
+        request.setBudget(5000);
+        request.setDuration(7);
+        request.setCountry("japan");
+        request.setMinBudget(1000);
+        request.setInterests(List.of("food", "Culture", "beach"));
+        List<ScoredCandidate> ranked = ScoringEngine.sequential().score(catalog, ScoringQuery.of(request, catalog))
+                .ranked();
+
+        assertEquals(1, ranked.size());
+        assertEquals(ReasonCodes.FITS_DURATION | ReasonCodes.PREFERRED_COUNTRY | ReasonCodes.EXACT_DURATION
+                | ReasonCodes.UNDER_BUDGET, ranked.get(0).reasonFlags());
+        assertEquals("Fits your duration. In your preferred country. Exact duration match. Under budget. "
+                + "Matches 2 of your interests.", ranked.get(0).reason());
+    }
+}
@@ -0,0 +1,95 @@
+package com.travel.travelrecommendation1.scoring;
+
+import com.travel.travelrecommendation1.catalog.CatalogSnapshot;
+import com.travel.travelrecommendation1.dto.RecommendationRequest;
+import com.travel.travelrecommendation1.model.Destination;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class RecommendationScorerTests {
+
+    private static final String[] COUNTRIES = { "Japan", "France", "Spain", "USA", "Italy" };
+    private static final String[] INTERESTS = { "beach", "culture", "food", "nature", "adventure", "mountain" };
+
+    private final RecommendationScorer scorer = new RecommendationScorer();
+
+    @Test
+    void batchScanMatchesSingleRequests() {
+        Random random = new Random(6);
+        CatalogSnapshot catalog = CatalogSnapshot.of(1, catalog(random, 2000));
+        for (int batch = 0; batch < 20; batch++) {
+            ScoringQuery[] queries = new ScoringQuery[1 + random.nextInt(40)];
+            CandidateCollector[] collectors = new CandidateCollector[queries.length];
+            for (int q = 0; q < queries.length; q++) {
+                queries[q] = ScoringQuery.of(request(random), catalog);
+                collectors[q] = queries[q].newCollector(catalog);
+            }
+            scorer.scoreAll(catalog, queries, collectors, Deadline.NONE);
+            for (int q = 0; q < queries.length; q++) {
+                CandidateCollector single = queries[q].newCollector(catalog);
+                for (int i = 0; i < catalog.size(); i++) {
+                    scorer.score(catalog, i, queries[q], single);
+                }
+                assertEquals(render(single.ranked()), render(collectors[q].ranked()));
+                assertEquals(catalog.size(), collectors[q].stats().scanned());
+                assertFalse(collectors[q].partial());
+            }
+        }
+    }
+
+    private static List<String> render(List<ScoredCandidate> ranked) {
+        List<String> rendered = new ArrayList<>();
+        for (ScoredCandidate candidate : ranked) {
+            rendered.add(candidate.row() + 1 + ":" + candidate.reason());
+        }
+        return rendered;
+    }
+
+    private static List<Destination> catalog(Random random, int size) {
+        List<Destination> rows = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            int minDuration = 1 + random.nextInt(10);
+            int minBudget = 200 + random.nextInt(30) * 100;
+            Destination d = new Destination();
+            d.setId(i + 1L);
+            d.setName("Destination " + (i + 1));
+            d.setCountry(COUNTRIES[random.nextInt(COUNTRIES.length)]);
+            d.setMinBudget(minBudget);
+            d.setMaxBudget(minBudget * 3);
+            d.setMinDuration(minDuration);
+            d.setMaxDuration(minDuration + random.nextInt(12));
+            d.setInterests(INTERESTS[random.nextInt(INTERESTS.length)] + ","
+                    + INTERESTS[random.nextInt(INTERESTS.length)]);
+            d.setRating(4.5);
+            rows.add(d);
+        }
+        return rows;
+    }
+
+    private static RecommendationRequest request(Random random) {
+        RecommendationRequest request = new RecommendationRequest();
+        request.setBudget(100 + random.nextInt(5000));
+        request.setDuration(1 + random.nextInt(20));
+        request.setInterests(List.of(INTERESTS[random.nextInt(INTERESTS.length)]));
+        if (random.nextInt(3) == 0) {
+            request.setCountry(COUNTRIES[random.nextInt(COUNTRIES.length)]);
+        }
+        if (random.nextBoolean()) {
+            request.setMinBudget(random.nextInt(3000));
+        }
+        if (random.nextBoolean()) {
+            request.setMaxBudget(200 + random.nextInt(8000));
+        }
+        if (random.nextBoolean()) {
+            request.setMaxDuration(1 + random.nextInt(25));
+        }
+        request.setLimit(1 + random.nextInt(30));
+        return request;
+    }
+}
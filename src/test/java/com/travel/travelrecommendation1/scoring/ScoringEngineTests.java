@@ -0,0 +1,153 @@
+package com.travel.travelrecommendation1.scoring;
+
+import com.travel.travelrecommendation1.catalog.CatalogSnapshot;
+import com.travel.travelrecommendation1.dto.RecommendationRequest;
+import com.travel.travelrecommendation1.model.Destination;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ScoringEngineTests {
+
+    private static final String[] COUNTRIES = { "Japan", "France", "Spain", "USA", "Italy" };
+    private static final String[] INTERESTS = { "beach", "culture", "food", "nature", "adventure", "mountain" };
+
+    // Tiny threshold and chunk size so every request is split many ways
+    private final ScoringEngine parallel = new ScoringEngine(true, 4, 0, 16);
+    private final ScoringEngine sequential = ScoringEngine.sequential();
+
+    @AfterEach
+    void shutdown() {
+        parallel.shutdown();
+    }
+
+    @Test
+    void parallelRankingMatchesSequential() {
+        Random random = new Random(7);
+        CatalogSnapshot catalog = CatalogSnapshot.of(1, catalog(random, 2000));
+        for (int i = 0; i < 200; i++) {
+            ScoringQuery query = ScoringQuery.of(request(random), catalog);
+            List<String> expected = render(sequential.score(catalog, query).ranked());
+            List<String> actual = render(parallel.score(catalog, query).ranked());
+            assertEquals(expected, actual);
+        }
+    }
+
+    @Test
+    void diversityBonusIsAppliedAcrossChunks() {
+        // Mostly one country, so the diversity re-rank kicks in
+        List<Destination> rows = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            rows.add(destination(i + 1, i % 10 == 0 ? "France" : "Japan", 1000, 5, 10, "beach,food"));
+        }
+        CatalogSnapshot catalog = CatalogSnapshot.of(1, rows);
+        RecommendationRequest request = new RecommendationRequest();
+        request.setBudget(2000);
+        request.setDuration(7);
+        request.setInterests(List.of("beach"));
+        ScoringQuery query = ScoringQuery.of(request, catalog);
+
+        List<String> expected = render(sequential.score(catalog, query).ranked());
+        assertEquals(expected, render(parallel.score(catalog, query).ranked()));
+        assertFalse(expected.isEmpty());
+        assertEquals("11:Fits your duration. Exact duration match. Fits your budget range. "
+                + "Matches 1 of your interests. Diversity bonus.", expected.get(1));
+    }
+
+    @Test
+    void expiredDeadlineReturnsTheBestOfTheRowsScored() {
+        List<Destination> rows = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            rows.add(destination(i + 1, "Japan", 1000, 5, 10, "beach"));
+        }
+        CatalogSnapshot catalog = CatalogSnapshot.of(1, rows);
+        RecommendationRequest request = new RecommendationRequest();
+        request.setBudget(5000);
+        request.setDuration(7);
+        request.setInterests(List.of("beach"));
+        ScoringQuery query = ScoringQuery.of(request, catalog);
+        Deadline expired = Deadline.of(System.nanoTime(), Duration.ofNanos(1));
+
+        assertFalse(sequential.score(catalog, query, Deadline.after(Duration.ofMinutes(1))).partial());
+        for (ScoringEngine engine : List.of(sequential, new ScoringEngine(true, 4, 0, 4096))) {
+            CandidateCollector collector = engine.score(catalog, query, expired);
+            assertTrue(collector.partial());
+            assertTrue(collector.stats().scanned() < catalog.size());
+            // Left unscored rather than pruned
+            assertEquals(catalog.size(), collector.stats().scanned() + collector.stats().skippedDeadline());
+            // The first rows are always scored, so there is still an answer
+            assertEquals(10, collector.ranked().size());
+            engine.shutdown();
+        }
+
+        CandidateCollector batched = query.newCollector(catalog);
+        sequential.scorer().scoreAll(catalog, new ScoringQuery[] { query }, new CandidateCollector[] { batched },
+                expired);
+        assertTrue(batched.partial());
+        assertEquals(ScoringEngine.CHECK_INTERVAL, batched.stats().scanned());
+        assertEquals(catalog.size(), batched.stats().scanned() + batched.stats().skippedDeadline());
+    }
+
+    private static List<String> render(List<ScoredCandidate> ranked) {
+        List<String> rendered = new ArrayList<>();
+        for (ScoredCandidate candidate : ranked) {
+            rendered.add(candidate.row() + 1 + ":" + candidate.reason());
+        }
+        return rendered;
+    }
+
+    private static List<Destination> catalog(Random random, int size) {
+        List<Destination> rows = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            int minDuration = 1 + random.nextInt(10);
+            rows.add(destination(i + 1, COUNTRIES[random.nextInt(COUNTRIES.length)],
+                    200 + random.nextInt(30) * 100, minDuration, minDuration + random.nextInt(12),
+                    INTERESTS[random.nextInt(INTERESTS.length)] + "," + INTERESTS[random.nextInt(INTERESTS.length)]));
+        }
+        return rows;
+    }
+
+    private static Destination destination(long id, String country, int minBudget, int minDuration,
+            int maxDuration, String interests) {
+        Destination d = new Destination();
+        d.setId(id);
+        d.setName("Destination " + id);
+        d.setCountry(country);
+        d.setMinBudget(minBudget);
+        d.setMaxBudget(minBudget * 3);
+        d.setMinDuration(minDuration);
+        d.setMaxDuration(maxDuration);
+        d.setInterests(interests);
+        d.setRating(4.5);
+        return d;
+    }
+
+    private static RecommendationRequest request(Random random) {
+        RecommendationRequest request = new RecommendationRequest();
+        request.setBudget(100 + random.nextInt(5000));
+        request.setDuration(1 + random.nextInt(20));
+        request.setInterests(List.of(INTERESTS[random.nextInt(INTERESTS.length)]));
+        if (random.nextInt(3) == 0) {
+            request.setCountry(COUNTRIES[random.nextInt(COUNTRIES.length)]);
+        }
+        if (random.nextBoolean()) {
+            request.setMinBudget(random.nextInt(3000));
+        }
+        if (random.nextBoolean()) {
+            request.setMaxBudget(200 + random.nextInt(8000));
+        }
+        if (random.nextBoolean()) {
+            request.setMaxDuration(1 + random.nextInt(25));
+        }
+        request.setLimit(1 + random.nextInt(30));
+        return request;
+    }
+}
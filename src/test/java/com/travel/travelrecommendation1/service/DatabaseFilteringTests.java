@@ -0,0 +1,190 @@
+package com.travel.travelrecommendation1.service;
+
+import com.travel.travelrecommendation1.cache.DestinationCache;
+import com.travel.travelrecommendation1.cache.RecommendationCache;
+import com.travel.travelrecommendation1.cache.RequestCoalescer;
+import com.travel.travelrecommendation1.catalog.CatalogFacets;
+import com.travel.travelrecommendation1.catalog.DestinationCatalog;
+import com.travel.travelrecommendation1.dto.RecommendationRequest;
+import com.travel.travelrecommendation1.dto.RecommendationResponse;
+import com.travel.travelrecommendation1.dto.RecommendationWithReason;
+import com.travel.travelrecommendation1.model.Destination;
+import com.travel.travelrecommendation1.repository.DestinationRepository;
+import com.travel.travelrecommendation1.scoring.ScoringEngine;
+import com.travel.travelrecommendation1.shard.ShardCoordinator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = { "recommendation.scoring.mode=database", "recommendation.cache.enabled=false" })
+@ActiveProfiles("test")
+class DatabaseFilteringTests {
+
+    private static final String[] COUNTRIES = { "Japan", "France", "Spain", "USA", "Italy" };
+    private static final String[] INTERESTS = { "beach", "culture", "food", "nature", "adventure", "mountain" };
+
+    @Autowired
+    private RecommendationService databaseService;
+
+    @Autowired
+    private DestinationRepository repository;
+
+    @Autowired
+    private DestinationCatalog catalog;
+
+    @Autowired
+    private DestinationCache destinationCache;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Test
+    void databaseFilteringMatchesInMemoryScoring() {
+        Random random = new Random(11);
+        List<Destination> rows = new ArrayList<>();
+        for (int i = 0; i < 400; i++) {
+            int minDuration = random.nextInt(10);
+            Destination d = new Destination();
+            d.setName("Generated " + i);
+            d.setCountry(COUNTRIES[random.nextInt(COUNTRIES.length)]);
+            d.setMinBudget(random.nextInt(4000));
+            d.setMaxBudget(5000);
+            d.setMinDuration(minDuration);
+            d.setMaxDuration(minDuration + random.nextInt(12));
+            d.setInterests(INTERESTS[random.nextInt(INTERESTS.length)] + ", "
+                    + INTERESTS[random.nextInt(INTERESTS.length)].toUpperCase());
+            d.setRating(4.0);
+            rows.add(d);
+        }
+        repository.saveAll(rows);
+        catalog.refresh();
+
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        DestinationCache noDestinationCache = new DestinationCache(false, 0, 0, Duration.ZERO, false, 0,
+                new JsonMapper(), registry);
+        ScoringEngine engine = ScoringEngine.sequential();
+        ShardCoordinator unsharded = new ShardCoordinator("memory", 1, "id", new String[0], Duration.ofSeconds(1),
+                1, catalog, engine, new JsonMapper());
+        RecommendationService memoryService = new RecommendationServiceImpl(repository, catalog,
+                new RecommendationCache(false, 0, Duration.ZERO, registry), new RequestCoalescer(false, registry),
+                noDestinationCache, engine, new RecommendationMetrics(registry), unsharded, "memory");
+
+        int matched = 0;
+        for (int i = 0; i < 300; i++) {
+            RecommendationRequest request = request(random);
+            List<String> expected = render(memoryService.getRecommendations(request));
+            assertEquals(expected, render(databaseService.getRecommendations(request)));
+            matched += expected.size();
+        }
+        assertTrue(matched > 1000);
+    }
+
+    @Test
+    void plainSqlEditsReachCachedResults() {
+        Destination row = new Destination();
+        row.setName("Edited outside");
+        row.setCountry("Japan");
+        row.setMinBudget(100);
+        row.setMaxBudget(500);
+        row.setMinDuration(2);
+        row.setMaxDuration(6);
+        row.setInterests("sqlbefore");
+        row.setRating(4.5);
+        row = repository.save(row);
+
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        ScoringEngine engine = ScoringEngine.sequential();
+        RecommendationService cachedService = new RecommendationServiceImpl(repository, catalog,
+                new RecommendationCache(true, 100, Duration.ofMinutes(10), registry),
+                new RequestCoalescer(false, registry), destinationCache, engine, new RecommendationMetrics(registry),
+                new ShardCoordinator("database", 1, "id", new String[0], Duration.ofSeconds(1), 1, catalog,
+                        engine, new JsonMapper()),
+                "database");
+        long version = catalog.checkTable();
+        assertEquals(List.of(row.getId()), ids(cachedService.getRecommendations(request("sqlbefore"))));
+        assertEquals("sqlbefore", cachedService.getDestinationById(row.getId()).value().getInterests());
+
+        // Written like a migration script would: the CSV column only, no entity
+        jdbcTemplate.update("UPDATE destinations SET interests = 'sqlafter', updated_at = CURRENT_TIMESTAMP"
+                + " WHERE id = ?", row.getId());
+        assertNotEquals(version, catalog.checkTable());
+        assertEquals(List.of(), ids(cachedService.getRecommendations(request("sqlbefore"))));
+        assertEquals(List.of(row.getId()), ids(cachedService.getRecommendations(request("sqlafter"))));
+        assertEquals("sqlafter", cachedService.getDestinationById(row.getId()).value().getInterests());
+
+        // Re-deriving the tags leaves the destination row alone, so it is not seen as changed again
+        assertEquals(row.getVersion(), jdbcTemplate.queryForObject(
+                "SELECT version FROM destinations WHERE id = ?", Long.class, row.getId()));
+        long settled = catalog.checkTable();
+        assertEquals(settled, catalog.checkTable());
+    }
+
+    @Test
+    void facetsAreNotServedWithoutACatalog() {
+        assertTrue(context.getBeansOfType(CatalogFacets.class).isEmpty());
+    }
+
+    private static RecommendationRequest request(String interest) {
+        RecommendationRequest request = new RecommendationRequest();
+        request.setBudget(1000);
+        request.setDuration(4);
+        request.setInterests(List.of(interest));
+        return request;
+    }
+
+    private static List<Long> ids(RecommendationResponse response) {
+        List<Long> ids = new ArrayList<>();
+        for (RecommendationWithReason r : response.getRecommendations()) {
+            ids.add(r.getDestination().getId());
+        }
+        return ids;
+    }
+
+    private static List<String> render(RecommendationResponse response) {
+        List<String> rendered = new ArrayList<>();
+        for (RecommendationWithReason r : response.getRecommendations()) {
+            rendered.add(r.getDestination().getId() + ":" + r.getDestination().getMinBudget() + ":"
+                    + r.getReason());
+        }
+        return rendered;
+    }
+
+    private static RecommendationRequest request(Random random) {
+        RecommendationRequest request = new RecommendationRequest();
+        request.setBudget(100 + random.nextInt(5000));
+        request.setDuration(1 + random.nextInt(20));
+        request.setInterests(List.of(INTERESTS[random.nextInt(INTERESTS.length)],
+                " " + INTERESTS[random.nextInt(INTERESTS.length)]));
+        if (random.nextInt(3) == 0) {
+            request.setCountry(COUNTRIES[random.nextInt(COUNTRIES.length)]);
+        }
+        if (random.nextBoolean()) {
+            request.setMinBudget(random.nextInt(3000));
+        }
+        if (random.nextBoolean()) {
+            request.setMaxBudget(random.nextInt(8000));
+        }
+        if (random.nextBoolean()) {
+            request.setMaxDuration(random.nextInt(25));
+        }
+        request.setLimit(1 + random.nextInt(30));
+        return request;
+    }
+}
@@ -0,0 +1,78 @@
+package com.travel.travelrecommendation1.service;
+
+import com.travel.travelrecommendation1.dto.DestinationPage;
+import com.travel.travelrecommendation1.dto.DestinationSummary;
+import com.travel.travelrecommendation1.model.Destination;
+import com.travel.travelrecommendation1.repository.DestinationRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "recommendation.polling-enabled=false")
+@ActiveProfiles("test")
+class DestinationListingTests {
+
+    @Autowired
+    private RecommendationService service;
+
+    @Autowired
+    private DestinationRepository repository;
+
+    @Test
+    void cursorWalksTheWholeCatalogInIdOrder() {
+        List<Destination> all = repository.findAll(Sort.by("id"));
+        assertTrue(all.size() > 7);
+
+        List<Long> walked = new ArrayList<>();
+        Long cursor = null;
+        int pages = 0;
+        do {
+            DestinationPage page = service.getDestinations(cursor, 7).value();
+            assertTrue(page.getItems().size() <= 7);
+            for (DestinationSummary summary : page.getItems()) {
+                walked.add(summary.getId());
+            }
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        List<Long> expected = new ArrayList<>();
+        for (Destination d : all) {
+            expected.add(d.getId());
+        }
+        assertEquals(expected, walked);
+        assertEquals((all.size() + 6) / 7, pages);
+
+        Destination first = all.get(0);
+        DestinationSummary summary = service.getDestinations(null, 1).value().getItems().get(0);
+        assertEquals(first.getName(), summary.getName());
+        assertEquals(first.getMinBudget(), summary.getMinBudget());
+        assertEquals(first.getInterests(), summary.getInterests());
+        String description = first.getDescription();
+        assertEquals(description.substring(0, Math.min(description.length(), DestinationSummary.DESCRIPTION_LENGTH)),
+                summary.getDescription());
+        assertNull(service.getDestinations(all.get(all.size() - 1).getId(), 5).value().getNextCursor());
+    }
+
+    @Test
+    void topRatedIsPickedFromTheWholeCatalog() {
+        List<Long> expected = repository.findAll(Sort.by("id")).stream()
+                .sorted(Comparator.comparing(Destination::getRating,
+                        Comparator.nullsLast(Comparator.<Double>reverseOrder())))
+                .limit(3)
+                .map(Destination::getId)
+                .toList();
+        List<Long> topRated = service.getTopRatedDestinations(3).stream().map(DestinationSummary::getId).toList();
+        assertEquals(expected, topRated);
+    }
+}
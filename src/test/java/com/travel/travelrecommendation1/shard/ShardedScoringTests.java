@@ -0,0 +1,236 @@
+package com.travel.travelrecommendation1.shard;
+
+import com.travel.travelrecommendation1.cache.DestinationCache;
+import com.travel.travelrecommendation1.cache.RecommendationCache;
+import com.travel.travelrecommendation1.cache.RequestCoalescer;
+import com.travel.travelrecommendation1.catalog.DestinationCatalog;
+import com.travel.travelrecommendation1.dto.RecommendationRequest;
+import com.travel.travelrecommendation1.dto.RecommendationResponse;
+import com.travel.travelrecommendation1.dto.RecommendationWithReason;
+import com.travel.travelrecommendation1.model.Destination;
+import com.travel.travelrecommendation1.repository.DestinationRepository;
+import com.travel.travelrecommendation1.scoring.Deadline;
+import com.travel.travelrecommendation1.scoring.ScoringEngine;
+import com.travel.travelrecommendation1.service.RecommendationMetrics;
+import com.travel.travelrecommendation1.service.RecommendationService;
+import com.travel.travelrecommendation1.service.RecommendationServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.net.ServerSocket;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "recommendation.scoring.mode=sharded", "recommendation.sharding.shards=3",
+        "recommendation.sharding.serve=true", "recommendation.cache.enabled=false",
+        "recommendation.polling-enabled=false" })
+@ActiveProfiles("test")
+class ShardedScoringTests {
+
+    // Skewed towards Japan so the diversity re-rank kicks in
+    private static final String[] COUNTRIES = { "Japan", "Japan", "Japan", "France", "Spain", "USA", "Italy" };
+    private static final String[] INTERESTS = { "beach", "culture", "food", "nature", "adventure", "mountain" };
+
+    @Autowired
+    private RecommendationService shardedService;
+
+    @Autowired
+    private DestinationRepository repository;
+
+    @Autowired
+    private DestinationCatalog catalog;
+
+    @Autowired
+    private JsonMapper jsonMapper;
+
+    @LocalServerPort
+    private int port;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final ScoringEngine engine = ScoringEngine.sequential();
+
+    @Test
+    void shardedScoringMatchesSingleNode() {
+        Random random = new Random(23);
+        seed(random);
+        RecommendationService memoryService = service(unsharded(), "memory");
+        ShardCoordinator byCountry = new ShardCoordinator("sharded", 4, "country", new String[0],
+                Duration.ofSeconds(5), 4, catalog, engine, jsonMapper);
+        // This instance answering as the only remote shard
+        ShardCoordinator overHttp = new ShardCoordinator("sharded", 0, "id",
+                new String[] { "http://localhost:" + port }, Duration.ofSeconds(5), 4, catalog, engine, jsonMapper);
+        try {
+            RecommendationService countrySharded = service(byCountry, "sharded");
+            RecommendationService remoteSharded = service(overHttp, "sharded");
+            int matched = 0;
+            for (int i = 0; i < 300; i++) {
+                RecommendationRequest request = request(random);
+                List<String> expected = render(memoryService.getRecommendations(request));
+                assertEquals(expected, render(shardedService.getRecommendations(request)));
+                assertEquals(expected, render(countrySharded.getRecommendations(request)));
+                if (i % 10 == 0) {
+                    RecommendationResponse remote = remoteSharded.getRecommendations(request);
+                    assertEquals(expected, render(remote));
+                    assertFalse(remote.isPartial());
+                }
+                matched += expected.size();
+            }
+            assertTrue(matched > 1000);
+        } finally {
+            byCountry.shutdown();
+            overHttp.shutdown();
+        }
+    }
+
+    @Test
+    void shardRowsAreCountedOnce() {
+        Random random = new Random(11);
+        seed(random);
+        SimpleMeterRegistry memoryRegistry = new SimpleMeterRegistry();
+        SimpleMeterRegistry shardedRegistry = new SimpleMeterRegistry();
+        ShardCoordinator byId = new ShardCoordinator("sharded", 3, "id", new String[0], Duration.ofSeconds(5), 4,
+                catalog, engine, jsonMapper);
+        try {
+            RecommendationService memoryService = service(unsharded(), "memory", memoryRegistry);
+            RecommendationService sharded = service(byId, "sharded", shardedRegistry);
+            List<RecommendationRequest> requests = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                RecommendationRequest request = request(random);
+                requests.add(request);
+                memoryService.getRecommendations(request);
+                sharded.getRecommendations(request);
+            }
+            // Each shard scans its part once; re-scoring the gathered rows adds nothing
+            for (String outcome : List.of("pruned", "scored")) {
+                assertEquals(candidates(memoryRegistry, outcome), candidates(shardedRegistry, outcome), outcome);
+            }
+            assertEquals(20.0 * catalog.snapshot().size(), shardedRegistry.get("recommendation.request.candidates")
+                    .tag("outcome", "loaded").summary().totalAmount());
+
+            // The batch scores all its requests in one pass, timed once
+            long scorePasses = memoryRegistry.get("recommendation.stage").tag("stage", "score").timer().count();
+            memoryService.getBatchRecommendations(requests);
+            assertEquals(1, memoryRegistry.get("recommendation.batch").timer().count());
+            assertEquals(scorePasses + 1,
+                    memoryRegistry.get("recommendation.stage").tag("stage", "score").timer().count());
+            assertEquals(20.0, memoryRegistry.get("recommendation.batch.size").summary().totalAmount());
+        } finally {
+            byId.shutdown();
+        }
+    }
+
+    @Test
+    void unreachableShardGivesPartialResult() {
+        ShardCoordinator coordinator = new ShardCoordinator("sharded", 0, "id",
+                new String[] { "http://localhost:" + port, "http://localhost:1" }, Duration.ofSeconds(2), 4,
+                catalog, engine, jsonMapper);
+        try {
+            RecommendationResponse response = service(coordinator, "sharded").getRecommendations(request(new Random(5)));
+            assertTrue(response.isPartial());
+        } finally {
+            coordinator.shutdown();
+        }
+    }
+
+    @Test
+    void shardsStillRunningAtTheDeadlineAreLeftOut() throws Exception {
+        // Accepts the connection but never answers
+        try (ServerSocket silent = new ServerSocket(0)) {
+            ShardCoordinator coordinator = new ShardCoordinator("sharded", 0, "id",
+                    new String[] { "http://localhost:" + port, "http://localhost:" + silent.getLocalPort() },
+                    Duration.ofSeconds(30), 4, catalog, engine, jsonMapper);
+            try {
+                long start = System.nanoTime();
+                ShardResult result = coordinator.search(request(new Random(7)), engine.rules(),
+                        Deadline.after(Duration.ofMillis(500)));
+                assertTrue(result.isPartial());
+                assertTrue(System.nanoTime() - start < Duration.ofSeconds(10).toNanos());
+            } finally {
+                coordinator.shutdown();
+            }
+        }
+    }
+
+    private void seed(Random random) {
+        List<Destination> rows = new ArrayList<>();
+        for (int i = 0; i < 400; i++) {
+            int minDuration = random.nextInt(10);
+            Destination d = new Destination();
+            d.setName("Sharded " + i);
+            d.setCountry(COUNTRIES[random.nextInt(COUNTRIES.length)]);
+            d.setMinBudget(random.nextInt(4000));
+            d.setMaxBudget(5000);
+            d.setMinDuration(minDuration);
+            d.setMaxDuration(minDuration + random.nextInt(12));
+            d.setInterests(INTERESTS[random.nextInt(INTERESTS.length)] + ","
+                    + INTERESTS[random.nextInt(INTERESTS.length)]);
+            d.setRating(4.0);
+            rows.add(d);
+        }
+        repository.saveAll(rows);
+        catalog.refresh();
+    }
+
+    private ShardCoordinator unsharded() {
+        return new ShardCoordinator("memory", 1, "id", new String[0], Duration.ofSeconds(1), 4, catalog,
+                engine, jsonMapper);
+    }
+
+    private RecommendationService service(ShardCoordinator coordinator, String mode) {
+        return service(coordinator, mode, registry);
+    }
+
+    private RecommendationService service(ShardCoordinator coordinator, String mode, SimpleMeterRegistry registry) {
+        return new RecommendationServiceImpl(repository, catalog,
+                new RecommendationCache(false, 0, Duration.ZERO, registry), new RequestCoalescer(false, registry),
+                new DestinationCache(false, 0, 0, Duration.ZERO, false, 0, jsonMapper, registry), engine,
+                new RecommendationMetrics(registry), coordinator, mode);
+    }
+
+    private static double candidates(SimpleMeterRegistry registry, String outcome) {
+        return registry.get("recommendation.candidates").tag("outcome", outcome).counter().count();
+    }
+
+    private static List<String> render(RecommendationResponse response) {
+        List<String> rendered = new ArrayList<>();
+        for (RecommendationWithReason r : response.getRecommendations()) {
+            rendered.add(r.getDestination().getId() + ":" + r.getDestination().getMinBudget() + ":"
+                    + r.getReason());
+        }
+        return rendered;
+    }
+
+    private static RecommendationRequest request(Random random) {
+        RecommendationRequest request = new RecommendationRequest();
+        request.setBudget(100 + random.nextInt(5000));
+        request.setDuration(1 + random.nextInt(20));
+        request.setInterests(List.of(INTERESTS[random.nextInt(INTERESTS.length)],
+                INTERESTS[random.nextInt(INTERESTS.length)]));
+        if (random.nextInt(4) == 0) {
+            request.setCountry(COUNTRIES[random.nextInt(COUNTRIES.length)]);
+        }
+        if (random.nextBoolean()) {
+            request.setMinBudget(random.nextInt(3000));
+        }
+        if (random.nextBoolean()) {
+            request.setMaxBudget(random.nextInt(8000));
+        }
+        if (random.nextBoolean()) {
+            request.setMaxDuration(random.nextInt(25));
+        }
+        request.setLimit(1 + random.nextInt(30));
+        return request;
+    }
+}
@@ -0,0 +1,95 @@
+package com.travel.travelrecommendation1.util;
+
+import com.travel.travelrecommendation1.catalog.CatalogSnapshot;
+import com.travel.travelrecommendation1.dto.RecommendationRequest;
+import com.travel.travelrecommendation1.model.Destination;
+import com.travel.travelrecommendation1.scoring.ScoredCandidate;
+import com.travel.travelrecommendation1.scoring.ScoringEngine;
+import com.travel.travelrecommendation1.scoring.ScoringQuery;
+import com.travel.travelrecommendation1.scoring.ScoringRules;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RuleEngineTests {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void bundledRulesMatchTheDefaults() throws IOException {
+        ScoringEngine engine = ScoringEngine.sequential();
+        new RuleEngine("classpath:scoring-rules.properties", new DefaultResourceLoader(), engine).load();
+        assertEquals(ScoringRules.DEFAULT.weights(), engine.rules().weights());
+    }
+
+    @Test
+    void editedRulesAreReloadedAndBadOnesIgnored() throws IOException {
+        Path file = dir.resolve("rules.properties");
+        Files.writeString(file, "per-interest=2\n");
+        ScoringEngine engine = ScoringEngine.sequential();
+        RuleEngine rules = new RuleEngine(file.toUri().toString(), new DefaultResourceLoader(), engine);
+        rules.load();
+
+        CatalogSnapshot catalog = CatalogSnapshot.of(1, List.of(
+                destination(1, "Japan", "food"),
+                destination(2, "France", "beach,food,culture")));
+        RecommendationRequest request = new RecommendationRequest();
+        request.setDuration(5);
+        request.setCountry("Japan");
+        request.setInterests(List.of("beach", "food", "culture"));
+        assertEquals(List.of("1:108", "2:12"), rank(catalog, request, engine.rules()));
+
+        // Interests now outweigh the country
+        Files.writeString(file, "preferred-country=3\nper-interest=5\n");
+        Files.setLastModifiedTime(file, FileTime.from(Instant.now().plusSeconds(10)));
+        rules.pollForChanges();
+        assertEquals(List.of("2:21", "1:14"), rank(catalog, request, engine.rules()));
+
+        Files.writeString(file, "no-such-rule=1\n");
+        Files.setLastModifiedTime(file, FileTime.from(Instant.now().plusSeconds(20)));
+        rules.pollForChanges();
+        assertEquals(5, engine.rules().weights().get(ScoringRules.PER_INTEREST));
+    }
+
+    @Test
+    void malformedTablesAreRejected() {
+        Properties table = new Properties();
+        table.setProperty(ScoringRules.FITS_BUDGET, "three");
+        assertThrows(IllegalArgumentException.class, () -> ScoringRules.compile(1, table));
+    }
+
+    private static List<String> rank(CatalogSnapshot catalog, RecommendationRequest request, ScoringRules rules) {
+        List<String> ranked = new ArrayList<>();
+        ScoringQuery query = ScoringQuery.of(request, catalog, rules);
+        for (ScoredCandidate candidate : ScoringEngine.sequential().score(catalog, query).ranked()) {
+            ranked.add(catalog.id(candidate.row()) + ":" + candidate.score());
+        }
+        return ranked;
+    }
+
+    private static Destination destination(long id, String country, String interests) {
+        Destination d = new Destination();
+        d.setId(id);
+        d.setName("Destination " + id);
+        d.setCountry(country);
+        d.setMinBudget(500);
+        d.setMaxBudget(1500);
+        d.setMinDuration(3);
+        d.setMaxDuration(10);
+        d.setInterests(interests);
+        return d;
+    }
+}
@@ -5,7 +5,7 @@ import Link from 'next/link'
 import HeroSection from '@/components/home/hero-section'
 import FilterPanel from '@/components/home/filter-panel'
 import DestinationGrid from '@/components/home/destination-grid'
-import { getAllDestinations } from '@/lib/api'
+import { getTopRatedDestinations } from '@/lib/api'
 import { Destination } from '@/lib/destinations'
 
 export default function Home() {
@@ -26,10 +26,8 @@ export default function Home() {
   useEffect(() => {
     const fetchDestinations = async () => {
       try {
-        const data = await getAllDestinations()
-        // Sort by rating for "Popular" and take top 3
-        const popular = data.sort((a, b) => b.rating - a.rating).slice(0, 3)
-        setDestinations(popular)
+        // "Popular": the top 3 by rating across the whole catalog
+        setDestinations(await getTopRatedDestinations(3))
       } catch (error) {
         console.error('Failed to load destinations', error)
       } finally {
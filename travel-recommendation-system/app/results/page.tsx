@@ -4,7 +4,7 @@ import { useEffect, useState } from 'react'
 import Link from 'next/link'
 import { Button } from '@/components/ui/button'
 import DestinationGrid from '@/components/home/destination-grid'
-import { getRecommendations, getAllDestinations } from '@/lib/api'
+import { getRecommendations, getDestinations } from '@/lib/api'
 import { type Destination } from '@/lib/destinations'
 import {
   Select,
@@ -44,15 +44,17 @@ export default function ResultsPage() {
           console.error('Failed to fetch recommendations', error)
         }
       } else {
-        // No filters? Maybe fetch popular or all?
+        // No filters: the first destinations of the listing, paging on if
+        // the backend caps the page below the limit
         try {
-          // If getAllDestinations doesn't support limit yet, we might need to slice locally or update it too.
-          // For now, let's just slice locally for the "getAll" case if API doesn't support it, 
-          // or ideally assume getAllDestinations handles it?
-          // The current getAllDestinations implementation in API doesn't take args. 
-          // So we should slice locally for fallback.
-          const all = await getAllDestinations()
-          setFilteredDestinations(all.slice(0, currentLimit))
+          const collected: Destination[] = []
+          let cursor: string | undefined
+          do {
+            const page = await getDestinations(cursor, currentLimit - collected.length)
+            collected.push(...page.destinations)
+            cursor = page.nextCursor
+          } while (cursor && collected.length < currentLimit)
+          setFilteredDestinations(collected)
         } catch (e) { console.error(e) }
       }
       setLoading(false)
@@ -3,14 +3,34 @@ import { Destination } from './destinations'
 const API_BASE_URL = 'http://localhost:8080/api/recommendations'
 const EXCHANGE_RATE = 84 // 1 USD = 84 INR
 
-export async function getAllDestinations(): Promise<Destination[]> {
+// One page of card summaries (a description snippet, no highlights); pass the
+// returned nextCursor as `after` to continue
+export async function getDestinations(after?: string, size = 100): Promise<{ destinations: Destination[]; nextCursor?: string }> {
     try {
-        const res = await fetch(`${API_BASE_URL}/destinations`, { cache: 'no-store' })
+        const params = new URLSearchParams({ size: String(size) })
+        if (after) params.set('after', after)
+        const res = await fetch(`${API_BASE_URL}/destinations?${params}`, { cache: 'no-store' })
         if (!res.ok) throw new Error('Failed to fetch destinations')
         const data = await res.json()
-        return data.map((d: any) => mapBackendToFrontend(d))
+        return {
+            destinations: data.items.map((d: any) => mapBackendToFrontend(d)),
+            nextCursor: data.nextCursor != null ? String(data.nextCursor) : undefined,
+        }
     } catch (error) {
         console.error('Error fetching destinations:', error)
+        return { destinations: [] }
+    }
+}
+
+// Best rated destinations over the whole catalog, sorted by the backend
+export async function getTopRatedDestinations(size = 3): Promise<Destination[]> {
+    try {
+        const res = await fetch(`${API_BASE_URL}/destinations/top-rated?size=${size}`, { cache: 'no-store' })
+        if (!res.ok) throw new Error('Failed to fetch top rated destinations')
+        const data = await res.json()
+        return data.map((d: any) => mapBackendToFrontend(d))
+    } catch (error) {
+        console.error('Error fetching top rated destinations:', error)
         return []
     }
 }
@@ -83,7 +103,7 @@ function mapBackendToFrontend(data: any, reason?: string): Destination {
         durationMin: data.minDuration,
         durationMax: data.maxDuration,
         interests: data.interests ? data.interests.split(',') : [],
-        description: data.description,
+        description: data.description || '',
         image: data.image || '',
         highlights: data.highlights ? data.highlights.split(',') : [],
         bestTime: data.bestTime || '',